@@ -0,0 +1,107 @@
+package wpialgs.benchmarks;
+
+import java.io.File;
+import java.util.Arrays;
+import wpialgs.hw04.separation.AbstractDegreesOfSeparation;
+import wpialgs.hw04.separation.ActorToActorDegreesOfSeparation;
+import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
+import wpialgs.hw04.separation.MovieToMovieDegreesOfSeparation;
+
+/**
+ * The movie files and graphs the benchmarks run over. A dataset is the name of a movie file in the directory given by
+ * the {@value #DIRECTORY_PROPERTY} system property, which {@link RunBenchmarks} passes to every fork.
+ */
+final class Datasets {
+
+    /**
+     * System property holding the directory of the movie files.
+     */
+    static final String DIRECTORY_PROPERTY = "benchmarks.data";
+
+    /**
+     * Values of the {@code graph} parameter, one per {@link AbstractDegreesOfSeparation} implementation.
+     */
+    static final String ACTOR_ACTOR = "ActorToActor";
+    static final String ACTOR_MOVIE = "ActorToMovie";
+    static final String MOVIE_MOVIE = "MovieToMovie";
+
+    private Datasets() {
+    }
+
+    /**
+     * Returns the movie file of {@code dataset}.
+     *
+     * @param dataset
+     *            name of a file in the data directory
+     *
+     * @return the {@link File}
+     *
+     * @throws IllegalStateException
+     *             if the file does not exist
+     */
+    static File file(String dataset) {
+        File f = new File(System.getProperty(DIRECTORY_PROPERTY, "data"), dataset);
+        if (!f.isFile())
+            throw new IllegalStateException("no dataset " + f + ", set -D" + DIRECTORY_PROPERTY);
+        return f;
+    }
+
+    /**
+     * Creates an empty degrees of separation object for {@code graph}.
+     *
+     * @param graph
+     *            {@link #ACTOR_ACTOR}, {@link #ACTOR_MOVIE} or {@link #MOVIE_MOVIE}
+     *
+     * @return the new object, with no movies read
+     */
+    static AbstractDegreesOfSeparation create(String graph) {
+        return switch (graph) {
+        case ACTOR_ACTOR -> new ActorToActorDegreesOfSeparation();
+        case ACTOR_MOVIE -> new ActorToMovieDegreesOfSeparation();
+        case MOVIE_MOVIE -> new MovieToMovieDegreesOfSeparation();
+        default -> throw new IllegalArgumentException("unknown graph: " + graph);
+        };
+    }
+
+    /**
+     * Reads {@code dataset} and creates its {@code graph}.
+     *
+     * @param dataset
+     *            name of a file in the data directory
+     * @param graph
+     *            {@link #ACTOR_ACTOR}, {@link #ACTOR_MOVIE} or {@link #MOVIE_MOVIE}
+     *
+     * @return the object, ready to be traversed
+     */
+    static AbstractDegreesOfSeparation load(String dataset, String graph) {
+        AbstractDegreesOfSeparation symbolGraph = create(graph);
+        symbolGraph.readFile(file(dataset), "\t");
+        symbolGraph.createGraph();
+        return symbolGraph;
+    }
+
+    /**
+     * Picks up to {@code k} sources spread evenly over the vertex ids of {@code symbolGraph}, so that every run
+     * traverses from the same ones.
+     *
+     * @param symbolGraph
+     *            a loaded graph
+     * @param k
+     *            number of sources
+     *
+     * @return names of the sources
+     */
+    static String[] sources(AbstractDegreesOfSeparation symbolGraph, int k) {
+        int n = symbolGraph.compactGraph().numVertices();
+        int stride = Math.max(1, n / k);
+        String[] sources = new String[k];
+        int found = 0;
+        for (int v = 0; v < n && found < k; v += stride) {
+            String name = symbolGraph.nameOf(v);
+            if (symbolGraph.indexOf(name) >= 0)
+                sources[found++] = name;
+        }
+
+        return Arrays.copyOf(sources, found);
+    }
+}
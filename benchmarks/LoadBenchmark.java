@@ -0,0 +1,84 @@
+package wpialgs.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import wpialgs.hw04.separation.AbstractDegreesOfSeparation;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+
+/**
+ * Reading a movie file and creating each of the three graphs from it.
+ * <p>
+ * Every invocation starts from a new object, so {@link #readFile(ReadState)} measures parsing into empty symbol
+ * tables and {@link #createGraph(GraphState)} building into an empty graph; the file is read before each
+ * {@link #createGraph(GraphState)} outside of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class LoadBenchmark {
+
+    /**
+     * The movie file to read.
+     */
+    @State(Scope.Thread)
+    public static class ReadState {
+
+        @Param({ "small.txt" })
+        public String dataset;
+
+        File myFile;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            myFile = Datasets.file(dataset);
+        }
+    }
+
+    /**
+     * A freshly read movie file, for each graph.
+     */
+    @State(Scope.Thread)
+    public static class GraphState {
+
+        @Param({ "small.txt" })
+        public String dataset;
+
+        @Param({ Datasets.ACTOR_ACTOR, Datasets.ACTOR_MOVIE, Datasets.MOVIE_MOVIE })
+        public String graph;
+
+        AbstractDegreesOfSeparation mySymbolGraph;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            mySymbolGraph = Datasets.create(graph);
+            mySymbolGraph.readFile(Datasets.file(dataset), "\t");
+        }
+    }
+
+    @Benchmark
+    public AbstractDegreesOfSeparation readFile(ReadState state) {
+        AbstractDegreesOfSeparation symbolGraph = Datasets.create(Datasets.ACTOR_MOVIE);
+        symbolGraph.readFile(state.myFile, "\t");
+        return symbolGraph;
+    }
+
+    @Benchmark
+    public UndirectedGraph createGraph(GraphState state) {
+        state.mySymbolGraph.createGraph();
+        return state.mySymbolGraph.getGraph();
+    }
+}
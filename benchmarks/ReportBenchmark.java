@@ -0,0 +1,78 @@
+package wpialgs.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import wpialgs.hw04.separation.AbstractDegreesOfSeparation;
+import wpialgs.hw04.utils.Histogram;
+
+/**
+ * Printing the frequency chart of a source, key by key and in bins.
+ * <p>
+ * The chart is the one of the first source of the Actor-Actor graph. {@code System.out} is replaced by a stream that
+ * drops everything before {@code StdOut} is first used in the fork, so the numbers include formatting and encoding but
+ * not the terminal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReportBenchmark {
+
+    private static final int BIN_SIZE = 2;
+
+    /**
+     * The frequency chart to print.
+     */
+    @State(Scope.Thread)
+    public static class ChartState {
+
+        @Param({ "small.txt" })
+        public String dataset;
+
+        Histogram myChart;
+        private PrintStream myOut;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            myOut = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+            AbstractDegreesOfSeparation symbolGraph = Datasets.load(dataset, Datasets.ACTOR_ACTOR);
+            String source = Datasets.sources(symbolGraph, 1)[0];
+            symbolGraph.setSource(source);
+            symbolGraph.traverseBFS(source);
+            symbolGraph.createFrequencyChart();
+            myChart = symbolGraph.getHistogram();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            System.setOut(myOut);
+        }
+    }
+
+    @Benchmark
+    public void report(ChartState state) {
+        state.myChart.report();
+    }
+
+    @Benchmark
+    public void reportBins(ChartState state) {
+        state.myChart.report(BIN_SIZE);
+    }
+}
@@ -0,0 +1,61 @@
+package wpialgs.benchmarks;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this package over every movie file ({@code *.txt}) in a directory, smallest first, with the
+ * allocation profiler, and writes the results as JSON so that a later run can be compared against them. Movie files
+ * of any size can be written with {@link wpialgs.sixdegrees.utils.DatasetGenerator}.
+ * <p>
+ * The benchmarks need JMH and its annotation processor on the class path when they are compiled. Warmup, measurement
+ * and forks are set on each benchmark class; the forks get the data directory and the heap size of this JVM.
+ */
+public class RunBenchmarks {
+
+    private static final String DEFAULT_RESULTS = "benchmarks.json";
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args
+     *            the data directory, optionally followed by the result file and a regular expression selecting the
+     *            benchmarks to run
+     *
+     * @throws RunnerException
+     *             if a benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("USAGE: java RunBenchmarks <data directory> [<result file> [<regexp>]]");
+            return;
+        }
+
+        File directory = new File(args[0]);
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (files == null || files.length == 0) {
+            System.err.println("No movie files in " + directory);
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::length));
+        String[] datasets = Arrays.stream(files).map(File::getName).toArray(String[]::new);
+
+        Options options = new OptionsBuilder()
+                .include(args.length > 2 ? args[2] : RunBenchmarks.class.getPackageName() + ".*Benchmark")
+                .param("dataset", datasets)
+                .jvmArgsAppend("-D" + Datasets.DIRECTORY_PROPERTY + "=" + directory.getAbsolutePath(),
+                        "-Xmx" + Runtime.getRuntime().maxMemory())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(args.length > 1 ? args[1] : DEFAULT_RESULTS)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,101 @@
+package wpialgs.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import wpialgs.hw04.separation.AbstractDegreesOfSeparation;
+import wpialgs.hw04.utils.Histogram;
+import wpialgs.sixdegrees.traversal.TraversalResult;
+
+/**
+ * Traversing each of the three graphs and computing the statistics of the source, the work {@code RunGame} does for
+ * every source it is given.
+ * <p>
+ * Each traversal moves on to the next of {@value #SOURCES} sources spread over the graph, so the numbers are an
+ * average over central and peripheral sources rather than those of a single one. The statistics are measured on
+ * their own, from a traversal done at the start of each iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TraversalBenchmark {
+
+    private static final int SOURCES = 64;
+
+    /**
+     * A created graph and the sources to traverse it from.
+     */
+    @State(Scope.Thread)
+    public static class GraphState {
+
+        @Param({ "small.txt" })
+        public String dataset;
+
+        @Param({ Datasets.ACTOR_ACTOR, Datasets.ACTOR_MOVIE, Datasets.MOVIE_MOVIE })
+        public String graph;
+
+        AbstractDegreesOfSeparation mySymbolGraph;
+        private String[] mySources;
+        private int myNext;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            mySymbolGraph = Datasets.load(dataset, graph);
+            mySources = Datasets.sources(mySymbolGraph, SOURCES);
+        }
+
+        /**
+         * Returns the next source, going round the sources in turn.
+         */
+        String nextSource() {
+            String source = mySources[myNext];
+            myNext = (myNext + 1) % mySources.length;
+            return source;
+        }
+    }
+
+    /**
+     * A graph traversed from a new source at the start of every iteration.
+     */
+    @State(Scope.Thread)
+    public static class TraversedState extends GraphState {
+
+        @Setup(Level.Iteration)
+        public void traverse() {
+            String source = nextSource();
+            mySymbolGraph.setSource(source);
+            mySymbolGraph.traverseBFS(source);
+        }
+    }
+
+    @Benchmark
+    public TraversalResult traverseBFS(GraphState state) {
+        state.mySymbolGraph.traverseBFS(state.nextSource());
+        return state.mySymbolGraph.getTraversalResult();
+    }
+
+    @Benchmark
+    public double computeHollywoodNumber(TraversedState state) {
+        return state.mySymbolGraph.computeHollywoodNumber();
+    }
+
+    @Benchmark
+    public Histogram createFrequencyChart(TraversedState state) {
+        // A new histogram each time, as for a new source
+        state.mySymbolGraph.setSource(state.mySymbolGraph.getSource());
+        state.mySymbolGraph.createFrequencyChart();
+        return state.mySymbolGraph.getHistogram();
+    }
+}
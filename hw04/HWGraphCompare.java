@@ -21,11 +21,12 @@ import edu.princeton.cs.algs4.StdOut;
 import edu.princeton.cs.algs4.StopwatchCPU;
 import java.io.File;
 import java.util.Date;
+import wpialgs.hw04.separation.AbstractDegreesOfSeparation;
 import wpialgs.hw04.separation.ActorToActorDegreesOfSeparation;
 import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
 import wpialgs.hw04.separation.MovieToMovieDegreesOfSeparation;
 import wpialgs.sixdegrees.graphs.UndirectedGraph;
-import wpialgs.sixdegrees.separation.DegreesOfSeparation;
+import wpialgs.sixdegrees.traversal.TraversalStrategy;
 
 /**
  * This compares the {@link ActorToMovieDegreesOfSeparation}, {@link ActorToActorDegreesOfSeparation} and
@@ -60,22 +61,35 @@ public class HWGraphCompare {
             final String sourceMovie = args[2];
 
             // Use the Actor-Movie Degrees of Separation
-            DegreesOfSeparation symbolGraph1 = new ActorToMovieDegreesOfSeparation(sourceActor);
+            AbstractDegreesOfSeparation symbolGraph1 = new ActorToMovieDegreesOfSeparation(sourceActor);
             symbolGraph1.readFile(new File(args[0]), "\t");
             StdOut.println("SYMBOL GRAPH IMPLEMENTATION: ActorToMovie\n\n");
             runExperiment(symbolGraph1, sourceActor);
 
             // Use the Actor-Actor Degrees of Separation
-            DegreesOfSeparation symbolGraph2 = new ActorToActorDegreesOfSeparation(sourceActor);
+            AbstractDegreesOfSeparation symbolGraph2 = new ActorToActorDegreesOfSeparation(sourceActor);
             symbolGraph2.readFile(new File(args[0]), "\t");
             StdOut.println("SYMBOL GRAPH IMPLEMENTATION: ActorToActor\n\n");
             runExperiment(symbolGraph2, sourceActor);
 
             // Use the Movie-Movie Degrees of Separation
-            DegreesOfSeparation symbolGraph3 = new MovieToMovieDegreesOfSeparation(sourceMovie);
+            AbstractDegreesOfSeparation symbolGraph3 = new MovieToMovieDegreesOfSeparation(sourceMovie);
             symbolGraph3.readFile(new File(args[0]), "\t");
             StdOut.println("SYMBOL GRAPH IMPLEMENTATION: MovieToMovie\n\n");
             runExperiment(symbolGraph3, sourceMovie);
+
+            // Use the Actor-Actor and Movie-Movie Degrees of Separation as projections of the Actor-Movie graph
+            AbstractDegreesOfSeparation symbolGraph4 = new ActorToActorDegreesOfSeparation(sourceActor);
+            symbolGraph4.setProjected(true);
+            symbolGraph4.readFile(new File(args[0]), "\t");
+            StdOut.println("SYMBOL GRAPH IMPLEMENTATION: ActorToActor (projected)\n\n");
+            runExperiment(symbolGraph4, sourceActor);
+
+            AbstractDegreesOfSeparation symbolGraph5 = new MovieToMovieDegreesOfSeparation(sourceMovie);
+            symbolGraph5.setProjected(true);
+            symbolGraph5.readFile(new File(args[0]), "\t");
+            StdOut.println("SYMBOL GRAPH IMPLEMENTATION: MovieToMovie (projected)\n\n");
+            runExperiment(symbolGraph5, sourceMovie);
         }
     }
 
@@ -85,7 +99,7 @@ public class HWGraphCompare {
      * @param symbolGraph
      *            A symbol graph implementation.
      */
-    private static void runExperiment(DegreesOfSeparation symbolGraph, String source) {
+    private static void runExperiment(AbstractDegreesOfSeparation symbolGraph, String source) {
         // Build the graph and time it
         StopwatchCPU timer = new StopwatchCPU();
         symbolGraph.createGraph();
@@ -99,6 +113,18 @@ public class HWGraphCompare {
         currElapsed = timer.elapsedTime();
         System.out.printf("Graph with %d vertices & %d edges traversed using BFS.\n", g.numVertices(), g.numEdges());
         System.out.printf("Time elapsed: %.5f seconds\n", currElapsed);
+        System.out.printf("Edges examined: %d\n", symbolGraph.getEdgesExamined());
+
+        // Traverse again using direction-optimizing BFS and compare the work done
+        if (!symbolGraph.isProjected()) {
+            symbolGraph.setTraversalStrategy(TraversalStrategy.DIRECTION_OPTIMIZING);
+            timer = new StopwatchCPU();
+            symbolGraph.traverseBFS(source);
+            currElapsed = timer.elapsedTime();
+            System.out.printf("Direction-optimizing BFS time elapsed: %.5f seconds\n", currElapsed);
+            System.out.printf("Edges examined: %d\n", symbolGraph.getEdgesExamined());
+            symbolGraph.setTraversalStrategy(TraversalStrategy.TOP_DOWN);
+        }
         System.out.println("------------------------------------\n");
 
         // Build a histogram of the data
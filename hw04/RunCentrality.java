@@ -0,0 +1,88 @@
+/*
+ * RunCentrality.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04;
+
+import edu.princeton.cs.algs4.StopwatchCPU;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
+import wpialgs.hw04.utils.Histogram;
+import wpialgs.sixdegrees.graphs.Vertex;
+import wpialgs.sixdegrees.traversal.DistanceProfile;
+
+/**
+ * Prints the Hollywood number and the degrees of separation histogram of every actor in a data file, using the
+ * {@link ActorToMovieDegreesOfSeparation} symbol graph and a multi-source breadth-first search.
+ * <p>
+ * The output is one tab-separated line per actor: the name, the Hollywood number, then the number of actors at
+ * 0, 1, ..., {@value #MAX_DEGREES} or more degrees of separation and the number of unreachable actors.
+ */
+public class RunCentrality {
+
+    private static final int MAX_DEGREES = 10;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("USAGE: java RunCentrality <filename>");
+        } else {
+            ActorToMovieDegreesOfSeparation symbolGraph = new ActorToMovieDegreesOfSeparation();
+            StopwatchCPU timer = new StopwatchCPU();
+            symbolGraph.readFile(new File(args[0]), "\t");
+            symbolGraph.createGraph();
+            System.err.printf("Graph created. Time elapsed: %.5f seconds\n", timer.elapsedTime());
+
+            // Every actor is a source
+            List<String> actors = new ArrayList<>();
+            symbolGraph.getGraph().forEachVertex(v -> {
+                if (symbolGraph.isActor(v.name)) {
+                    actors.add(v.name);
+                }
+            });
+
+            timer = new StopwatchCPU();
+            DistanceProfile[] profiles = symbolGraph.computeDistanceProfiles(actors.toArray(new String[0]));
+            System.err.printf("%d sources traversed. Time elapsed: %.5f seconds\n", actors.size(),
+                    timer.elapsedTime());
+
+            // Print the table
+            StringBuilder header = new StringBuilder("Actor\tHollywood number");
+            for (int d = 0; d < MAX_DEGREES; d++) {
+                header.append('\t').append(d);
+            }
+            System.out.println(header.append('\t').append(MAX_DEGREES).append("+\tinfinity"));
+            for (int i = 0; i < profiles.length; i++) {
+                Histogram chart = symbolGraph.createFrequencyChart(profiles[i]);
+                StringBuilder row = new StringBuilder(actors.get(i));
+                row.append('\t').append(String.format("%.5f", symbolGraph.computeHollywoodNumber(profiles[i])));
+                for (int d = 0; d < MAX_DEGREES; d++) {
+                    row.append('\t').append(chart.total(d, d));
+                }
+                row.append('\t').append(chart.total(MAX_DEGREES, Vertex.INFINITY - 1));
+                row.append('\t').append(chart.total(Vertex.INFINITY, Vertex.INFINITY));
+                System.out.println(row);
+            }
+        }
+    }
+}
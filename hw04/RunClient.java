@@ -0,0 +1,170 @@
+/*
+ * RunClient.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A client for {@link RunServer} on the same machine.
+ * <p>
+ * Given only a port, it sends each line typed on standard input as a request and prints the reply. Given a file of
+ * requests and a number of connections as well, it opens that many connections at once, each on its own thread,
+ * spreads the requests over them round-robin, and reports the throughput, the latency percentiles and the
+ * number of error replies.
+ */
+public class RunClient {
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     *
+     * @throws IOException
+     *             if the requests file cannot be read or the server cannot be reached
+     * @throws InterruptedException
+     *             if interrupted while waiting for the connections to finish
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 1 && args.length != 3) {
+            System.err.println("USAGE: java RunClient <port> [<requests file> <connections>]");
+        } else if (args.length == 1) {
+            int port = Integer.parseInt(args[0]);
+            try (Connection connection = new Connection(port);
+                    BufferedReader stdin = new BufferedReader(
+                            new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+                String request;
+                while ((request = stdin.readLine()) != null && !request.equalsIgnoreCase("QUIT")) {
+                    for (String line : connection.send(request)) {
+                        System.out.println(line);
+                    }
+                }
+            }
+        } else {
+            int port = Integer.parseInt(args[0]);
+            List<String> requests = Files.readAllLines(Path.of(args[1]), StandardCharsets.UTF_8);
+            requests.removeIf(String::isBlank);
+            int connections = Integer.parseInt(args[2]);
+            long[] latencies = new long[requests.size()];
+            AtomicInteger errors = new AtomicInteger();
+            AtomicInteger failures = new AtomicInteger();
+
+            long start = System.nanoTime();
+            ExecutorService clients = Executors.newFixedThreadPool(connections);
+            try {
+                for (int c = 0; c < connections; c++) {
+                    int first = c;
+                    clients.submit(() -> {
+                        try (Connection connection = new Connection(port)) {
+                            for (int i = first; i < requests.size(); i += connections) {
+                                long sent = System.nanoTime();
+                                List<String> reply = connection.send(requests.get(i));
+                                latencies[i] = System.nanoTime() - sent;
+                                if (reply.get(0).startsWith("ERROR"))
+                                    errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            failures.incrementAndGet();
+                        }
+                    });
+                }
+            } finally {
+                clients.shutdown();
+            }
+            clients.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("%d requests over %d connections in %.3f seconds (%.0f requests/second)\n",
+                    requests.size(), connections, seconds, requests.size() / seconds);
+            System.out.printf("Latency: p50 %.3f ms, p99 %.3f ms, max %.3f ms\n", percentile(latencies, 0.50),
+                    percentile(latencies, 0.99), percentile(latencies, 1.0));
+            System.out.printf("%d error replies, %d failed connections\n", errors.get(), failures.get());
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0)
+            return 0;
+        int i = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, i)] / 1e6;
+    }
+
+    /**
+     * One connection to the server.
+     */
+    private static final class Connection implements AutoCloseable {
+
+        private final Socket mySocket;
+        private final BufferedReader myIn;
+        private final Writer myOut;
+
+        Connection(int port) throws IOException {
+            mySocket = new Socket(InetAddress.getLoopbackAddress(), port);
+            myIn = new BufferedReader(new InputStreamReader(mySocket.getInputStream(), StandardCharsets.UTF_8));
+            myOut = new BufferedWriter(new OutputStreamWriter(mySocket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Sends one request and returns the reply: the status line followed by the lines it announces.
+         */
+        List<String> send(String request) throws IOException {
+            myOut.write(request);
+            myOut.write('\n');
+            myOut.flush();
+
+            List<String> reply = new ArrayList<>();
+            String status = myIn.readLine();
+            if (status == null)
+                throw new IOException("server closed the connection");
+            reply.add(status);
+            if (status.startsWith("OK\t")) {
+                int lines = Integer.parseInt(status.substring(3));
+                for (int i = 0; i < lines; i++) {
+                    reply.add(myIn.readLine());
+                }
+            }
+
+            return reply;
+        }
+
+        @Override
+        public void close() throws IOException {
+            myOut.write("QUIT\n");
+            myOut.flush();
+            mySocket.close();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * RunComponents.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04;
+
+import edu.princeton.cs.algs4.StopwatchCPU;
+import java.io.File;
+import java.util.Random;
+import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.traversal.BidirectionalSearch;
+import wpialgs.sixdegrees.traversal.ComponentIndex;
+
+/**
+ * Builds the {@link ComponentIndex} of the {@link ActorToMovieDegreesOfSeparation} symbol graph of a data file,
+ * reports its build time and the sizes of the components, and compares its query latency with a bidirectional search
+ * on the same random pairs of vertices. Every answer is checked against the bidirectional search.
+ */
+public class RunComponents {
+
+    private static final int DEFAULT_QUERIES = 100000;
+    private static final long SEED = 2223;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 2) {
+            System.err.println("USAGE: java RunComponents <filename> [<queries>]");
+        } else {
+            int queries = args.length == 2 ? Integer.parseInt(args[1]) : DEFAULT_QUERIES;
+            ActorToMovieDegreesOfSeparation symbolGraph = new ActorToMovieDegreesOfSeparation();
+            StopwatchCPU timer = new StopwatchCPU();
+            symbolGraph.readFile(new File(args[0]), "\t");
+            symbolGraph.createGraph();
+            CompactGraph g = symbolGraph.compactGraph();
+            System.out.printf("Graph created with %d vertices and %d edges. Time elapsed: %.5f seconds\n",
+                    g.numVertices(), g.numEdges(), timer.elapsedTime());
+
+            // Build and size report
+            ComponentIndex index = symbolGraph.createComponentIndex();
+            System.out.printf("Components found in %.5f seconds: %d components, the largest with %d actors, %.2f MB\n",
+                    index.buildNanos() / 1e9, index.numComponents(),
+                    index.largest() < 0 ? 0 : index.size(index.largest()), index.sizeInBytes() / 1e6);
+            symbolGraph.createComponentChart().report();
+
+            // The same random pairs for both methods
+            Random rnd = new Random(SEED);
+            int[] from = new int[queries];
+            int[] to = new int[queries];
+            for (int i = 0; i < queries; i++) {
+                from[i] = rnd.nextInt(g.numVertices());
+                to[i] = rnd.nextInt(g.numVertices());
+            }
+
+            int connected = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                if (index.connected(from[i], to[i]))
+                    connected++;
+            }
+            long indexNanos = System.nanoTime() - start;
+
+            BidirectionalSearch bidirectional = new BidirectionalSearch(g);
+            boolean[] expected = new boolean[queries];
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                expected[i] = bidirectional.path(from[i], to[i]) != null;
+            }
+            long bidirectionalNanos = System.nanoTime() - start;
+
+            int mismatches = 0;
+            for (int i = 0; i < queries; i++) {
+                if (index.connected(from[i], to[i]) != expected[i])
+                    mismatches++;
+            }
+
+            System.out.printf("%-30s\t\t%20s\n", "Method", "Microseconds/query");
+            System.out.println("------------------------------\t\t--------------------");
+            System.out.printf("%-30s\t\t%20.3f\n", "Component index", indexNanos / 1e3 / queries);
+            System.out.printf("%-30s\t\t%20.3f\n", "Bidirectional BFS", bidirectionalNanos / 1e3 / queries);
+            System.out.printf("%d queries, %d connected, %d mismatches\n", queries, connected, mismatches);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * RunDistanceLabels.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04;
+
+import edu.princeton.cs.algs4.StopwatchCPU;
+import java.io.File;
+import java.util.Random;
+import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.traversal.BidirectionalSearch;
+import wpialgs.sixdegrees.traversal.DistanceLabels;
+import wpialgs.sixdegrees.traversal.TraversalResult;
+import wpialgs.sixdegrees.traversal.TraversalStrategy;
+
+/**
+ * Builds the {@link DistanceLabels} of the {@link ActorToMovieDegreesOfSeparation} symbol graph of a data file,
+ * reports their build time and size, and compares their query latency with a bidirectional and a full breadth-first
+ * search on the same random pairs of vertices. Every method first answers some of the pairs untimed, so that none
+ * of them is timed while it is still being compiled. Every distance is checked against the bidirectional search.
+ */
+public class RunDistanceLabels {
+
+    private static final int DEFAULT_QUERIES = 100000;
+    private static final int MAX_FULL_SEARCHES = 1000;
+    private static final int WARMUP_QUERIES = 10000;
+    private static final int WARMUP_FULL_SEARCHES = 100;
+    private static final long SEED = 2223;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 2) {
+            System.err.println("USAGE: java RunDistanceLabels <filename> [<queries>]");
+        } else {
+            int queries = args.length == 2 ? Integer.parseInt(args[1]) : DEFAULT_QUERIES;
+            ActorToMovieDegreesOfSeparation symbolGraph = new ActorToMovieDegreesOfSeparation();
+            StopwatchCPU timer = new StopwatchCPU();
+            symbolGraph.readFile(new File(args[0]), "\t");
+            symbolGraph.createGraph();
+            CompactGraph g = symbolGraph.compactGraph();
+            System.out.printf("Graph created with %d vertices and %d edges. Time elapsed: %.5f seconds\n",
+                    g.numVertices(), g.numEdges(), timer.elapsedTime());
+
+            // Build and size report
+            DistanceLabels labels = symbolGraph.createDistanceLabels();
+            int maxLabel = 0;
+            for (int v = 0; v < g.numVertices(); v++) {
+                maxLabel = Math.max(maxLabel, labels.labelSize(v));
+            }
+            System.out.printf("Labels built in %.5f seconds: %d entries, %.2f per vertex (largest %d), %.2f MB\n",
+                    labels.buildNanos() / 1e9, labels.numEntries(), (double) labels.numEntries() / g.numVertices(),
+                    maxLabel, labels.sizeInBytes() / 1e6);
+
+            // The same random pairs for every method
+            Random rnd = new Random(SEED);
+            int[] from = new int[queries];
+            int[] to = new int[queries];
+            for (int i = 0; i < queries; i++) {
+                from[i] = rnd.nextInt(g.numVertices());
+                to[i] = rnd.nextInt(g.numVertices());
+            }
+
+            // Untimed warmup of every method before any of them is timed
+            BidirectionalSearch bidirectional = new BidirectionalSearch(g);
+            TraversalResult result = new TraversalResult(g.numVertices());
+            int full = Math.min(queries, MAX_FULL_SEARCHES);
+            int[] expected = new int[queries];
+            long checksum = queryLabels(labels, from, to, Math.min(queries, WARMUP_QUERIES));
+            checksum += queryBidirectional(bidirectional, from, to, Math.min(queries, WARMUP_QUERIES), expected);
+            checksum += queryFull(g, result, from, to, Math.min(full, WARMUP_FULL_SEARCHES));
+
+            long start = System.nanoTime();
+            checksum += queryLabels(labels, from, to, queries);
+            long labelNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            checksum += queryBidirectional(bidirectional, from, to, queries, expected);
+            long bidirectionalNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            checksum += queryFull(g, result, from, to, full);
+            long fullNanos = System.nanoTime() - start;
+
+            int mismatches = 0;
+            for (int i = 0; i < queries; i++) {
+                if (labels.distance(from[i], to[i]) != expected[i])
+                    mismatches++;
+            }
+
+            System.out.printf("%-30s\t\t%20s\n", "Method", "Microseconds/query");
+            System.out.println("------------------------------\t\t--------------------");
+            System.out.printf("%-30s\t\t%20.3f\n", "Distance labels", labelNanos / 1e3 / queries);
+            System.out.printf("%-30s\t\t%20.3f\n", "Bidirectional BFS", bidirectionalNanos / 1e3 / queries);
+            System.out.printf("%-30s\t\t%20.3f\n", "Full BFS", fullNanos / 1e3 / full);
+            System.out.printf("%d queries, %d mismatches (checksum %d)\n", queries, mismatches, checksum);
+        }
+    }
+
+    /**
+     * Looks up the first {@code count} pairs in {@code labels}.
+     *
+     * @return the sum of their distances
+     */
+    private static long queryLabels(DistanceLabels labels, int[] from, int[] to, int count) {
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += labels.distance(from[i], to[i]);
+        }
+
+        return sum;
+    }
+
+    /**
+     * Searches the first {@code count} pairs with {@code bidirectional}, storing their distances in {@code distances}.
+     *
+     * @return the sum of their path lengths
+     */
+    private static long queryBidirectional(BidirectionalSearch bidirectional, int[] from, int[] to, int count,
+            int[] distances) {
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            int[] path = bidirectional.path(from[i], to[i]);
+            distances[i] = path == null ? Integer.MAX_VALUE : path.length - 1;
+            sum += path == null ? 0 : path.length;
+        }
+
+        return sum;
+    }
+
+    /**
+     * Traverses {@code g} from the first {@code count} sources into {@code result}.
+     *
+     * @return the sum of the distances to their targets
+     */
+    private static long queryFull(CompactGraph g, TraversalResult result, int[] from, int[] to, int count) {
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += TraversalStrategy.TOP_DOWN.traverse(g, from[i], result).distance(to[i]);
+        }
+
+        return sum;
+    }
+}
@@ -19,17 +19,23 @@ package wpialgs.hw04;
 
 import edu.princeton.cs.algs4.StopwatchCPU;
 import java.io.File;
+import java.io.IOException;
 import java.util.Date;
 import java.util.Scanner;
+import wpialgs.hw04.separation.AbstractDegreesOfSeparation;
 import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
-import wpialgs.sixdegrees.graphs.UndirectedGraph;
-import wpialgs.sixdegrees.separation.DegreesOfSeparation;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.GraphSnapshot;
+import wpialgs.sixdegrees.traversal.TraversalCache;
 
 /**
  * Runs the Oracle of Bacon game using the {@link ActorToMovieDegreesOfSeparation} symbol graph.
  */
 public class RunGame {
 
+    // memory kept for the traversals of sources played before
+    private static final long CACHE_BUDGET = 256L << 20;
+
     /**
      * The main entry point to the program.
      *
@@ -37,8 +43,8 @@ public class RunGame {
      *            Command line arguments
      */
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.err.println("USAGE: java RunGame <filename>");
+        if (args.length != 1 && args.length != 2) {
+            System.err.println("USAGE: java RunGame <filename> [<snapshot to save>]");
         } else {
             // Welcome message
             Date today = new Date();
@@ -47,6 +53,45 @@ public class RunGame {
             System.out.printf("\tInput File: %s\n", args[0]);
             System.out.println("------------------------------------");
 
+            // Read the data and build the graph once for the whole session
+            AbstractDegreesOfSeparation symbolGraph = new ActorToMovieDegreesOfSeparation();
+            symbolGraph.setTraversalCacheBudget(CACHE_BUDGET);
+            StopwatchCPU timer = new StopwatchCPU();
+            double currElapsed;
+            if (args[0].endsWith(GraphSnapshot.EXTENSION)) {
+                try {
+                    symbolGraph.openSnapshot(new File(args[0]));
+                } catch (IOException e) {
+                    System.err.println("Cannot open snapshot: " + e.getMessage());
+                    return;
+                }
+                currElapsed = timer.elapsedTime();
+                System.out.printf("Snapshot opened. Time elapsed: %.5f seconds\n", currElapsed);
+            } else {
+                symbolGraph.readFile(new File(args[0]), "\t");
+                currElapsed = timer.elapsedTime();
+                System.out.printf("File read. Time elapsed: %.5f seconds\n", currElapsed);
+
+                timer = new StopwatchCPU();
+                symbolGraph.createGraph();
+                currElapsed = timer.elapsedTime();
+                System.out.printf("Graph created. Time elapsed: %.5f seconds\n", currElapsed);
+            }
+            CompactGraph g = symbolGraph.compactGraph();
+
+            // Save the graph for faster start ups
+            if (args.length == 2) {
+                timer = new StopwatchCPU();
+                try {
+                    symbolGraph.saveSnapshot(new File(args[1]));
+                    currElapsed = timer.elapsedTime();
+                    System.out.printf("Snapshot saved to %s. Time elapsed: %.5f seconds\n", args[1], currElapsed);
+                } catch (IOException e) {
+                    System.err.println("Cannot save snapshot: " + e.getMessage());
+                }
+            }
+            System.out.println("------------------------------------");
+
             // Run the game until we stop
             Scanner sc = new Scanner(System.in);
             String stop = "n";
@@ -56,27 +101,32 @@ public class RunGame {
                 String source = sc.nextLine().replaceAll("\n", "");
                 System.out.println();
 
-                // Use the Actor-Movie Degrees of Separation
-                DegreesOfSeparation symbolGraph = new ActorToMovieDegreesOfSeparation(source);
-                symbolGraph.readFile(new File(args[0]), "\t");
-                symbolGraph.createGraph();
-                UndirectedGraph g = symbolGraph.getGraph();
-
-                StopwatchCPU timer = new StopwatchCPU();
+                // Only the traversal depends on the source
+                symbolGraph.setSource(source);
+                timer = new StopwatchCPU();
                 symbolGraph.traverseBFS(source);
-                double currElapsed = timer.elapsedTime();
+                currElapsed = timer.elapsedTime();
                 System.out.printf("Graph with %d vertices & %d edges traversed using BFS.\n", g.numVertices(),
                         g.numEdges());
                 System.out.printf("Time elapsed: %.5f seconds\n", currElapsed);
+                TraversalCache cache = symbolGraph.getTraversalCache();
+                System.out.printf("Traversal cache: %d hits, %d misses, %d evictions, %d sources in %d bytes\n",
+                        cache.hits(), cache.misses(), cache.evictions(), cache.size(), cache.bytes());
                 System.out.println("------------------------------------\n");
 
                 // Print the histogram
+                timer = new StopwatchCPU();
                 symbolGraph.createFrequencyChart();
                 symbolGraph.getHistogram().report();
-                System.out.println();
+                currElapsed = timer.elapsedTime();
+                System.out.printf("Histogram printed. Time elapsed: %.5f seconds\n\n", currElapsed);
 
                 // Print the Hollywood number
-                System.out.printf("Hollywood number: %.5f\n\n", symbolGraph.computeHollywoodNumber());
+                timer = new StopwatchCPU();
+                double hollywoodNumber = symbolGraph.computeHollywoodNumber();
+                currElapsed = timer.elapsedTime();
+                System.out.printf("Hollywood number: %.5f\n", hollywoodNumber);
+                System.out.printf("Time elapsed: %.5f seconds\n\n", currElapsed);
 
                 // Prompt for new destination actor until we quit
                 String dest;
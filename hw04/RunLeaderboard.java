@@ -0,0 +1,79 @@
+/*
+ * RunLeaderboard.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04;
+
+import edu.princeton.cs.algs4.StopwatchCPU;
+import java.io.File;
+import java.util.List;
+import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
+import wpialgs.sixdegrees.traversal.ClosenessLeaderboard;
+
+/**
+ * Prints the actors with the lowest Hollywood number in a data file, the best centers of Hollywood, using the
+ * {@link ActorToMovieDegreesOfSeparation} symbol graph and a {@link ClosenessLeaderboard}.
+ * <p>
+ * While the leaderboard is computed, the progress and the current leaders are printed to standard error about once a
+ * second. The final leaderboard is printed to standard output, one tab-separated line per actor: the rank, the name
+ * and the Hollywood number.
+ */
+public class RunLeaderboard {
+
+    private static final int DEFAULT_SIZE = 10;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 2) {
+            System.err.println("USAGE: java RunLeaderboard <filename> [<leaderboard size>]");
+        } else {
+            int k = args.length == 2 ? Integer.parseInt(args[1]) : DEFAULT_SIZE;
+            ActorToMovieDegreesOfSeparation symbolGraph = new ActorToMovieDegreesOfSeparation();
+            StopwatchCPU timer = new StopwatchCPU();
+            symbolGraph.readFile(new File(args[0]), "\t");
+            symbolGraph.createGraph();
+            System.err.printf("Graph created. Time elapsed: %.5f seconds\n", timer.elapsedTime());
+
+            ClosenessLeaderboard leaderboard = symbolGraph.createLeaderboard(k);
+            System.err.printf("Ranking %d actors of the largest component\n", leaderboard.numCandidates());
+            long start = System.nanoTime();
+            List<ClosenessLeaderboard.Entry> top = leaderboard.compute((done, pruned, total, leaders) -> {
+                StringBuilder line = new StringBuilder();
+                line.append(String.format("[%.1fs] %d/%d searched, %d pruned.", (System.nanoTime() - start) / 1e9,
+                        done, total, pruned));
+                for (int i = 0; i < leaders.size(); i++) {
+                    ClosenessLeaderboard.Entry leader = leaders.get(i);
+                    line.append(String.format(" %d. %s (%.5f)", i + 1, symbolGraph.nameOf(leader.getVertex()),
+                            leader.hollywoodNumber()));
+                }
+                System.err.println(line);
+            });
+
+            // Print the leaderboard
+            System.out.println("Rank\tActor\tHollywood number");
+            for (int i = 0; i < top.size(); i++) {
+                ClosenessLeaderboard.Entry leader = top.get(i);
+                System.out.printf("%d\t%s\t%.5f\n", i + 1, symbolGraph.nameOf(leader.getVertex()),
+                        leader.hollywoodNumber());
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * RunNeighborhoodFunction.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04;
+
+import edu.princeton.cs.algs4.StopwatchCPU;
+import java.io.File;
+import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
+import wpialgs.hw04.utils.Histogram;
+import wpialgs.sixdegrees.traversal.NeighborhoodFunction;
+
+/**
+ * Prints the degrees of separation between every two actors in a data file, estimated with a
+ * {@link NeighborhoodFunction} over the {@link ActorToMovieDegreesOfSeparation} symbol graph: the average degrees of
+ * separation, the effective diameter and the frequency chart of all pairs. Each figure is followed by its standard
+ * error over the runs.
+ */
+public class RunNeighborhoodFunction {
+
+    private static final int DEFAULT_LOG2M = 7;
+    private static final int DEFAULT_RUNS = 4;
+    private static final long SEED = 2223;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("USAGE: java RunNeighborhoodFunction <filename> [<log2 registers> [<runs>]]");
+        } else {
+            int log2m = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_LOG2M;
+            int runs = args.length == 3 ? Integer.parseInt(args[2]) : DEFAULT_RUNS;
+            ActorToMovieDegreesOfSeparation symbolGraph = new ActorToMovieDegreesOfSeparation();
+            StopwatchCPU timer = new StopwatchCPU();
+            symbolGraph.readFile(new File(args[0]), "\t");
+            symbolGraph.createGraph();
+            System.out.printf("Graph created. Time elapsed: %.5f seconds\n", timer.elapsedTime());
+
+            timer = new StopwatchCPU();
+            NeighborhoodFunction function = symbolGraph.estimateNeighborhoodFunction(log2m, runs, SEED);
+            System.out.printf("Estimated with %d runs of %d registers (%.1f%% relative standard error) in %d rounds."
+                    + " Time elapsed: %.5f seconds\n", function.runs(), function.registers(),
+                    100 * function.relativeStandardError(), function.rounds(), timer.elapsedTime());
+            System.out.printf("Connected pairs of actors: %.0f +/- %.0f\n", function.reachablePairs(),
+                    function.reachablePairsError());
+            System.out.printf("Average degrees of separation: %.5f +/- %.5f\n", function.averageDegrees(),
+                    function.averageDegreesError());
+            System.out.printf("Effective diameter: %.5f +/- %.5f\n", function.effectiveDiameter(),
+                    function.effectiveDiameterError());
+            System.out.println();
+
+            Histogram chart = symbolGraph.createFrequencyChart(function);
+            chart.report();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * RunServer.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04;
+
+import edu.princeton.cs.algs4.StopwatchCPU;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
+import wpialgs.hw04.utils.Histogram;
+import wpialgs.sixdegrees.graphs.GraphSnapshot;
+import wpialgs.sixdegrees.graphs.Vertex;
+import wpialgs.sixdegrees.traversal.DistanceProfile;
+import wpialgs.sixdegrees.traversal.LandmarkIndex;
+
+/**
+ * Serves Oracle of Bacon queries over a line protocol on the loopback interface, loading the
+ * {@link ActorToMovieDegreesOfSeparation} symbol graph once for every client.
+ * <p>
+ * Every request is one line of tab-separated fields, since names contain spaces and commas:
+ * <ul>
+ * <li>{@code DISTANCE <from> <to>}: the degrees of separation, or {@code infinity}
+ * <li>{@code CHAIN <from> <to>}: the chain between two actors, as printed by {@link RunGame}
+ * <li>{@code HISTOGRAM <source>}: the frequency chart of an actor, one {@code degrees<TAB>frequency} line per row
+ * <li>{@code HOLLYWOOD <source>}: the Hollywood number of an actor
+ * <li>{@code QUIT}: closes the connection
+ * </ul>
+ * The reply is {@code OK<TAB>n} followed by {@code n} lines, or a single {@code ERROR<TAB>message} line.
+ * <p>
+ * Each connection gets its own thread from a cached pool, which spends most of its time blocked on the socket and is
+ * reused by a later connection once this one closes. The queries themselves run on a fixed pool of one thread per
+ * core: the searches keep buffers as large as the graph in thread locals, which a few reused threads amortize but one
+ * thread per connection would each allocate again. The graph is only read once it is loaded.
+ */
+public class RunServer {
+
+    /**
+     * Port used when none is given.
+     */
+    public static final int DEFAULT_PORT = 2223;
+
+    private static final int BACKLOG = 4096;
+    private static final int LANDMARKS = 16;
+
+    // Class attributes
+    private final ActorToMovieDegreesOfSeparation mySymbolGraph;
+    private final ExecutorService myWorkers;
+
+    private RunServer(ActorToMovieDegreesOfSeparation symbolGraph, ExecutorService workers) {
+        mySymbolGraph = symbolGraph;
+        myWorkers = workers;
+    }
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 2) {
+            System.err.println("USAGE: java RunServer <filename> [<port>]");
+        } else {
+            int port = args.length == 2 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+
+            // Load everything the queries need before accepting any
+            ActorToMovieDegreesOfSeparation symbolGraph = new ActorToMovieDegreesOfSeparation();
+            StopwatchCPU timer = new StopwatchCPU();
+            if (args[0].endsWith(GraphSnapshot.EXTENSION)) {
+                try {
+                    symbolGraph.openSnapshot(new File(args[0]));
+                } catch (IOException e) {
+                    System.err.println("Cannot open snapshot: " + e.getMessage());
+                    return;
+                }
+            } else {
+                symbolGraph.readFile(new File(args[0]), "\t");
+                symbolGraph.createGraph();
+            }
+            symbolGraph.createLandmarkIndex(LANDMARKS, LandmarkIndex.Selection.HIGHEST_DEGREE);
+            symbolGraph.createComponentIndex();
+            System.out.printf("Graph loaded. Time elapsed: %.5f seconds\n", timer.elapsedTime());
+
+            ExecutorService workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            ExecutorService connections = Executors.newCachedThreadPool();
+            RunServer server = new RunServer(symbolGraph, workers);
+            try (ServerSocket listener = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress())) {
+                System.out.printf("Listening on %s:%d\n", listener.getInetAddress().getHostAddress(),
+                        listener.getLocalPort());
+                while (true) {
+                    Socket socket = listener.accept();
+                    connections.submit(() -> server.serve(socket));
+                }
+            } catch (IOException e) {
+                System.err.println("Cannot listen on port " + port + ": " + e.getMessage());
+            } finally {
+                connections.shutdown();
+                workers.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Answers the requests of one connection until it sends {@code QUIT} or closes.
+     *
+     * @param socket
+     *            the connection
+     */
+    private void serve(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+                        StandardCharsets.UTF_8))) {
+            String request;
+            while ((request = in.readLine()) != null && !request.equalsIgnoreCase("QUIT")) {
+                String req = request;
+                List<String> reply;
+                try {
+                    reply = myWorkers.submit(() -> answer(req)).get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    String message = cause instanceof IllegalArgumentException && cause.getMessage() != null
+                            ? cause.getMessage() : cause.toString();
+                    out.write("ERROR\t" + message.replace('\n', ' ') + "\n");
+                    out.flush();
+                    continue;
+                }
+
+                out.write("OK\t" + reply.size() + "\n");
+                for (String line : reply) {
+                    out.write(line);
+                    out.write('\n');
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The client went away; nothing left to answer
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Answers one request.
+     *
+     * @param request
+     *            the request line
+     *
+     * @return the lines of the reply
+     *
+     * @throws IllegalArgumentException
+     *             if the request is malformed or names someone who is not in the graph
+     */
+    private List<String> answer(String request) {
+        String[] fields = request.split("\t");
+        String command = fields[0].trim().toUpperCase(Locale.ROOT);
+        List<String> reply = new ArrayList<>();
+        switch (command) {
+            case "DISTANCE" -> {
+                expectFields(fields, 3);
+                int degrees = mySymbolGraph.degreesApart(fields[1], fields[2]);
+                if (degrees < 0)
+                    throw new IllegalArgumentException(missing(fields[1], fields[2]) + " is not in the graph");
+                reply.add(degrees == Vertex.INFINITY ? "infinity" : Integer.toString(degrees));
+            }
+            case "CHAIN" -> {
+                expectFields(fields, 3);
+                for (String line : mySymbolGraph.chainAsString(fields[1], fields[2]).split("\n")) {
+                    reply.add(line);
+                }
+            }
+            case "HISTOGRAM" -> {
+                expectFields(fields, 2);
+                Histogram chart = mySymbolGraph.createFrequencyChart(profile(fields[1]));
+                long finite = chart.total(0, Vertex.INFINITY - 1);
+                long seen = 0;
+                for (int d = 0; seen < finite; d++) {
+                    long count = chart.total(d, d);
+                    if (count > 0)
+                        reply.add(d + "\t" + count);
+                    seen += count;
+                }
+                long unreachable = chart.total(Vertex.INFINITY, Vertex.INFINITY);
+                if (unreachable > 0)
+                    reply.add("infinity\t" + unreachable);
+            }
+            case "HOLLYWOOD" -> {
+                expectFields(fields, 2);
+                double hollywoodNumber = mySymbolGraph.computeHollywoodNumber(profile(fields[1]));
+                reply.add(String.format("%.5f", hollywoodNumber));
+            }
+            default -> throw new IllegalArgumentException("unknown request: " + fields[0]);
+        }
+
+        return reply;
+    }
+
+    private DistanceProfile profile(String source) {
+        DistanceProfile profile = mySymbolGraph.computeDistanceProfiles(source)[0];
+        if (profile == null)
+            throw new IllegalArgumentException(source + " is not in the graph");
+        return profile;
+    }
+
+    private String missing(String from, String to) {
+        return mySymbolGraph.indexOf(from) < 0 ? from : to;
+    }
+
+    private static void expectFields(String[] fields, int count) {
+        if (fields.length != count)
+            throw new IllegalArgumentException(fields[0] + " takes " + (count - 1) + " tab-separated names");
+    }
+}
@@ -17,10 +17,35 @@
  */
 package wpialgs.hw04.separation;
 
+import wpialgs.hw04.utils.Histogram;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.EdgeList;
+import wpialgs.sixdegrees.graphs.GraphSnapshot;
 import wpialgs.sixdegrees.graphs.UndirectedGraph;
 import wpialgs.sixdegrees.graphs.Vertex;
 import wpialgs.sixdegrees.separation.DegreesOfSeparation;
-import edu.princeton.cs.algs4.Queue;
+import wpialgs.sixdegrees.traversal.BidirectionalSearch;
+import wpialgs.sixdegrees.traversal.ClosenessLeaderboard;
+import wpialgs.sixdegrees.traversal.ComponentIndex;
+import wpialgs.sixdegrees.traversal.DistanceLabels;
+import wpialgs.sixdegrees.traversal.DistanceRepair;
+import wpialgs.sixdegrees.traversal.DistanceProfile;
+import wpialgs.sixdegrees.traversal.GraphIndexes;
+import wpialgs.sixdegrees.traversal.LandmarkIndex;
+import wpialgs.sixdegrees.traversal.MultiSourceSearch;
+import wpialgs.sixdegrees.traversal.NeighborhoodFunction;
+import wpialgs.sixdegrees.traversal.ProjectedSearch;
+import wpialgs.sixdegrees.traversal.TraversalCache;
+import wpialgs.sixdegrees.traversal.TraversalResult;
+import wpialgs.sixdegrees.traversal.TraversalStrategy;
+import wpialgs.sixdegrees.utils.Actor;
+import wpialgs.sixdegrees.utils.Movie;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
 
 
 
@@ -33,6 +58,25 @@ import edu.princeton.cs.algs4.Queue;
  */
 public abstract class AbstractDegreesOfSeparation extends DegreesOfSeparation {
 
+    // algorithm used by traverseBFS and the result of its last run
+    private TraversalStrategy myStrategy = TraversalStrategy.TOP_DOWN;
+    private TraversalResult myResult;
+    // point-to-point search over the current compact graph, one per thread and created on first use
+    private final ThreadLocal<BidirectionalSearch> myBidirectional = new ThreadLocal<>();
+    // whether the graph is the Actor-Movie graph, traversed through its projection
+    private boolean myProjected;
+    private final ThreadLocal<TraversalResult> myProjectedChain = new ThreadLocal<>();
+    // vertices accepted by isCounted in the graph they were counted for
+    private boolean[] myCounted;
+    private int myNumCounted;
+    private CompactGraph myCountedGraph;
+    // landmarks, distance labels, components and completed traversals of the current graph
+    private final GraphIndexes myIndexes = new GraphIndexes();
+    // frequency chart the last traversal was recorded into by createFrequencyChart, and how many times
+    private Histogram myChart;
+    private TraversalResult myChartedResult;
+    private int myChartedTimes;
+
     /**
      * This allows us to compute the degrees of separation for actors/movies in Hollywood using "Kevin Bacon" as the
      * source vertex.
@@ -52,46 +96,982 @@ public abstract class AbstractDegreesOfSeparation extends DegreesOfSeparation {
         super(sourceVertex);
     }
 
+    /**
+     * Create a string with the chain between {@code from} and {@code to} using a bidirectional breadth-first search,
+     * or a {@link ProjectedSearch} from {@code from} if this graph {@link #isProjected() is projected}. If the
+     * {@link #getTraversalCache() traversal cache} holds a traversal from either of them, the chain is read from its
+     * predecessors instead, without searching. If the {@link #createComponentIndex() component index} puts them in
+     * different components, there is no chain and nothing is searched either.
+     *
+     * @param from
+     *            name of the actor or actress / movie the chain starts from.
+     * @param to
+     *            name of the actor or actress / movie the chain leads to.
+     *
+     * @return A string representation of the chain
+     */
+    @Override
+    public String chainAsString(String from, String to) {
+        int start = indexOf(from);
+        int dest = indexOf(to);
+        int[] path = null;
+        if (start >= 0 && dest >= 0 && !myIndexes.separated(compactGraph(), start, dest)) {
+            TraversalCache cache = myIndexes.cache();
+            TraversalResult fromTree = cache == null ? null : cache.find(compactGraph(), start);
+            TraversalResult toTree = cache == null || fromTree != null ? null : cache.find(compactGraph(), dest);
+            if (fromTree != null) {
+                path = withVias(fromTree.path(dest), fromTree);
+            } else if (toTree != null) {
+                path = reverse(withVias(toTree.path(start), toTree));
+            } else if (myProjected) {
+                TraversalResult result = myProjectedChain.get();
+                if (result == null || result.numVertices() != compactGraph().numVertices()) {
+                    result = new TraversalResult(compactGraph().numVertices());
+                    myProjectedChain.set(result);
+                }
+                path = withVias(search(compactGraph(), start, result).path(dest), result);
+            } else {
+                BidirectionalSearch search = myBidirectional.get();
+                if (search == null || search.getGraph() != compactGraph()) {
+                    search = new BidirectionalSearch(compactGraph());
+                    myBidirectional.set(search);
+                }
+                path = search.path(dest, start);
+            }
+        }
+
+        return formatChain(from, to, path);
+    }
+
+    /**
+     * Puts the vertex connecting each step of a path through a projection between the two vertices of the step.
+     *
+     * @param path
+     *            ids of a path read from the predecessors of {@code tree}, or {@code null}
+     * @param tree
+     *            the traversal the path was read from
+     *
+     * @return the path with the {@link TraversalResult#via(int) connecting vertices} in between, or {@code path} if
+     *         {@code tree} is not a projection
+     */
+    private static int[] withVias(int[] path, TraversalResult tree) {
+        if (path == null || path.length < 2 || tree.via(path[0]) < 0)
+            return path;
+        int[] full = new int[2 * path.length - 1];
+        for (int i = 0; i + 1 < path.length; i++) {
+            full[2 * i] = path[i];
+            full[2 * i + 1] = tree.via(path[i]);
+        }
+        full[full.length - 1] = path[path.length - 1];
+
+        return full;
+    }
+
+    private static int[] reverse(int[] path) {
+        if (path != null) {
+            for (int i = 0, j = path.length - 1; i < j; i++, j--) {
+                int v = path[i];
+                path[i] = path[j];
+                path[j] = v;
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * Returns the number of vertices the last {@link #chainAsString(String, String)} query of the calling thread
+     * reached.
+     *
+     * @return number of vertices visited by the bidirectional search, {@code 0} if it never ran, which is always the
+     *         case for a projected graph
+     */
+    public int getVerticesVisited() {
+        BidirectionalSearch search = myBidirectional.get();
+        return search == null ? 0 : search.verticesVisited();
+    }
+
+    /**
+     * Formats the chain between {@code from} and {@code to}. If either of them is not in the graph, the chain is the
+     * appropriate error message.
+     *
+     * @param from
+     *            name of the actor or actress / movie the chain starts from.
+     * @param to
+     *            name of the actor or actress / movie the chain leads to.
+     * @param path
+     *            ids of a shortest path starting at {@code to} and ending at {@code from}, or {@code null} if there is
+     *            no path between them; if this graph {@link #isProjected() is projected}, the path is through the
+     *            Actor-Movie graph and also holds the movie / actor connecting each step
+     *
+     * @return A string representation of the chain
+     */
+    protected abstract String formatChain(String from, String to, int[] path);
+
+    /**
+     * Follows the predecessors left by the last traversal from {@code dest} back to the source.
+     *
+     * @param dest
+     *            the name of the last vertex on the chain
+     *
+     * @return ids of the path starting at {@code dest} and ending at the source, with the connecting vertices in
+     *         between if the traversal was a projection, or {@code null} if {@code dest} is not in the graph or was
+     *         not reached
+     */
+    protected int[] predecessorPath(String dest) {
+        int v = indexOf(dest);
+        if (v < 0 || distanceOf(v) == Vertex.INFINITY) {
+            return null;
+        }
+
+        return withVias(myResult.path(v), myResult);
+    }
+
+    /**
+     * Returns the distance of {@code v} found by the last traversal.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return the distance from the source of the last traversal, {@link Vertex#INFINITY} if {@code v} was not
+     *         reached or no traversal has been done
+     */
+    protected int distanceOf(int v) {
+        if (myResult == null || v >= myResult.numVertices()) {
+            return Vertex.INFINITY;
+        }
+
+        return myResult.distance(v);
+    }
+
+    /**
+     * Computes the number of actors / movies at each distance from every source with a multi-source breadth-first
+     * search, {@value MultiSourceSearch#LANES} sources per pass over the graph. Only the vertices accepted by
+     * {@link #isCounted(int)} are counted. For a projected graph, the distances are those in the Actor-Movie graph.
+     *
+     * @param sources
+     *            names of the source actors / movies
+     *
+     * @return the {@link DistanceProfile} of each source in the order given, {@code null} for names that are not in
+     *         the graph
+     */
+    public DistanceProfile[] computeDistanceProfiles(String... sources) {
+        CompactGraph csr = compactGraph();
+        boolean[] counted = countedVertices(csr);
+
+        // Only traverse from the names that exist
+        int[] ids = new int[sources.length];
+        int found = 0;
+        for (String source : sources) {
+            int v = indexOf(source);
+            if (v >= 0)
+                ids[found++] = v;
+        }
+        DistanceProfile[] profiles = MultiSourceSearch.profiles(csr, Arrays.copyOf(ids, found), v -> counted[v]);
+
+        DistanceProfile[] result = new DistanceProfile[sources.length];
+        for (int i = 0, next = 0; i < sources.length; i++) {
+            if (indexOf(sources[i]) >= 0)
+                result[i] = profiles[next++];
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the Hollywood number for the source from the vertices counted by the last traversal, without going over
+     * the graph again.
+     *
+     * @return Average degrees of separation of all the reachable actors / movies.
+     */
+    @Override
+    public double computeHollywoodNumber() {
+        return computeHollywoodNumber(lastProfile());
+    }
+
+    /**
+     * Adds the degrees of separation from the source to the frequency chart, from the vertices counted by the last
+     * traversal, without going over the graph again.
+     */
+    @Override
+    public void createFrequencyChart() {
+        record(myHistogram, lastProfile());
+        if (myChart == myHistogram && myChartedResult == myResult) {
+            myChartedTimes++;
+        } else {
+            myChart = myHistogram;
+            myChartedResult = myResult;
+            myChartedTimes = 1;
+        }
+    }
+
+    /**
+     * Returns the number of counted vertices at each distance found by the last traversal, empty if there was none.
+     */
+    private DistanceProfile lastProfile() {
+        TraversalResult result = myResult;
+        return result == null || result.profile() == null ? new DistanceProfile(-1) : result.profile();
+    }
+
+    /**
+     * Computes the Hollywood number of the source of {@code profile}.
+     *
+     * @param profile
+     *            a {@link DistanceProfile} from {@link #computeDistanceProfiles(String...)}
+     *
+     * @return Average degrees of separation of all the reachable actors / movies.
+     */
+    public double computeHollywoodNumber(DistanceProfile profile) {
+        long totalDegrees = 0;
+        for (int d = 0; d <= profile.eccentricity(); d++) {
+            totalDegrees += degreesOf(d) * profile.count(d);
+        }
+
+        if (profile.reachable() == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (double) totalDegrees / profile.reachable();
+    }
+
+    /**
+     * Creates a frequency chart for the source of {@code profile}, in the same form as {@link #createFrequencyChart()}.
+     *
+     * @param profile
+     *            a {@link DistanceProfile} from {@link #computeDistanceProfiles(String...)}
+     *
+     * @return a new {@link Histogram} of the degrees of separation from that source
+     */
+    public Histogram createFrequencyChart(DistanceProfile profile) {
+        String source = nameOf(profile.getSource());
+        Histogram histogram = new Histogram("Frequency Chart for: " + source, "Degrees of Separation", "Frequency");
+        record(histogram, profile);
+
+        return histogram;
+    }
+
+    /**
+     * Records the degrees of separation counted in {@code profile} into {@code histogram}.
+     */
+    private void record(Histogram histogram, DistanceProfile profile) {
+        for (int d = 0; d <= profile.eccentricity(); d++) {
+            if (profile.count(d) > 0)
+                histogram.record(degreesOf(d), profile.count(d));
+        }
+
+        // Everything counted but not reached is infinitely far
+        countedVertices(compactGraph());
+        long unreachable = myNumCounted - profile.reachable();
+        if (unreachable > 0)
+            histogram.record(Vertex.INFINITY, unreachable);
+    }
+
+    /**
+     * Estimates the degrees of separation between every two actors / movies accepted by {@link #isCounted(int)}
+     * with a {@link NeighborhoodFunction}, without traversing from each of them.
+     *
+     * @param log2m
+     *            base 2 logarithm of the number of registers per counter, from 4 to 16
+     * @param runs
+     *            number of independent estimates to average
+     * @param seed
+     *            seed of the hash functions
+     *
+     * @return the estimated distribution over the current graph
+     */
+    public NeighborhoodFunction estimateNeighborhoodFunction(int log2m, int runs, long seed) {
+        CompactGraph csr = compactGraph();
+        boolean[] counted = countedVertices(csr);
+        return NeighborhoodFunction.estimate(csr, v -> counted[v], this::degreesOf, log2m, runs, seed);
+    }
+
+    /**
+     * Creates a frequency chart over every ordered pair of counted actors / movies, in the same form as
+     * {@link #createFrequencyChart()}: it is the sum of the frequency charts of all of them. Counts are rounded
+     * estimates.
+     *
+     * @param function
+     *            a {@link NeighborhoodFunction} from {@link #estimateNeighborhoodFunction(int, int, long)}
+     *
+     * @return a new {@link Histogram} of the degrees of separation between all pairs
+     */
+    public Histogram createFrequencyChart(NeighborhoodFunction function) {
+        Histogram histogram = new Histogram("Frequency Chart for: all pairs (estimated)", "Degrees of Separation",
+                "Frequency");
+
+        // Each vertex is 0 degrees from itself
+        histogram.record(0, function.numCounted());
+        for (int d = 0; d <= function.maxDegrees(); d++) {
+            long pairs = Math.round(function.pairs(d));
+            if (pairs > 0)
+                histogram.record(d, pairs);
+        }
+
+        // Everything else is infinitely far
+        long unreachable = function.numCounted() * function.numCounted() - function.numCounted()
+                - Math.round(function.reachablePairs());
+        if (unreachable > 0)
+            histogram.record(Vertex.INFINITY, unreachable);
+
+        return histogram;
+    }
+
+    /**
+     * Prepares a leaderboard of the {@code k} actors / movies with the lowest Hollywood number, among the ones
+     * accepted by {@link #isCounted(int)} in the largest connected component.
+     *
+     * @param k
+     *            size of the leaderboard
+     *
+     * @return a {@link ClosenessLeaderboard} over the current graph, with vertex ids for {@link #nameOf(int)}
+     */
+    public ClosenessLeaderboard createLeaderboard(int k) {
+        CompactGraph csr = compactGraph();
+        boolean[] counted = countedVertices(csr);
+        return new ClosenessLeaderboard(csr, v -> counted[v], this::degreesOf, k);
+    }
+
+    /**
+     * Builds a {@link LandmarkIndex} over the current graph, which {@link #degreesBounds(String, String)} and
+     * {@link #degreesApart(String, String)} answer from until the graph changes.
+     *
+     * @param k
+     *            number of landmarks
+     * @param selection
+     *            how to choose the landmarks
+     *
+     * @return the new index
+     */
+    public LandmarkIndex createLandmarkIndex(int k, LandmarkIndex.Selection selection) {
+        return myIndexes.buildLandmarks(compactGraph(), k, selection);
+    }
+
+    /**
+     * Saves the index built by {@link #createLandmarkIndex(int, LandmarkIndex.Selection)}, usually next to the
+     * snapshot of the graph, so it can later be opened with {@link #openLandmarkIndex(File)}.
+     *
+     * @param f
+     *            the {@link File} to write
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     * @throws IllegalStateException
+     *             if there is no index for the current graph
+     */
+    public void saveLandmarkIndex(File f) throws IOException {
+        myIndexes.landmarks(compactGraph()).write(f);
+    }
+
+    /**
+     * Opens an index saved by {@link #saveLandmarkIndex(File)} for the current graph, instead of building it again.
+     *
+     * @param f
+     *            the index {@link File}
+     *
+     * @throws IOException
+     *             if the file cannot be read, is corrupt or was built for another graph
+     */
+    public void openLandmarkIndex(File f) throws IOException {
+        myIndexes.openLandmarks(f, compactGraph());
+    }
+
+    /**
+     * Bounds the degrees of separation between two actors / movies from the landmark index alone, in time
+     * proportional to the number of landmarks.
+     *
+     * @param from
+     *            name of the first actor or actress / movie
+     * @param to
+     *            name of the second actor or actress / movie
+     *
+     * @return the lower and the upper bound, {@link Vertex#INFINITY} for a bound that is not known to be finite, or
+     *         {@code null} if either name is not in the graph
+     *
+     * @throws IllegalStateException
+     *             if there is no index for the current graph
+     */
+    public int[] degreesBounds(String from, String to) {
+        LandmarkIndex index = myIndexes.landmarks(compactGraph());
+        int s = indexOf(from);
+        int t = indexOf(to);
+        if (s < 0 || t < 0)
+            return null;
+
+        int lower = index.lowerBound(s, t);
+        int upper = index.upperBound(s, t);
+        return new int[] { lower == Vertex.INFINITY ? lower : degreesOf(lower),
+                upper == Vertex.INFINITY ? upper : degreesOf(upper) };
+    }
+
+    /**
+     * Builds the {@link DistanceLabels} of the current graph, which {@link #degreesApart(String, String)} answers
+     * from until the graph changes.
+     *
+     * @return the new labels
+     */
+    public DistanceLabels createDistanceLabels() {
+        return myIndexes.buildLabels(compactGraph());
+    }
+
+    /**
+     * Returns the exact degrees of separation between two actors / movies: from the {@link DistanceLabels} if there
+     * are any for the current graph, otherwise with a search guided by the landmark index when its bounds do not
+     * meet. Two actors / movies in different components are infinitely apart right away if there is a
+     * {@link #createComponentIndex() component index}.
+     *
+     * @param from
+     *            name of the first actor or actress / movie
+     * @param to
+     *            name of the second actor or actress / movie
+     *
+     * @return the degrees of separation, {@link Vertex#INFINITY} if they are not connected, {@code -1} if either name
+     *         is not in the graph
+     *
+     * @throws IllegalStateException
+     *             if there are neither labels nor an index for the current graph
+     */
+    public int degreesApart(String from, String to) {
+        CompactGraph csr = compactGraph();
+        IntBinaryOperator distances = myIndexes.distances(csr);
+        int s = indexOf(from);
+        int t = indexOf(to);
+        if (s < 0 || t < 0)
+            return -1;
+        if (myIndexes.separated(csr, s, t))
+            return Vertex.INFINITY;
+
+        int distance = distances.applyAsInt(s, t);
+        return distance == Vertex.INFINITY ? distance : degreesOf(distance);
+    }
+
+    /**
+     * Finds the connected components of the current graph with a parallel union-find, which
+     * {@link #areConnected(String, String)} and {@link #componentSize(String)} answer from in constant time until the
+     * graph changes. {@link #chainAsString(String, String)} and {@link #degreesApart(String, String)} do not search
+     * between two actors / movies that it puts in different components.
+     *
+     * @return the new index, whose sizes count the actors / movies accepted by {@link #isCounted(int)}
+     */
+    public ComponentIndex createComponentIndex() {
+        CompactGraph csr = compactGraph();
+        boolean[] counted = countedVertices(csr);
+        return myIndexes.buildComponents(csr, v -> counted[v]);
+    }
+
+    /**
+     * Returns whether there is a chain between two actors / movies, from the component index alone.
+     *
+     * @param from
+     *            name of the first actor or actress / movie
+     * @param to
+     *            name of the second actor or actress / movie
+     *
+     * @return {@code true} if they are in the same component, {@code false} if not or if either name is not in the
+     *         graph
+     *
+     * @throws IllegalStateException
+     *             if there is no component index for the current graph
+     */
+    public boolean areConnected(String from, String to) {
+        ComponentIndex index = myIndexes.components(compactGraph());
+        int s = indexOf(from);
+        int t = indexOf(to);
+        return s >= 0 && t >= 0 && index.connected(s, t);
+    }
+
+    /**
+     * Returns the number of actors / movies that {@code name} has a chain to, itself included, from the component
+     * index alone.
+     *
+     * @param name
+     *            name of an actor or actress / movie
+     *
+     * @return the number of vertices accepted by {@link #isCounted(int)} in its component, {@code -1} if the name is
+     *         not in the graph
+     *
+     * @throws IllegalStateException
+     *             if there is no component index for the current graph
+     */
+    public int componentSize(String name) {
+        ComponentIndex index = myIndexes.components(compactGraph());
+        int v = indexOf(name);
+        return v < 0 ? -1 : index.size(index.component(v));
+    }
+
+    /**
+     * Creates a chart of how many components there are of each size, counting the actors / movies accepted by
+     * {@link #isCounted(int)}.
+     *
+     * @return a new {@link Histogram} of the component sizes
+     *
+     * @throws IllegalStateException
+     *             if there is no component index for the current graph
+     */
+    public Histogram createComponentChart() {
+        ComponentIndex index = myIndexes.components(compactGraph());
+        Histogram histogram = new Histogram("Component Sizes", "Component Size", "Frequency");
+        for (int c = 0; c < index.numComponents(); c++) {
+            if (index.size(c) > 0)
+                histogram.record(index.size(c));
+        }
+
+        return histogram;
+    }
+
+    /**
+     * Returns which vertices of {@code csr} are accepted by {@link #isCounted(int)}, computed once per version of the
+     * graph. Also updates the number of counted vertices.
+     *
+     * @param csr
+     *            the current compact graph
+     *
+     * @return whether each vertex is counted
+     */
+    private synchronized boolean[] countedVertices(CompactGraph csr) {
+        if (myCountedGraph != csr) {
+            boolean[] counted = new boolean[csr.numVertices()];
+            int numCounted = 0;
+            for (int v = 0; v < counted.length; v++) {
+                counted[v] = isCounted(v);
+                if (counted[v])
+                    numCounted++;
+            }
+            myCounted = counted;
+            myNumCounted = numCounted;
+            myCountedGraph = csr;
+        }
+
+        return myCounted;
+    }
+
+    /**
+     * Returns whether {@code v} is one of the actors / movies that the Hollywood number and the frequency chart are
+     * about. All vertices count unless a subclass says otherwise, or the graph is projected: then only the vertices
+     * of the projection count.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return {@code true} if {@code v} should be counted
+     */
+    protected boolean isCounted(int v) {
+        return !myProjected || (kindOf(v) & projectionKind()) != 0;
+    }
+
+    /**
+     * Converts a distance in the graph into degrees of separation. They are the same unless a subclass says
+     * otherwise, or the graph is projected: then the distance is taken in the Actor-Movie graph.
+     *
+     * @param distance
+     *            number of edges from the source
+     *
+     * @return the degrees of separation
+     */
+    protected int degreesOf(int distance) {
+        return myProjected ? distance / 2 : distance;
+    }
+
+    /**
+     * Makes {@link #createGraph()} create only the Actor-Movie graph, over which this graph is traversed as a
+     * projection with a {@link ProjectedSearch}: two actors / movies are adjacent if they share a movie / an actor.
+     * The edges of the projection are never stored, so it takes about as much memory as the Actor-Movie graph. Vertex
+     * ids follow the Actor-Movie graph, so chains of the same length may differ from those of the graph this one
+     * projects. Must be set before the graph is created or a snapshot is opened.
+     *
+     * @param projected
+     *            {@code true} to traverse a projection of the Actor-Movie graph
+     *
+     * @throws UnsupportedOperationException
+     *             if this graph is not a projection of the Actor-Movie graph
+     */
+    public void setProjected(boolean projected) {
+        if (projected && projectionKind() == 0)
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be projected");
+        myProjected = projected;
+    }
+
+    /**
+     * Returns whether this graph is traversed as a projection of the Actor-Movie graph.
+     *
+     * @return {@code true} if {@link #setProjected(boolean)} was given {@code true}
+     */
+    public boolean isProjected() {
+        return myProjected;
+    }
+
+    /**
+     * Returns which vertices of the Actor-Movie graph this graph is a projection onto.
+     *
+     * @return {@link GraphSnapshot#ACTOR} or {@link GraphSnapshot#MOVIE}, {@code 0} if this graph cannot be projected
+     */
+    protected int projectionKind() {
+        return 0;
+    }
+
+    /**
+     * Adds a line of the data file to the graph already created, without reading the file or creating the graph
+     * again: {@code title} and its cast are added to the actors and movies read so far, and their new edges to the
+     * graph. Credits that were already read are skipped.
+     * <p>
+     * The last traversal is then repaired by a {@link DistanceRepair} from the vertices that got new edges, so
+     * {@link #chainAsString(String)} and {@link #computeHollywoodNumber()} answer for the larger graph right away, and
+     * if the {@link #getHistogram() frequency chart} was created from that traversal, its counts are moved to the new
+     * degrees of separation. A projected graph is traversed again instead. The graph gets a new
+     * {@link #compactGraph() compact form}, so the landmark index, the distance labels and the component index have
+     * to be built again, and the traversal cache starts over from the repaired traversal. This must not be called
+     * while other threads traverse the graph.
+     *
+     * @param title
+     *            the movie title
+     * @param cast
+     *            names of the actors and actresses that appeared in it
+     *
+     * @throws UnsupportedOperationException
+     *             if the graph was opened from a snapshot
+     */
+    public void addMovie(String title, String... cast) {
+        if (mySnapshot != null)
+            throw new UnsupportedOperationException("a graph opened from a snapshot cannot be changed");
+        CompactGraph old = compactGraph();
+        countedVertices(old);
+        TraversalResult result = myResult;
+        boolean charted = result != null && myChart == myHistogram && myChartedResult == result;
+        long[] before = charted ? chartCounts(result.profile()) : null;
+
+        // Vertices named like a new movie or actor may now be counted differently
+        List<String> renamed = new ArrayList<>();
+        Movie movie = myMovies.get(title);
+        if (movie == null) {
+            movie = new Movie(title);
+            myMovies.put(title, movie);
+            renamed.add(title);
+        }
+
+        // Only the credits that are new
+        List<Actor> added = new ArrayList<>();
+        for (String name : cast) {
+            Actor person = myActors.get(name);
+            if (person == null) {
+                person = new Actor(name);
+                myActors.put(name, person);
+                renamed.add(name);
+            } else if (movie.hasActor(person)) {
+                continue;
+            }
+            person.add(movie);
+            movie.addActor(person);
+            added.add(person);
+        }
+
+        EdgeList edges = new EdgeList();
+        addMovieEdges(movie, added, edges);
+        int[] touched = myG.insertEdges(edges);
+        CompactGraph csr = compactGraph();
+        boolean recounted = extendCounted(old, csr, renamed);
+        if (result == null)
+            return;
+
+        // Repair the last traversal, or do it again if the counts or the projection do not allow it
+        boolean[] counted = myCounted;
+        if (myProjected || recounted) {
+            result = search(csr, result.getSource(), new TraversalResult(csr.numVertices()));
+        } else {
+            result = DistanceRepair.repair(csr, result, touched, v -> counted[v]);
+        }
+        myResult = result;
+        TraversalCache cache = myIndexes.cache();
+        if (cache != null)
+            cache.put(csr, result);
+
+        if (charted) {
+            long[] after = chartCounts(result.profile());
+            for (int k = 0; k < Math.max(before.length, after.length) - 1; k++) {
+                long change = (k < after.length - 1 ? after[k] : 0) - (k < before.length - 1 ? before[k] : 0);
+                if (change != 0)
+                    myHistogram.record(k, change * myChartedTimes);
+            }
+            long change = after[after.length - 1] - before[before.length - 1];
+            if (change != 0)
+                myHistogram.record(Vertex.INFINITY, change * myChartedTimes);
+            myChartedResult = result;
+        }
+    }
+
+    /**
+     * Adds the edges of {@code movie} for the credits in {@code added} to {@code edges}, and the vertices they
+     * connect to the graph, the same way as {@link #createGraph()} would have if they had been read from the file.
+     * This adds them to the Actor-Movie graph, as {@link #createActorMovieGraph()} does.
+     *
+     * @param movie
+     *            the movie, with its whole cast
+     * @param added
+     *            the actors that were just added to its cast
+     * @param edges
+     *            where to add the new edges, by {@link Vertex#id}
+     */
+    protected void addMovieEdges(Movie movie, List<Actor> added, EdgeList edges) {
+        if (added.isEmpty() && !(myProjected && projectionKind() == GraphSnapshot.MOVIE))
+            return;
+
+        int m = myG.addVertex(movie.name).id;
+        for (Actor actor : added) {
+            edges.add(myG.addVertex(actor.name).id, m);
+        }
+    }
+
+    /**
+     * Extends the vertices counted in {@code old} to {@code csr}, which has the same vertices and maybe more, only
+     * asking {@link #isCounted(int)} about the new vertices and the ones named in {@code renamed}.
+     *
+     * @return {@code true} if one of the vertices of {@code old} is no longer counted the same
+     */
+    private synchronized boolean extendCounted(CompactGraph old, CompactGraph csr, List<String> renamed) {
+        boolean[] counted = Arrays.copyOf(countedVertices(old), csr.numVertices());
+        int numCounted = myNumCounted;
+        for (int v = old.numVertices(); v < counted.length; v++) {
+            counted[v] = isCounted(v);
+            if (counted[v])
+                numCounted++;
+        }
+        boolean recounted = false;
+        for (String name : renamed) {
+            Vertex vertex = myG.getVertex(name);
+            if (vertex != null && vertex.id < old.numVertices() && isCounted(vertex.id) != counted[vertex.id]) {
+                counted[vertex.id] = !counted[vertex.id];
+                numCounted += counted[vertex.id] ? 1 : -1;
+                recounted = true;
+            }
+        }
+        myCounted = counted;
+        myNumCounted = numCounted;
+        myCountedGraph = csr;
+
+        return recounted;
+    }
+
+    /**
+     * Returns what {@link #record(Histogram, DistanceProfile)} would record for {@code profile}: the count of each
+     * degree of separation, followed by the number of counted vertices that were not reached.
+     */
+    private long[] chartCounts(DistanceProfile profile) {
+        int eccentricity = profile == null ? -1 : profile.eccentricity();
+        long[] counts = new long[(eccentricity < 0 ? 0 : degreesOf(eccentricity) + 1) + 1];
+        for (int d = 0; d <= eccentricity; d++) {
+            counts[degreesOf(d)] += profile.count(d);
+        }
+        counts[counts.length - 1] = myNumCounted - (profile == null ? 0 : profile.reachable());
+
+        return counts;
+    }
+
+    /**
+     * Creates the Actor-Movie graph: every actor is connected to the movies in his or her filmography. Vertices are
+     * added first and the edges in bulk. When projecting onto movies, movies without a cast are added as well, since
+     * they are vertices of the Movie-Movie graph.
+     */
+    protected void createActorMovieGraph() {
+        EdgeList edges = new EdgeList();
+        for (String actorName : myActors.keys()) {
+            Actor actor = myActors.get(actorName);
+            int a = myG.addVertex(actorName).id;
+            for (Movie movie : actor.getMovies()) {
+                edges.add(a, myG.addVertex(movie.name).id);
+            }
+        }
+        if (myProjected && projectionKind() == GraphSnapshot.MOVIE) {
+            for (String title : myMovies.keys()) {
+                myG.addVertex(title);
+            }
+        }
+        myG.addEdges(edges);
+    }
+
+    /**
+     * In a projected graph, the vertices outside the projection cannot be found.
+     *
+     * @see DegreesOfSeparation#indexOf(String)
+     */
+    @Override
+    public int indexOf(String name) {
+        int v = super.indexOf(name);
+        if (v >= 0 && myProjected && !countedVertices(compactGraph())[v]) {
+            return -1;
+        }
+
+        return v;
+    }
+
+    /**
+     * Projected graphs are saved with a type of their own, since they hold the Actor-Movie graph.
+     *
+     * @see DegreesOfSeparation#snapshotType()
+     */
+    @Override
+    protected String snapshotType() {
+        return myProjected ? super.snapshotType() + "/projected" : super.snapshotType();
+    }
+
+    /**
+     * Selects the algorithm used by {@link #traverseBFS(UndirectedGraph, Vertex)}. All strategies produce the same
+     * distances and predecessors. Projected graphs always use a {@link ProjectedSearch}.
+     *
+     * @param strategy
+     *            the {@link TraversalStrategy} to use from now on
+     */
+    public void setTraversalStrategy(TraversalStrategy strategy) {
+        myStrategy = strategy;
+    }
+
+    /**
+     * Returns the algorithm used by {@link #traverseBFS(UndirectedGraph, Vertex)}.
+     *
+     * @return the current {@link TraversalStrategy}
+     */
+    public TraversalStrategy getTraversalStrategy() {
+        return myStrategy;
+    }
+
+    /**
+     * Returns how many edges the last traversal examined.
+     *
+     * @return number of edge checks done by the last call to {@link #traverseBFS(UndirectedGraph, Vertex)}
+     */
+    public long getEdgesExamined() {
+        return myResult == null ? 0 : myResult.edgesExamined();
+    }
+
+    /**
+     * Returns the result of the last call to {@link #traverseBFS(UndirectedGraph, Vertex)}.
+     *
+     * @return the distances and predecessors of every vertex, or {@code null} if no traversal has been done
+     */
+    public TraversalResult getTraversalResult() {
+        return myResult;
+    }
+
+    /**
+     * Traverse the graph from {@code source} without changing the state of this object. Any number of threads may
+     * call this at the same time once the graph has been created.
+     *
+     * @param source
+     *            the string name of a vertex
+     *
+     * @return the distances and predecessors of every vertex, or {@code null} if {@code source} is not in the graph
+     */
+    public TraversalResult traverse(String source) {
+        int s = indexOf(source);
+        return s < 0 ? null : search(compactGraph(), s, new TraversalResult(compactGraph().numVertices()));
+    }
+
+    /**
+     * Traverse the graph from {@code source} into {@code result}, reusing its arrays. Any number of threads may call
+     * this at the same time once the graph has been created, as long as each one passes its own {@code result}.
+     *
+     * @param source
+     *            the string name of a vertex
+     * @param result
+     *            a {@link TraversalResult} sized for the graph, overwritten by this traversal
+     *
+     * @return {@code result}, or {@code null} if {@code source} is not in the graph
+     */
+    public TraversalResult traverse(String source, TraversalResult result) {
+        int s = indexOf(source);
+        return s < 0 ? null : search(compactGraph(), s, result);
+    }
+
+    /**
+     * Also drops the last traversal, which was from the previous source, so nothing about that source is answered
+     * for the new one.
+     *
+     * @see DegreesOfSeparation#setSource(String)
+     */
+    @Override
+    public void setSource(String sourceVertex) {
+        super.setSource(sourceVertex);
+        myResult = null;
+    }
+
+    /**
+     * Traverse the graph from node named source using BFS. This also works on a graph opened with
+     * {@link #openSnapshot(java.io.File)}. If source is not in the graph, the last traversal is dropped, so that
+     * {@link #computeHollywoodNumber()} and {@link #createFrequencyChart()} find every actor / movie unreachable.
+     *
+     * @param source
+     *            the string name of a vertex
+     */
+    @Override
+    public void traverseBFS(String source) {
+        int s = indexOf(source);
+        if (s < 0) {
+            myResult = null;
+        } else {
+            CompactGraph csr = compactGraph();
+            TraversalCache cache = myIndexes.cache();
+            TraversalResult result = cache == null ? null : cache.get(csr, s);
+            if (result == null) {
+                result = search(csr, s, new TraversalResult(csr.numVertices()));
+                if (cache != null)
+                    cache.put(csr, result);
+            }
+            myResult = result;
+        }
+    }
+
+    /**
+     * Keeps the traversals done by {@link #traverseBFS(String)} in a {@link TraversalCache}, so that traversing from
+     * the same source again, or asking for a chain from or to it, does not search the graph. The previous cache and
+     * its counts are dropped.
+     *
+     * @param budget
+     *            most bytes of traversals to keep, {@code 0} to stop caching
+     */
+    public void setTraversalCacheBudget(long budget) {
+        myIndexes.setCacheBudget(budget);
+    }
+
+    /**
+     * Returns the cache of traversals, whose counts tell whether its budget is large enough.
+     *
+     * @return the {@link TraversalCache}, {@code null} if traversals are not cached
+     */
+    public TraversalCache getTraversalCache() {
+        return myIndexes.cache();
+    }
+
     /**
      * Traverse the graph using breadth-first search on {@code g} from {@code source}
      * <p>
-     * If source is not in the {@code UndirectedGraph}, then the traversal will do nothing.
+     * If source is not in the {@code UndirectedGraph}, then the last traversal is dropped and nothing is traversed.
+     * <p>
+     * The search runs the current {@link TraversalStrategy} on the int ids of {@link UndirectedGraph#compact()}. The
+     * vertices of {@code g} are left untouched: the distances and predecessors are kept in a {@link TraversalResult}
+     * that {@link #chainAsString(String)}, {@link #computeHollywoodNumber()} and {@link #createFrequencyChart()}
+     * read. When several vertices one level closer to the source are adjacent to a vertex, its predecessor is the
+     * one with the lowest {@link Vertex#id}.
      *
      * @param g
-     *            {@code UndirectedGraph} that should be initialized and all vertices must have distance set to
-     *            {@link Vertex#INFINITY}. After traversal, {@code distance} and {@code predecessor} fields will be set.
+     *            {@code UndirectedGraph} that should be initialized
      * @param source
      *            the {@link Vertex} from which to begin the traversal
      */
     public final void traverseBFS(UndirectedGraph g, Vertex source) {
         if (g.getVertex(source.name) == null) {
+            myResult = null;
             return;
         }
-        for (Vertex v : g.getVertices()) {
-            v.distance = Vertex.INFINITY;  // Set infinity
-            v.predecessor = null;          // Set null
-        }
-        Queue<Vertex> queue = new Queue<>();
-        source.distance = 0;               // Distance to itself is zero
-        queue.enqueue(source);
-
-        while (!queue.isEmpty()) {
-            Vertex current = queue.dequeue(); // Dequeue the current vertex
-
-
-            // Explore each next vertex of the current
-            for (Vertex neighbor : g.adjacentTo(current.name)) {
-                if (neighbor.distance == Vertex.INFINITY) { // If not visited yet
-                    // Set the distance from the source
-                    neighbor.distance = current.distance + 1;
-                    // Set the predecessor to previous
-                    neighbor.predecessor = current;
+        myResult = search(g.compact(), source.id, new TraversalResult(g.numVertices()));
+    }
 
-                    // Add the neighbor to the queue
-                    queue.enqueue(neighbor);
-                }
-            }
+    /**
+     * Traverses {@code csr} from {@code s} with the current {@link TraversalStrategy}, or through its projection if
+     * this graph is projected. The vertices accepted by {@link #isCounted(int)} are counted at each distance on the
+     * way, into the {@link TraversalResult#profile() profile} of the result.
+     */
+    private TraversalResult search(CompactGraph csr, int s, TraversalResult result) {
+        boolean[] counted = countedVertices(csr);
+        if (myProjected) {
+            return ProjectedSearch.traverse(csr, v -> counted[v], s, result, v -> counted[v]);
         }
 
+        return myStrategy.traverse(csr, s, result, v -> counted[v]);
     }
-}
\ No newline at end of file
+}
@@ -17,11 +17,14 @@
  */
 package wpialgs.hw04.separation;
 
+import wpialgs.sixdegrees.graphs.EdgeList;
+import wpialgs.sixdegrees.graphs.GraphSnapshot;
 import wpialgs.sixdegrees.graphs.Vertex;
 import wpialgs.sixdegrees.utils.Actor;
 import wpialgs.sixdegrees.utils.Movie;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -60,64 +63,65 @@ public class ActorToActorDegreesOfSeparation extends AbstractDegreesOfSeparation
      */
     @Override
     public void createGraph() {
+        if (isProjected()) {
+            createActorMovieGraph();
+            return;
+        }
+
+        EdgeList edges = new EdgeList();
         for (String movieKey : myMovies.keys()) {
             Movie movie = myMovies.get(movieKey);
-            // make sure unique actors
+            // make sure unique actors, visited in the same order as always so the vertex ids do not change
             Set<Actor> actorsInMovie = new HashSet<>();
             for (Actor actor : movie.getActors()) {
                 actorsInMovie.add(actor); // Add actor to the set
             }
 
-            // Add an edge between actors in the set
-            for (Actor actor1 : actorsInMovie) {
-                myG.addVertex(actor1.name);
-
-                for (Actor actor2 : actorsInMovie) {
-                    if (!actor1.equals(actor2)) {
+            int[] cast = new int[actorsInMovie.size()];
+            int k = 0;
+            for (Actor actor : actorsInMovie) {
+                cast[k++] = myG.addVertex(actor.name).id;
+            }
 
-                        myG.addEdge(actor1.name, actor2.name);
-                    }
+            // Connect every pair of actors once, duplicates across movies are removed by addEdges
+            for (int i = 0; i < cast.length; i++) {
+                for (int j = i + 1; j < cast.length; j++) {
+                    edges.add(cast[i], cast[j]);
                 }
             }
         }
+        myG.addEdges(edges);
     }
 
     /**
-     * Creates a frequency chart containing statistics about the source's distance number.
+     * Connects each actor just added to {@code movie} to every other actor in it.
+     *
+     * @see AbstractDegreesOfSeparation#addMovieEdges(Movie, List, EdgeList)
      */
-    public void createFrequencyChart() {
-        for (Vertex v : myG.getVertices()) {
-            int distance = v.distance;
-
-                myHistogram.record(distance);
-
+    @Override
+    protected void addMovieEdges(Movie movie, List<Actor> added, EdgeList edges) {
+        if (isProjected()) {
+            super.addMovieEdges(movie, added, edges);
+            return;
+        }
 
+        for (Actor actor : added) {
+            int a = myG.addVertex(actor.name).id;
+            for (Actor other : movie.getActors()) {
+                if (other != actor)
+                    edges.add(a, myG.addVertex(other.name).id);
+            }
         }
     }
 
     /**
-     * Computes the Hollywood number for the source.
+     * This graph is the projection of the Actor-Movie graph onto its actors.
      *
-     * @return Average degrees of separation of all the actors.
+     * @see AbstractDegreesOfSeparation#projectionKind()
      */
     @Override
-    public double computeHollywoodNumber() {
-        int totalDegrees = 0;
-        int Actors = 0;
-
-        // go over  all vertices in the graph
-        for (Vertex v : myG.getVertices()) {
-            if (v.distance != Vertex.INFINITY) { // Only use reachable vertices
-                totalDegrees += v.distance; // Add the degree of separation to total
-                Actors++;
-            }
-        }
-
-
-        if (Actors == 0) {
-            return Double.POSITIVE_INFINITY;
-        }
-        return (double) totalDegrees / Actors; //cast type
+    protected int projectionKind() {
+        return GraphSnapshot.ACTOR;
     }
 
     /**
@@ -131,29 +135,46 @@ public class ActorToActorDegreesOfSeparation extends AbstractDegreesOfSeparation
      */
     @Override
     public String chainAsString(String name) {
-        Vertex start = myG.getVertex(mySource);
-        Vertex dest = myG.getVertex(name);
+        return formatChain(mySource, name, predecessorPath(name));
+    }
+
+    /**
+     * Formats the chain between {@code from} and {@code to}. If either of them is not in the graph, the chain is the
+     * appropriate error message.
+     *
+     * @see AbstractDegreesOfSeparation#formatChain(String, String, int[])
+     */
+    @Override
+    protected String formatChain(String from, String to, int[] path) {
+        int start = indexOf(from);
+        int dest = indexOf(to);
 
         // Check if source exists
         StringBuilder sb = new StringBuilder();
-        if (start == null) {
-            sb.append("Source actor/actress: ").append(mySource).append(" does not exist in our graph.\n");
+        if (start < 0) {
+            sb.append("Source actor/actress: ").append(from).append(" does not exist in our graph.\n");
         } else {
-            if (dest == null) {
-                sb.append("Destination actor/actress: ").append(name).append(" does not exist in our graph.\n");
+            if (dest < 0) {
+                sb.append("Destination actor/actress: ").append(to).append(" does not exist in our graph.\n");
             } else {
-                sb.append(start.name).append(" and ").append(dest.name).append(" have a distance of ");
-                if (dest.distance == Vertex.INFINITY) {
+                sb.append(nameOf(start)).append(" and ").append(nameOf(dest)).append(" have a distance of ");
+                if (path == null) {
                     sb.append("infinity.\n");
+                } else if (isProjected()) {
+                    sb.append((path.length - 1) / 2).append(".\n\n");
+
+                    // The movie of each step is known
+                    for (int i = 0; i + 2 < path.length; i += 2) {
+                        sb.append(i / 2 + 1).append(". ").append(nameOf(path[i])).append(" was in \"")
+                                .append(nameOf(path[i + 1])).append("\" with ").append(nameOf(path[i + 2]))
+                                .append(".\n");
+                    }
                 } else {
-                    sb.append(dest.distance).append(".\n\n");
-
-                    int counter = 1;
-                    while (dest != start) {
-                        sb.append(counter).append(". ").append(dest.name).append(" was in a movie with ")
-                                .append(dest.predecessor).append(".\n");
-                        dest = dest.predecessor;
-                        counter++;
+                    sb.append(path.length - 1).append(".\n\n");
+
+                    for (int i = 0; i + 1 < path.length; i++) {
+                        sb.append(i + 1).append(". ").append(nameOf(path[i])).append(" was in a movie with ")
+                                .append(nameOf(path[i + 1])).append(".\n");
                     }
                 }
             }
@@ -18,8 +18,6 @@
 package wpialgs.hw04.separation;
 
 import wpialgs.sixdegrees.graphs.Vertex;
-import wpialgs.sixdegrees.utils.Actor;
-import wpialgs.sixdegrees.utils.Movie;
 
 
 /**
@@ -59,58 +57,27 @@ public class ActorToMovieDegreesOfSeparation extends AbstractDegreesOfSeparation
      */
     @Override
     public void createGraph() {
-        for (String actorName : myActors.keys()) {
-            Actor actor = myActors.get(actorName);
-
-            myG.addVertex(actorName);
-
-            Iterable<Movie> filmography = actor.getMovies();
-
-            for (Movie movie : filmography) {
-                String movieTitle = movie.name;
-
-                myG.addVertex(movieTitle);
-
-                myG.addEdge(actorName, movieTitle);
-            }
-        }}
+        createActorMovieGraph();
+    }
 
     /**
-     * Creates a frequency chart containing statistics about the source's distance number.
+     * Only actors count toward the Hollywood number and the frequency chart.
+     *
+     * @see AbstractDegreesOfSeparation#isCounted(int)
      */
-    public void createFrequencyChart() {
-        for (Vertex current : myG.getVertices()) {
-            if (myActors.contains(current.name)) {
-                if (current.distance == Integer.MAX_VALUE) {
-                    myHistogram.record(current.distance);
-                }
-                else {
-                    myHistogram.record(current.distance - current.distance / 2);
-                }
-            }
-        }
+    @Override
+    protected boolean isCounted(int v) {
+        return isActor(v);
     }
 
     /**
-     * Computes the Hollywood number for the source.
+     * Consecutive actors on a path are two edges apart, with a movie in between.
      *
-     * @return Average degrees of separation of all the actors / movies.
+     * @see AbstractDegreesOfSeparation#degreesOf(int)
      */
     @Override
-    public double computeHollywoodNumber() {
-        int sum = 0;
-        int count = 0;
-
-        // Sum the distances and count the number of reachable actors
-        for (Vertex current : myG.getVertices()) {
-            if (myActors.contains(current.name)) {
-                if (current.distance != Integer.MAX_VALUE && current.distance != Integer.MIN_VALUE) {
-                    sum += current.distance / 2;
-                    count++;
-                }
-            }
-        }
-        return (double) sum/count;
+    protected int degreesOf(int distance) {
+        return distance / 2;
     }
 
     /**
@@ -124,29 +91,38 @@ public class ActorToMovieDegreesOfSeparation extends AbstractDegreesOfSeparation
      */
     @Override
     public String chainAsString(String name) {
-        Vertex start = myG.getVertex(mySource);
-        Vertex dest = myG.getVertex(name);
+        return formatChain(mySource, name, predecessorPath(name));
+    }
+
+    /**
+     * Formats the chain between {@code from} and {@code to}. If either of them is not in the graph, the chain is the
+     * appropriate error message.
+     *
+     * @see AbstractDegreesOfSeparation#formatChain(String, String, int[])
+     */
+    @Override
+    protected String formatChain(String from, String to, int[] path) {
+        int start = indexOf(from);
+        int dest = indexOf(to);
 
         // Check if source exists
         StringBuilder sb = new StringBuilder();
-        if (start == null) {
-            sb.append("Source actor/actress: ").append(mySource).append(" does not exist in our graph.\n");
+        if (start < 0) {
+            sb.append("Source actor/actress: ").append(from).append(" does not exist in our graph.\n");
         } else {
-            if (dest == null) {
-                sb.append("Destination actor/actress: ").append(name).append(" does not exist in our graph.\n");
+            if (dest < 0) {
+                sb.append("Destination actor/actress: ").append(to).append(" does not exist in our graph.\n");
             } else {
-                sb.append(start.name).append(" and ").append(dest.name).append(" have a distance of ");
-                if (dest.distance == Vertex.INFINITY) {
+                sb.append(nameOf(start)).append(" and ").append(nameOf(dest)).append(" have a distance of ");
+                if (path == null) {
                     sb.append("infinity.\n");
                 } else {
-                    sb.append(dest.distance / 2).append(".\n\n");
+                    sb.append((path.length - 1) / 2).append(".\n\n");
 
-                    int counter = 1;
-                    while (dest != start) {
-                        sb.append(counter).append(". ").append(dest.name).append(" was in \"").append(dest.predecessor)
-                                .append("\" with ").append(dest.predecessor.predecessor).append(".\n");
-                        dest = dest.predecessor.predecessor;
-                        counter++;
+                    for (int i = 0; i + 2 < path.length; i += 2) {
+                        sb.append(i / 2 + 1).append(". ").append(nameOf(path[i])).append(" was in \"")
+                                .append(nameOf(path[i + 1])).append("\" with ")
+                                .append(nameOf(path[i + 2])).append(".\n");
                     }
                 }
             }
@@ -17,11 +17,16 @@
  */
 package wpialgs.hw04.separation;
 
-import edu.princeton.cs.algs4.SET;
+import wpialgs.sixdegrees.graphs.EdgeList;
+import wpialgs.sixdegrees.graphs.GraphSnapshot;
 import wpialgs.sixdegrees.graphs.Vertex;
 import wpialgs.sixdegrees.utils.Actor;
 import wpialgs.sixdegrees.utils.Movie;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
 /**
  * Creates a Movie-Movie graph where:
  * <ul>
@@ -54,78 +59,106 @@ public class MovieToMovieDegreesOfSeparation extends AbstractDegreesOfSeparation
      * <li>Vertices: Movie names
      * <li>Edges: two Movies are connected iff they share an Actor
      * </ul>
+     * Rather than comparing every pair of movies, every credit is indexed as an (actor, movie) pair; sorting the
+     * credits groups the movies of each actor together, and only movies within the same group are joined. The edges
+     * are then added in bulk, which removes the duplicates.
      */
     @Override
     public void createGraph() {
-        for (String movieKey1 : myMovies.keys()) {
-            Movie movie1 = myMovies.get(movieKey1);
-            myG.addVertex(movie1.name);
-
-            // Compare with all other movies to find shared actors
-            for (String movieKey2 : myMovies.keys()) {
-                if (!movieKey1.equals(movieKey2)) { // Avoid self loop
-                    Movie movie2 = myMovies.get(movieKey2);
-
-
-                    SET<Actor> movie2Actors = (SET<Actor>) movie2.getActors();
-
-                    // Check if movie1 and movie2 share at least one actor
-                    boolean shareActor = false;
-                    for (Actor actor : movie1.getActors()) {
-                        if (movie2Actors.contains(actor)) {
-                            shareActor = true;
-                            break; // Exit the loop if a shared actor is found
-                        }
-                    }
+        if (isProjected()) {
+            createActorMovieGraph();
+            return;
+        }
 
-                    // If they share at least one actor, add an edge between the movies
-                    if (shareActor) {
-                        myG.addVertex(movie2.name);
-                        myG.addEdge(movie1.name, movie2.name); // Add edge between the two movies
-                    }
+        // Number the movies in map order and the actors in order of appearance
+        String[] titles = new String[myMovies.size()];
+        HashMap<String, Integer> actorIds = new HashMap<>();
+        long[] credits = new long[16];
+        int numCredits = 0;
+        int m = 0;
+        for (String title : myMovies.keys()) {
+            titles[m] = title;
+            for (Actor actor : myMovies.get(title).getActors()) {
+                Integer a = actorIds.get(actor.name);
+                if (a == null) {
+                    a = actorIds.size();
+                    actorIds.put(actor.name, a);
                 }
+                credits = ensureCapacity(credits, numCredits + 1);
+                credits[numCredits++] = (long) a << 32 | m;
             }
-        }}
-
-    /**
-     * Creates a frequency chart containing statistics about the source's distance number.
-     */
-    public void createFrequencyChart() {
-        for (Vertex v : myG.getVertices()) {
-            int distance = v.distance;
-            if (distance == Vertex.INFINITY) {
+            m++;
+        }
+        Arrays.sort(credits, 0, numCredits);
 
-                myHistogram.record(Vertex.INFINITY);
-            } else {
+        // Comparing all pairs of movies added each movie in its own turn, unless it shares an actor with a movie
+        // that comes before it. In that case it was added in the turn of the first such movie, right after it.
+        int[] turn = new int[titles.length];
+        for (int i = 0; i < titles.length; i++) {
+            turn[i] = i;
+        }
+        for (int begin = 0, end; begin < numCredits; begin = end) {
+            end = groupEnd(credits, begin, numCredits);
+            int first = (int) credits[begin];
+            for (int i = begin + 1; i < end; i++) {
+                turn[(int) credits[i]] = Math.min(turn[(int) credits[i]], first);
+            }
+        }
+        long[] order = new long[titles.length];
+        for (int i = 0; i < titles.length; i++) {
+            order[i] = (long) turn[i] << 32 | i;
+        }
+        Arrays.sort(order);
+        int[] ids = new int[titles.length];
+        for (long entry : order) {
+            Vertex v = myG.addVertex(titles[(int) entry]);
+            ids[(int) entry] = v.id;
+        }
 
-                myHistogram.record(distance);
+        // Join every two movies of the same actor
+        EdgeList edges = new EdgeList();
+        for (int begin = 0, end; begin < numCredits; begin = end) {
+            end = groupEnd(credits, begin, numCredits);
+            for (int i = begin; i < end; i++) {
+                for (int j = i + 1; j < end; j++) {
+                    edges.add(ids[(int) credits[i]], ids[(int) credits[j]]);
+                }
             }
         }
+        myG.addEdges(edges);
     }
 
     /**
-     * Computes the Hollywood number for the source.
+     * Adds {@code movie} and connects it to every other movie of the actors just added to it.
      *
-     * @return Average degrees of separation of all the movies.
+     * @see AbstractDegreesOfSeparation#addMovieEdges(Movie, List, EdgeList)
      */
     @Override
-    public double computeHollywoodNumber() {
-        int totalDegrees = 0;
-        int reachableMovies = 0;
-
+    protected void addMovieEdges(Movie movie, List<Actor> added, EdgeList edges) {
+        if (isProjected()) {
+            super.addMovieEdges(movie, added, edges);
+            return;
+        }
 
-        for (Vertex v : myG.getVertices()) {
-            if (v.distance != Vertex.INFINITY) { // Only consider reachable movies
-                totalDegrees += v.distance; // Add the degree of separation
-                reachableMovies++;
+        // Like createGraph, only go by the cast of the movie kept under each title
+        int m = myG.addVertex(movie.name).id;
+        for (Actor actor : added) {
+            for (Movie other : actor.getMovies()) {
+                Movie kept = myMovies.get(other.name);
+                if (kept != movie && kept.hasActor(actor))
+                    edges.add(m, myG.addVertex(other.name).id);
             }
         }
+    }
 
-
-        if (reachableMovies == 0) {
-            return Double.POSITIVE_INFINITY;
-        }
-        return (double) totalDegrees / reachableMovies;
+    /**
+     * This graph is the projection of the Actor-Movie graph onto its movies.
+     *
+     * @see AbstractDegreesOfSeparation#projectionKind()
+     */
+    @Override
+    protected int projectionKind() {
+        return GraphSnapshot.MOVIE;
     }
 
     /**
@@ -139,29 +172,47 @@ public class MovieToMovieDegreesOfSeparation extends AbstractDegreesOfSeparation
      */
     @Override
     public String chainAsString(String name) {
-        Vertex start = myG.getVertex(mySource);
-        Vertex dest = myG.getVertex(name);
+        return formatChain(mySource, name, predecessorPath(name));
+    }
+
+    /**
+     * Formats the chain between {@code from} and {@code to}. If either of them is not in the graph, the chain is the
+     * appropriate error message.
+     *
+     * @see AbstractDegreesOfSeparation#formatChain(String, String, int[])
+     */
+    @Override
+    protected String formatChain(String from, String to, int[] path) {
+        int start = indexOf(from);
+        int dest = indexOf(to);
 
         // Check if source exists
         StringBuilder sb = new StringBuilder();
-        if (start == null) {
-            sb.append("Source movie: ").append(mySource).append(" does not exist in our graph.\n");
+        if (start < 0) {
+            sb.append("Source movie: ").append(from).append(" does not exist in our graph.\n");
         } else {
-            if (dest == null) {
-                sb.append("Destination movie: ").append(name).append(" does not exist in our graph.\n");
+            if (dest < 0) {
+                sb.append("Destination movie: ").append(to).append(" does not exist in our graph.\n");
             } else {
-                sb.append(start.name).append(" and ").append(dest.name).append(" have a distance of ");
-                if (dest.distance == Vertex.INFINITY) {
+                sb.append(nameOf(start)).append(" and ").append(nameOf(dest)).append(" have a distance of ");
+                if (path == null) {
                     sb.append("infinity.\n");
+                } else if (isProjected()) {
+                    sb.append((path.length - 1) / 4).append(".\n\n"); // two ids a step, as counted below
+
+                    // The actor of each step is known
+                    for (int i = 0; i + 2 < path.length; i += 2) {
+                        sb.append(i / 2 + 1).append(". ").append(nameOf(path[i + 1])).append(" was in \"")
+                                .append(nameOf(path[i])).append("\" and \"").append(nameOf(path[i + 2]))
+                                .append("\".\n");
+                    }
                 } else {
-                    sb.append(dest.distance / 2).append(".\n\n");
-
-                    int counter = 1;
-                    while (dest != start) {
-                        sb.append(counter).append(". ").append(dest.name).append(" was in \"").append(dest.predecessor)
-                                .append("\" with ").append(dest.predecessor).append(".\n");
-                        dest = dest.predecessor;
-                        counter++;
+                    sb.append((path.length - 1) / 2).append(".\n\n");
+
+                    for (int i = 0; i + 1 < path.length; i++) {
+                        sb.append(i + 1).append(". ").append(nameOf(path[i])).append(" was in \"")
+                                .append(nameOf(path[i + 1])).append("\" with ")
+                                .append(nameOf(path[i + 1])).append(".\n");
                     }
                 }
             }
@@ -169,4 +220,24 @@ public class MovieToMovieDegreesOfSeparation extends AbstractDegreesOfSeparation
 
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns where the credits of the actor of {@code credits[begin]} end.
+     */
+    private static int groupEnd(long[] credits, int begin, int numCredits) {
+        int end = begin + 1;
+        while (end < numCredits && credits[end] >>> 32 == credits[begin] >>> 32) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Returns {@code a}, or a larger copy of it if it cannot hold {@code size} elements.
+     */
+    private static long[] ensureCapacity(long[] a, int size) {
+        if (size <= a.length)
+            return a;
+        return Arrays.copyOf(a, Math.max(size, 2 * a.length));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * BidirectionalSearchTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.util.Random;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+import wpialgs.sixdegrees.traversal.BidirectionalSearch;
+
+/**
+ * Checks the paths found by one reused {@link BidirectionalSearch} between random pairs of a small random Actor-Movie
+ * graph against a plain breadth-first search: each path must be as short as the distance, start and end at the right
+ * vertices and follow edges, pairs in different components have no path, and the vertices visited must cover the
+ * path without counting any vertex twice. Exits with status 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class BidirectionalSearchTest {
+
+    private static final int PAIRS = 20000;
+
+    private static int checks = 0;
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("USAGE: java BidirectionalSearchTest <random_number_seed>");
+            return;
+        }
+
+        Random rnd = new Random(Long.parseLong(args[0]));
+        UndirectedGraph graph = TestGraphs.actorMovie(rnd);
+        CompactGraph g = graph.compact();
+        int[][] expected = TestGraphs.distances(g);
+        int alone = graph.getVertex("A alone").id;
+        BidirectionalSearch search = new BidirectionalSearch(g);
+        for (int i = 0; i < PAIRS; i++) {
+            int s = i % 500 == 1 ? alone : rnd.nextInt(g.numVertices());
+            int t = i % 100 == 0 ? s : rnd.nextInt(g.numVertices());
+            int d = expected[s][t];
+
+            int[] path = search.path(s, t);
+            boolean ok = d == Vertex.INFINITY ? path == null
+                    : path != null && path.length == d + 1 && path[0] == s && path[d] == t;
+            for (int k = 0; ok && path != null && k < d; k++) {
+                ok = TestGraphs.adjacent(g, path[k], path[k + 1]);
+            }
+            check(s + " to " + t, ok);
+            int visited = search.verticesVisited();
+            check(s + " to " + t + " visited " + visited, visited <= g.numVertices()
+                    && (path == null ? visited >= 1 : visited >= path.length) && (s != t || visited == 1));
+        }
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Counts a check, printing {@code what} and counting a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        checks++;
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * ComponentIndexTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+import wpialgs.sixdegrees.traversal.ComponentIndex;
+
+/**
+ * Checks {@link ComponentIndex} against components found by plain breadth-first searches, started from each vertex
+ * not yet reached in id order: on a small random Actor-Movie graph counting actors only, on the same graph counting
+ * nothing, and on a large sparse graph with thousands of components, whose rows are split among many threads. The
+ * component numbers, their sizes, the largest component and whether pairs are connected must all match. Exits with
+ * status 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class ComponentIndexTest {
+
+    private static final int LARGE_ACTORS = 150000;
+    private static final int LARGE_MOVIES = 60000;
+
+    private static int checks = 0;
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("USAGE: java ComponentIndexTest <random_number_seed>");
+            return;
+        }
+
+        Random rnd = new Random(Long.parseLong(args[0]));
+        UndirectedGraph graph = TestGraphs.actorMovie(rnd);
+        CompactGraph g = graph.compact();
+        IntPredicate actor = TestGraphs.actors(graph);
+        checkComponents("small", g, actor);
+        checkComponents("small without counted vertices", g, v -> false);
+
+        // Pairs of the small graph, connected exactly when some path joins them
+        int[][] expected = TestGraphs.distances(g);
+        ComponentIndex index = ComponentIndex.build(g, actor);
+        for (int s = 0; s < g.numVertices(); s++) {
+            boolean ok = true;
+            for (int v = 0; ok && v < g.numVertices(); v++) {
+                ok = index.connected(s, v) == (expected[s][v] != Vertex.INFINITY);
+            }
+            check("connected to " + s, ok);
+        }
+
+        UndirectedGraph large = new UndirectedGraph();
+        for (int m = 0; m < LARGE_MOVIES; m++) {
+            for (int k = 1 + rnd.nextInt(3); k > 0; k--) {
+                large.addEdge("M " + m, "A " + rnd.nextInt(LARGE_ACTORS));
+            }
+        }
+        checkComponents("large", large.compact(), TestGraphs.actors(large));
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Checks the components of {@code g} and their sizes counting the vertices accepted by {@code counted}.
+     */
+    private static void checkComponents(String name, CompactGraph g, IntPredicate counted) {
+        int n = g.numVertices();
+        int[] component = new int[n];
+        Arrays.fill(component, -1);
+        int[] sizes = new int[n];
+        int[] queue = new int[n];
+        int components = 0;
+        for (int s = 0; s < n; s++) {
+            if (component[s] >= 0)
+                continue;
+            int head = 0;
+            int tail = 0;
+            component[s] = components;
+            queue[tail++] = s;
+            while (head < tail) {
+                int v = queue[head++];
+                if (counted.test(v))
+                    sizes[components]++;
+                for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+                    if (component[g.target(e)] < 0) {
+                        component[g.target(e)] = components;
+                        queue[tail++] = g.target(e);
+                    }
+                }
+            }
+            components++;
+        }
+        int largest = -1;
+        for (int c = 0; c < components; c++) {
+            if (sizes[c] > 0 && (largest < 0 || sizes[c] > sizes[largest]))
+                largest = c;
+        }
+
+        ComponentIndex index = ComponentIndex.build(g, counted);
+        check(name + " components", index.numComponents() == components && index.largest() == largest
+                && index.sizeInBytes() == 4L * (n + components));
+        boolean ok = true;
+        for (int v = 0; ok && v < n; v++) {
+            ok = index.component(v) == component[v];
+        }
+        check(name + " numbers", ok);
+        ok = true;
+        for (int c = 0; ok && c < components; c++) {
+            ok = index.size(c) == sizes[c];
+        }
+        check(name + " sizes", ok);
+    }
+
+    /**
+     * Counts a check, printing {@code what} and counting a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        checks++;
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * DistanceLabelsTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.util.Random;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.traversal.DistanceLabels;
+
+/**
+ * Checks {@link DistanceLabels} against a plain breadth-first search from every vertex of a small random Actor-Movie
+ * graph: the distance of every pair, the sizes of the labels, and the longest shortest path that fits in a label.
+ * Exits with status 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class DistanceLabelsTest {
+
+    private static int checks = 0;
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("USAGE: java DistanceLabelsTest <random_number_seed>");
+            return;
+        }
+
+        UndirectedGraph graph = TestGraphs.actorMovie(new Random(Long.parseLong(args[0])));
+        CompactGraph g = graph.compact();
+        int[][] expected = TestGraphs.distances(g);
+        DistanceLabels labels = DistanceLabels.build(g);
+        long entries = 0;
+        for (int s = 0; s < g.numVertices(); s++) {
+            boolean ok = true;
+            for (int t = 0; ok && t < g.numVertices(); t++) {
+                ok = labels.distance(s, t) == expected[s][t];
+            }
+            check("distances from " + s, ok);
+            check("label of " + s, labels.labelSize(s) >= 1);
+            entries += labels.labelSize(s);
+        }
+        check("entries", labels.numEntries() == entries
+                && labels.sizeInBytes() == 4L * (g.numVertices() + 1) + 5L * entries);
+
+        // A chain within the limit, and one so long that every vertex is beyond the limit from one of its ends
+        for (int length : new int[] { DistanceLabels.MAX_DISTANCE, 2 * DistanceLabels.MAX_DISTANCE + 2 }) {
+            UndirectedGraph chain = new UndirectedGraph();
+            for (int i = 0; i < length; i++) {
+                chain.addEdge("V " + i, "V " + (i + 1));
+            }
+            CompactGraph c = chain.compact();
+            int ends = TestGraphs.distances(c, 0)[c.numVertices() - 1];
+            try {
+                DistanceLabels chainLabels = DistanceLabels.build(c);
+                check("chain of " + length, length <= DistanceLabels.MAX_DISTANCE
+                        && chainLabels.distance(0, c.numVertices() - 1) == ends);
+            } catch (IllegalArgumentException e) {
+                check("chain of " + length + ": " + e.getMessage(), length > DistanceLabels.MAX_DISTANCE);
+            }
+        }
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Counts a check, printing {@code what} and counting a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        checks++;
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
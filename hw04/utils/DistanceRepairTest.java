@@ -0,0 +1,223 @@
+/*
+ * DistanceRepairTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import wpialgs.hw04.separation.AbstractDegreesOfSeparation;
+import wpialgs.hw04.separation.ActorToActorDegreesOfSeparation;
+import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
+import wpialgs.hw04.separation.MovieToMovieDegreesOfSeparation;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.EdgeList;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+import wpialgs.sixdegrees.traversal.DistanceProfile;
+import wpialgs.sixdegrees.traversal.DistanceRepair;
+import wpialgs.sixdegrees.traversal.TraversalResult;
+import wpialgs.sixdegrees.traversal.TraversalStrategy;
+
+/**
+ * Checks that adding movies with {@link AbstractDegreesOfSeparation#addMovie(String, String...)} repairs the last
+ * traversal and the frequency chart to exactly what a new traversal of the larger graph gives, for every graph and
+ * {@link TraversalStrategy}, and that the traversal from before the first movie was added is left unchanged. Also
+ * checks {@link DistanceRepair#repair} itself on a small random Actor-Movie graph that grows by batches of edges,
+ * some to new vertices, against a plain breadth-first search. Exits with status 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class DistanceRepairTest {
+
+    private static final int MOVIES = 60;
+    private static final int ACTORS = 90;
+    private static final int ADDED = 25;
+
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     *
+     * @throws IOException
+     *             if the data file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("USAGE: java DistanceRepairTest <random_number_seed>");
+            return;
+        }
+
+        // A small data file, with a few actors in no movie yet to be cast in the added ones
+        Random rnd = new Random(Long.parseLong(args[0]));
+        File f = File.createTempFile("repair", ".txt");
+        f.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(f)) {
+            for (int m = 0; m < MOVIES; m++) {
+                out.print("Movie " + m + " (" + (1950 + m) + ")");
+                for (int k = 1 + rnd.nextInt(4); k > 0; k--) {
+                    out.print("\tActor" + rnd.nextInt(ACTORS - 10) + ", A");
+                }
+                out.println();
+            }
+        }
+
+        int checks = 0;
+        for (int kind = 0; kind < 3; kind++) {
+            for (TraversalStrategy strategy : TraversalStrategy.values()) {
+                AbstractDegreesOfSeparation d = kind == 0 ? new ActorToMovieDegreesOfSeparation()
+                        : kind == 1 ? new ActorToActorDegreesOfSeparation() : new MovieToMovieDegreesOfSeparation();
+                d.setTraversalStrategy(strategy);
+                d.readFile(f, "\t");
+                d.createGraph();
+                String source = kind == 2 ? "Movie 0 (1950)" : d.nameOf(d.compactGraph().target(0));
+                d.setSource(source);
+                d.traverseBFS(source);
+                d.createFrequencyChart();
+                TraversalResult first = d.getTraversalResult();
+                long[] firstCounts = counts(first.profile());
+                String name = d.getClass().getSimpleName() + " " + strategy;
+
+                for (int m = 0; m < ADDED; m++) {
+                    List<String> cast = new ArrayList<>();
+                    if (m == 0)
+                        cast.add("Newcomer, A"); // the graph grows, so the first traversal is copied
+                    for (int k = 1 + rnd.nextInt(m % 5 == 0 ? 8 : 3); k > 0; k--) {
+                        cast.add("Actor" + rnd.nextInt(ACTORS) + ", A");
+                    }
+                    d.addMovie("Added " + m + " (2030)", cast.toArray(new String[0]));
+
+                    TraversalResult repaired = d.getTraversalResult();
+                    TraversalResult fresh = d.traverse(source);
+                    check(name + " added " + m + " vertices", repaired.numVertices() == fresh.numVertices());
+                    boolean same = true;
+                    for (int v = 0; same && v < fresh.numVertices(); v++) {
+                        same = repaired.distance(v) == fresh.distance(v)
+                                && repaired.predecessor(v) == fresh.predecessor(v);
+                    }
+                    check(name + " added " + m + " distances", same);
+                    check(name + " added " + m + " profile",
+                            Arrays.equals(counts(repaired.profile()), counts(fresh.profile())));
+                    check(name + " added " + m + " chart",
+                            sameChart(d.getHistogram(), d.createFrequencyChart(fresh.profile())));
+                    checks += 4;
+                }
+                check(name + " first traversal unchanged", Arrays.equals(firstCounts, counts(first.profile())));
+                checks++;
+            }
+        }
+        checks += repairGraph(rnd);
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Adds edges to a random graph, some to new vertices, and repairs a traversal after each batch. Returns the number
+     * of checks.
+     */
+    private static int repairGraph(Random rnd) {
+        UndirectedGraph graph = TestGraphs.actorMovie(rnd);
+        IntPredicate actor = TestGraphs.actors(graph);
+        CompactGraph g = graph.compact();
+        TraversalResult result = TraversalStrategy.TOP_DOWN.traverse(g, 0, new TraversalResult(g.numVertices()),
+                actor);
+        int checks = 0;
+        for (int round = 0; round < 20; round++) {
+            TraversalResult before = result;
+            long[] counts = counts(before.profile());
+            if (round % 4 == 0)
+                graph.addVertex("A new " + round);
+            int n = graph.numVertices();
+            EdgeList edges = new EdgeList();
+            for (int k = 0; k < 3; k++) {
+                int movie = rnd.nextInt(n);
+                while (actor.test(movie)) {
+                    movie = rnd.nextInt(n);
+                }
+                int cast = round % 4 == 0 && k == 0 ? n - 1 : rnd.nextInt(n);
+                while (!actor.test(cast)) {
+                    cast = rnd.nextInt(n);
+                }
+                edges.add(movie, cast);
+            }
+            int[] touched = graph.insertEdges(edges);
+            g = graph.compact();
+            result = DistanceRepair.repair(g, result, touched, actor);
+
+            int[] expected = TestGraphs.distances(g, 0);
+            check("repair round " + round, result.numVertices() == n && TestGraphs.sameTraversal(g, result, expected)
+                    && TestGraphs.sameProfile(result.profile(), expected, actor));
+            checks++;
+            if (result != before) {
+                check("repair round " + round + " keeps the old result", Arrays.equals(counts,
+                        counts(before.profile())));
+                checks++;
+            }
+        }
+
+        return checks;
+    }
+
+    /**
+     * Returns the count of each distance of {@code profile}, and the number of vertices reached last.
+     */
+    private static long[] counts(DistanceProfile profile) {
+        long[] counts = new long[profile.eccentricity() + 2];
+        for (int d = 0; d <= profile.eccentricity(); d++) {
+            counts[d] = profile.count(d);
+        }
+        counts[counts.length - 1] = profile.reachable();
+
+        return counts;
+    }
+
+    /**
+     * Returns whether both charts have the same total for every key.
+     */
+    private static boolean sameChart(Histogram a, Histogram b) {
+        if (a.isEmpty() || b.isEmpty())
+            return a.isEmpty() == b.isEmpty();
+        if (a.minimum() != b.minimum() || a.maximum() != b.maximum())
+            return false;
+        for (int k = 0; k <= Math.min(a.maximum(), ACTORS + MOVIES + ADDED); k++) {
+            if (a.total(k, k) != b.total(k, k))
+                return false;
+        }
+
+        return a.total(Vertex.INFINITY, Vertex.INFINITY) == b.total(Vertex.INFINITY, Vertex.INFINITY);
+    }
+
+    /**
+     * Prints {@code what} and counts a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
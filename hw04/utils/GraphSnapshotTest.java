@@ -0,0 +1,235 @@
+/*
+ * GraphSnapshotTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import wpialgs.hw04.separation.AbstractDegreesOfSeparation;
+import wpialgs.hw04.separation.ActorToActorDegreesOfSeparation;
+import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
+import wpialgs.hw04.separation.MovieToMovieDegreesOfSeparation;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.GraphSnapshot;
+
+/**
+ * Checks that a graph saved with {@link AbstractDegreesOfSeparation#saveSnapshot(File)} opens again as the same
+ * adjacency, names and kinds, and answers the same chains as the graph it was saved from, for every kind of graph.
+ * Also checks that {@link GraphSnapshot#open(File)} rejects files with another magic number or version, a corrupt
+ * header or section, or the wrong length, and that a snapshot cannot be opened as another kind of graph. Exits with
+ * status 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class GraphSnapshotTest {
+
+    private static final int MOVIES = 300;
+    private static final int ACTORS = 200;
+    private static final int PAIRS = 50;
+    private static final int HEADER_SIZE = 64; // bytes of a snapshot header
+
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     *
+     * @throws IOException
+     *             if a data or snapshot file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("USAGE: java GraphSnapshotTest <random_number_seed>");
+            return;
+        }
+
+        // A data file with a few unconnected movies and a name that is not ASCII
+        Random rnd = new Random(Long.parseLong(args[0]));
+        File data = temp(".txt");
+        try (PrintWriter out = new PrintWriter(data, "UTF-8")) {
+            for (int m = 0; m < MOVIES; m++) {
+                out.print("Movie " + m + " (" + (1950 + m % 70) + ")");
+                for (int k = m % 50 == 0 ? 0 : 1 + rnd.nextInt(4); k > 0; k--) {
+                    out.print("\tActor" + rnd.nextInt(ACTORS) + ", A");
+                }
+                out.println(m == 1 ? "\tZo\u00EB, A" : "");
+            }
+        }
+
+        int checks = 0;
+        File[] snapshots = new File[3];
+        for (int kind = 0; kind < 3; kind++) {
+            AbstractDegreesOfSeparation d = create(kind);
+            String name = d.getClass().getSimpleName();
+            d.readFile(data, "\t");
+            d.createGraph();
+            snapshots[kind] = temp(GraphSnapshot.EXTENSION);
+            d.saveSnapshot(snapshots[kind]);
+
+            // The file itself
+            CompactGraph g = d.compactGraph();
+            GraphSnapshot snapshot = GraphSnapshot.open(snapshots[kind]);
+            check(name + " type", snapshot.getType().equals(d.getClass().getName()));
+            check(name + " adjacency", sameAdjacency(snapshot.getGraph(), g));
+            checks += 2;
+            for (int v = 0; v < g.numVertices(); v++) {
+                String vertex = d.nameOf(v);
+                int kindBits = snapshot.kind(v);
+                boolean actor = vertex.startsWith("Actor") || vertex.startsWith("Zo");
+                check(name + " name " + v, snapshot.nameOf(v).equals(vertex));
+                check(name + " index " + vertex, snapshot.indexOf(vertex) == v);
+                check(name + " kind " + vertex,
+                        kindBits == (actor ? GraphSnapshot.ACTOR : GraphSnapshot.MOVIE));
+                checks += 3;
+            }
+            check(name + " missing name", snapshot.indexOf("Nobody, A") == -1);
+            checks++;
+
+            // A new object that never reads the data file answers the same
+            AbstractDegreesOfSeparation opened = create(kind);
+            opened.openSnapshot(snapshots[kind]);
+            check(name + " opened adjacency", sameAdjacency(opened.compactGraph(), g));
+            checks++;
+            for (int p = 0; p < PAIRS; p++) {
+                String from = d.nameOf(rnd.nextInt(g.numVertices()));
+                String to = d.nameOf(rnd.nextInt(g.numVertices()));
+                check(name + " chain " + from + " to " + to,
+                        opened.chainAsString(from, to).equals(d.chainAsString(from, to)));
+                checks++;
+            }
+
+            // Damaged copies of the file
+            byte[] bytes = Files.readAllBytes(snapshots[kind].toPath());
+            checks += rejects(name + " magic", putInt(bytes, 0, 0x58585858), "is not a graph snapshot");
+            checks += rejects(name + " version", putInt(bytes, 4, 2), "has snapshot version 2");
+            checks += rejects(name + " header", flip(bytes, 12), "has a corrupt header");
+            checks += rejects(name + " offsets", flip(bytes, HEADER_SIZE + 4), "has a corrupt section 0");
+            checks += rejects(name + " type bytes", flip(bytes, bytes.length - 1), "has a corrupt section 6");
+            checks += rejects(name + " truncated", Arrays.copyOf(bytes, bytes.length - 1), "is truncated");
+            checks += rejects(name + " extended", Arrays.copyOf(bytes, bytes.length + 1), "is truncated");
+            checks += rejects(name + " short", Arrays.copyOf(bytes, HEADER_SIZE - 1), "is not a graph snapshot");
+        }
+
+        // A snapshot only opens as the kind of graph it was saved from
+        for (int kind = 0; kind < 3; kind++) {
+            AbstractDegreesOfSeparation other = create((kind + 1) % 3);
+            try {
+                other.openSnapshot(snapshots[kind]);
+                check(other.getClass().getSimpleName() + " opened another kind of graph", false);
+            } catch (IOException e) {
+                check(other.getClass().getSimpleName() + " " + e.getMessage(),
+                        e.getMessage().contains(" graph, not a "));
+            }
+            checks++;
+        }
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Returns a new graph of the given kind.
+     */
+    private static AbstractDegreesOfSeparation create(int kind) {
+        return kind == 0 ? new ActorToMovieDegreesOfSeparation()
+                : kind == 1 ? new ActorToActorDegreesOfSeparation() : new MovieToMovieDegreesOfSeparation();
+    }
+
+    /**
+     * Returns whether both graphs have the same vertices, edges and adjacency lists.
+     */
+    private static boolean sameAdjacency(CompactGraph a, CompactGraph b) {
+        if (a.numVertices() != b.numVertices() || a.numEdges() != b.numEdges()
+                || a.adjacencySize() != b.adjacencySize())
+            return false;
+        for (int v = 0; v < a.numVertices(); v++) {
+            if (a.edgeBegin(v) != b.edgeBegin(v) || a.edgeEnd(v) != b.edgeEnd(v))
+                return false;
+        }
+        for (int e = 0; e < a.adjacencySize(); e++) {
+            if (a.target(e) != b.target(e))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes {@code bytes} to a file and checks that opening it fails with a message containing {@code reason}.
+     */
+    private static int rejects(String what, byte[] bytes, String reason) throws IOException {
+        File f = temp(GraphSnapshot.EXTENSION);
+        Files.write(f.toPath(), bytes);
+        try {
+            GraphSnapshot.open(f);
+            check(what + " was opened", false);
+        } catch (IOException e) {
+            check(what + ": " + e.getMessage(), e.getMessage().contains(reason));
+        }
+
+        return 1;
+    }
+
+    /**
+     * Returns a copy of {@code bytes} with the little-endian int at {@code at} replaced by {@code value}.
+     */
+    private static byte[] putInt(byte[] bytes, int at, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(at, value);
+
+        return copy;
+    }
+
+    /**
+     * Returns a copy of {@code bytes} with every bit of the byte at {@code at} flipped.
+     */
+    private static byte[] flip(byte[] bytes, int at) {
+        byte[] copy = bytes.clone();
+        copy[at] = (byte) ~copy[at];
+
+        return copy;
+    }
+
+    /**
+     * Returns a new temporary file, deleted when the test ends.
+     */
+    private static File temp(String extension) throws IOException {
+        File f = File.createTempFile("snapshot", extension);
+        f.deleteOnExit();
+
+        return f;
+    }
+
+    /**
+     * Prints {@code what} and counts a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
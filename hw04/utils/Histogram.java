@@ -18,30 +18,56 @@
 package wpialgs.hw04.utils;
 
 import edu.princeton.cs.algs4.StdOut;
-import wpialgs.day18.TreeMap;
-
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * <p>
- * This class requires you complete the {@link #record(int)}, {@link #isEmpty()}, {@link #minimum()}, {@link #maximum()}
- * and {@link #report()} methods by using a symbol table. The {@link #report(int)} method is complete and doesn't
- * require any change.
+ * Counts how many times each integer key was recorded and reports the counts in ascending order of keys, one row per
+ * key or per bin of keys.
+ * </p>
+ * <p>
+ * Keys from {@code 0} to {@value #DENSE_KEYS} - 1, such as degrees of separation, are counted in flat arrays of longs.
+ * Any other key, such as {@link Integer#MAX_VALUE} for an unreachable vertex, goes to a sorted sparse map. Any number
+ * of threads may record at the same time without locking: each thread adds to one of several stripes of the flat
+ * counts, so they rarely touch the same memory, and the stripes are only summed when the counts are read. Reads see
+ * the counts as of some point during concurrent recording. Histograms filled in by separate workers can be combined
+ * with {@link #merge(Histogram)}.
+ * </p>
+ * <p>
+ * The flat counts are summed into prefix sums the first time they are read after a change, so {@link #total(int, int)}
+ * over flat keys takes constant time, however many keys the range covers. Readers take a lock to rebuild or read the
+ * sums, so a reader never sees sums older than the last record that finished before it started.
  * </p>
  *
  * @version 3.0
  */
 public class Histogram {
 
+    /**
+     * Number of small keys counted in flat arrays.
+     */
+    public static final int DENSE_KEYS = 256;
+
+    private static final int STRIPES = Math.min(64,
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1);
+
     // Class attributes
     private final String myTitle;
     private final String myCol1Label;
     private final String myCol2Label;
-    private final TreeMap<Integer, Integer> histogram;
-
-    // You will need some symbol table that you can use to store the keys
-    // in such a way that you can retrieve them in order.
-    // NOTE 1: The book suggests a couple of implementations that would work!
-    // NOTE 2: Use the version that is in the edu.princeton.cs.algs4 and not the ones in the wpialgs.daysXX
+    // Flat counts, one array per stripe allocated when a thread first records into it
+    private final AtomicReferenceArray<AtomicLongArray> myStripes;
+    private final AtomicLongArray myPresent; // bit k set once key k has been recorded
+    private final ConcurrentSkipListMap<Integer, LongAdder> mySparse;
+    // Prefix sums of the flat counts, rebuilt under the lock on the first read after a change
+    private final Object myPrefixLock;
+    private volatile boolean myChanged;
+    private long[] myPrefix;
 
     /**
      * This creates an object for storing data that can later be displayed as a histogram.
@@ -57,9 +83,11 @@ public class Histogram {
         myTitle = title;
         myCol1Label = col1Label;
         myCol2Label = col2Label;
-        histogram = new TreeMap<>();
-
-
+        myStripes = new AtomicReferenceArray<>(STRIPES);
+        myPresent = new AtomicLongArray(DENSE_KEYS / 64);
+        mySparse = new ConcurrentSkipListMap<>();
+        myPrefixLock = new Object();
+        myPrefix = new long[DENSE_KEYS + 1];
     }
 
     /**
@@ -71,9 +99,51 @@ public class Histogram {
      *            A key value in the histogram.
      */
     public void record(int key) {
-        histogram.put(key, histogram.getOrDefault(key, 0) + 1);
+        record(key, 1);
+    }
+
+    /**
+     * Increase the count for {@code key} by {@code count}, as if {@link #record(int)} had been called {@code count}
+     * times. A negative count takes back occurrences recorded earlier, and a key whose count is back to zero is no
+     * longer reported; this should not race with recording the same key.
+     *
+     * @param key
+     *            A key value in the histogram.
+     * @param count
+     *            Number of occurrences to add, or to take back if negative.
+     */
+    public void record(int key, long count) {
+        if (key >= 0 && key < DENSE_KEYS) {
+            stripe().getAndAdd(key, count);
+            long bit = 1L << key;
+            if ((myPresent.get(key >>> 6) & bit) == 0)
+                myPresent.getAndUpdate(key >>> 6, bits -> bits | bit);
+        } else {
+            mySparse.computeIfAbsent(key, k -> new LongAdder()).add(count);
+        }
+        if (!myChanged)
+            myChanged = true;
+        if (count < 0)
+            forgetIfZero(key);
     }
 
+    /**
+     * Adds every count of {@code other} to this histogram, as if its keys had been recorded here too. Both may be
+     * recorded into at the same time.
+     *
+     * @param other
+     *            another histogram, typically filled in by a parallel worker
+     */
+    public void merge(Histogram other) {
+        long[] prefix = other.prefix();
+        for (int key = 0; key < DENSE_KEYS; key++) {
+            if (other.isPresent(key))
+                record(key, prefix[key + 1] - prefix[key]);
+        }
+        for (Map.Entry<Integer, LongAdder> entry : other.mySparse.entrySet()) {
+            record(entry.getKey(), entry.getValue().sum());
+        }
+    }
 
     /**
      * Return whether histogram is empty.
@@ -81,25 +151,47 @@ public class Histogram {
      * @return {@code true} if the histogram is empty, {@code false} otherwise.
      */
     public boolean isEmpty() {
-        return histogram.isEmpty();
+        return denseMinimum() < 0 && mySparse.isEmpty();
     }
 
     /**
      * Return the lowest integer key in the histogram.
      *
      * @return The minimum value key in the histogram
+     *
+     * @throws NoSuchElementException
+     *             if the histogram is empty
      */
     public int minimum() {
-        return histogram.firstKey();
+        Map.Entry<Integer, LongAdder> first = mySparse.firstEntry();
+        if (first != null && first.getKey() < 0)
+            return first.getKey();
+        int dense = denseMinimum();
+        if (dense >= 0)
+            return dense;
+        if (first == null)
+            throw new NoSuchElementException("histogram is empty");
+        return first.getKey();
     }
 
     /**
      * Return the largest integer key in the histogram.
      *
      * @return The maximum value key in the histogram
+     *
+     * @throws NoSuchElementException
+     *             if the histogram is empty
      */
     public int maximum() {
-        return histogram.lastKey();
+        Map.Entry<Integer, LongAdder> last = mySparse.lastEntry();
+        if (last != null && last.getKey() >= DENSE_KEYS)
+            return last.getKey();
+        int dense = denseMaximum();
+        if (dense >= 0)
+            return dense;
+        if (last == null)
+            throw new NoSuchElementException("histogram is empty");
+        return last.getKey();
     }
 
     /**
@@ -110,13 +202,36 @@ public class Histogram {
      * @param hi
      *            Highest key value
      *
-     * @return Sum of counts
+     * @return Sum of counts, {@code 0} if {@code lo > hi}
+     *
+     * @throws ArithmeticException
+     *             if the sum does not fit in an {@code int}
      */
     public int total(int lo, int hi) {
-        int sum = 0;
-        for (int key : histogram.subMap(lo, true, hi, true).keySet()) {
-            sum += histogram.get(key);
+        return Math.toIntExact(sum(lo, hi));
+    }
+
+    /**
+     * Returns the sum of the counts of the keys from {@code lo} to {@code hi}, both inclusive, without the limit of
+     * {@link #total(int, int)}.
+     */
+    private long sum(int lo, int hi) {
+        if (lo > hi)
+            return 0;
+
+        long sum = 0;
+        int denseLo = Math.max(lo, 0);
+        int denseHi = Math.min(hi, DENSE_KEYS - 1);
+        if (denseLo <= denseHi) {
+            long[] prefix = prefix();
+            sum += prefix[denseHi + 1] - prefix[denseLo];
         }
+        if (lo < 0 || hi >= DENSE_KEYS) {
+            for (LongAdder count : mySparse.subMap(lo, true, hi, true).values()) {
+                sum += count.sum();
+            }
+        }
+
         return sum;
     }
 
@@ -129,22 +244,26 @@ public class Histogram {
         StdOut.printf("%-20s\t\t%-20s\n", myCol1Label, myCol2Label);
         StdOut.println("---------------------\t\t--------------------");
 
-        // Variables to be updated and used in printf
-        int currCol1;
-        int currCol2;
-
-        // NOTE: Use the following printf to print a row with values from column 1 and column 2
-        // StdOut.printf("%-20d\t\t%20d\n", currCol1, currCol2);
-
-        for (int key : histogram.keySet()) {
-            StdOut.printf("%-20d\t\t%20d\n", key, histogram.get(key));
+        // Negative keys, then the flat keys, then the large ones
+        for (Map.Entry<Integer, LongAdder> entry : mySparse.headMap(0).entrySet()) {
+            StdOut.printf("%-20d\t\t%20d\n", entry.getKey(), entry.getValue().sum());
+        }
+        long[] prefix = prefix();
+        for (int key = 0; key < DENSE_KEYS; key++) {
+            if (isPresent(key))
+                StdOut.printf("%-20d\t\t%20d\n", key, prefix[key + 1] - prefix[key]);
+        }
+        for (Map.Entry<Integer, LongAdder> entry : mySparse.tailMap(DENSE_KEYS).entrySet()) {
+            StdOut.printf("%-20d\t\t%20d\n", entry.getKey(), entry.getValue().sum());
         }
     }
 
     /**
      * Produce a report for all bins (with aggregate counts) in ascending order by range.
      * <p>
-     * The first range label that is output should be "0 - (binSize-1)" since the report always starts from 0.
+     * The bins start at the lowest finite key and end at the bin holding the highest one. {@link Integer#MIN_VALUE}
+     * and {@link Integer#MAX_VALUE} stand for {@code -infinity} and {@code infinity}: they are not binned but
+     * reported on rows of their own, before and after the bins.
      * <p>
      * It is acceptable if the final range label includes values that exceed maximum().
      *
@@ -152,15 +271,134 @@ public class Histogram {
      *            The specified bin size for grouping keys
      */
     public void report(int binSize) {
-        // USE AS-IS. NO CHANGE REQUIRED!
         // Histogram header
         StdOut.println(myTitle + " (binSize=" + binSize + ")");
         StdOut.printf("%-20s\t\t%-20s\n", myCol1Label, myCol2Label);
         StdOut.println("---------------------\t\t--------------------");
+        if (isEmpty())
+            return;
+
+        long negativeInfinity = sum(Integer.MIN_VALUE, Integer.MIN_VALUE);
+        if (negativeInfinity != 0 || mySparse.containsKey(Integer.MIN_VALUE))
+            StdOut.printf("%-20d\t\t%20d\n", Integer.MIN_VALUE, negativeInfinity);
+
+        // Bin the finite keys; long arithmetic so the last bin cannot wrap around
+        Integer lo = finiteKey(minimum(), true);
+        Integer hi = finiteKey(maximum(), false);
+        if (lo != null && hi != null) {
+            for (long i = lo; i <= hi; i += binSize) {
+                int binHi = (int) Math.min(i + binSize - 1, Integer.MAX_VALUE - 1);
+                StdOut.printf("%-20s\t\t%20d\n", String.format("%d-%d", i, i + binSize - 1), sum((int) i, binHi));
+            }
+        }
+
+        long infinity = sum(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        if (infinity != 0 || mySparse.containsKey(Integer.MAX_VALUE))
+            StdOut.printf("%-20d\t\t%20d\n", Integer.MAX_VALUE, infinity);
+    }
 
-        // Prints the contents of the histogram
-        for (int i = minimum(); i <= maximum(); i += binSize) {
-            StdOut.printf("%-20s\t\t%20d\n", String.format("%d-%d", i, i + binSize - 1), total(i, i + binSize - 1));
+    // -----------------------------------------------------------
+    // Helper methods
+    // -----------------------------------------------------------
+
+    /**
+     * Returns the flat counts of the calling thread's stripe, allocating them on first use.
+     */
+    private AtomicLongArray stripe() {
+        int s = System.identityHashCode(Thread.currentThread()) & (STRIPES - 1);
+        AtomicLongArray stripe = myStripes.get(s);
+        if (stripe == null) {
+            myStripes.compareAndSet(s, null, new AtomicLongArray(DENSE_KEYS));
+            stripe = myStripes.get(s);
+        }
+        return stripe;
+    }
+
+    /**
+     * Returns the prefix sums of the flat counts: {@code prefix[k]} is the total of keys {@code 0} to {@code k - 1}.
+     */
+    private long[] prefix() {
+        // One reader rebuilds at a time, so an older sum can never be published over a newer one
+        synchronized (myPrefixLock) {
+            if (myChanged) {
+                // Clear the flag first, so a record that lands while summing marks the sums stale again
+                myChanged = false;
+                long[] prefix = new long[DENSE_KEYS + 1];
+                for (int s = 0; s < STRIPES; s++) {
+                    AtomicLongArray stripe = myStripes.get(s);
+                    if (stripe != null) {
+                        for (int key = 0; key < DENSE_KEYS; key++) {
+                            prefix[key + 1] += stripe.get(key);
+                        }
+                    }
+                }
+                for (int key = 0; key < DENSE_KEYS; key++) {
+                    prefix[key + 1] += prefix[key];
+                }
+                myPrefix = prefix;
+            }
+            return myPrefix;
+        }
+    }
+
+    /**
+     * Forgets {@code key} if its count is back to zero, as if it had never been recorded.
+     */
+    private void forgetIfZero(int key) {
+        if (key >= 0 && key < DENSE_KEYS) {
+            long total = 0;
+            for (int s = 0; s < STRIPES; s++) {
+                AtomicLongArray stripe = myStripes.get(s);
+                if (stripe != null)
+                    total += stripe.get(key);
+            }
+            long bit = 1L << key;
+            if (total == 0)
+                myPresent.getAndUpdate(key >>> 6, bits -> bits & ~bit);
+        } else {
+            mySparse.computeIfPresent(key, (k, c) -> c.sum() == 0 ? null : c);
+        }
+    }
+
+    private boolean isPresent(int key) {
+        return (myPresent.get(key >>> 6) & 1L << key) != 0;
+    }
+
+    private int denseMinimum() {
+        for (int w = 0; w < DENSE_KEYS / 64; w++) {
+            long bits = myPresent.get(w);
+            if (bits != 0)
+                return 64 * w + Long.numberOfTrailingZeros(bits);
+        }
+        return -1;
+    }
+
+    private int denseMaximum() {
+        for (int w = DENSE_KEYS / 64 - 1; w >= 0; w--) {
+            long bits = myPresent.get(w);
+            if (bits != 0)
+                return 64 * w + 63 - Long.numberOfLeadingZeros(bits);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code key} if it is finite, otherwise the next finite key inward, {@code null} if there is none.
+     */
+    private Integer finiteKey(int key, boolean lowest) {
+        if (key != Integer.MIN_VALUE && key != Integer.MAX_VALUE)
+            return key;
+        if (lowest) {
+            int dense = denseMinimum();
+            Integer sparse = mySparse.higherKey(Integer.MIN_VALUE);
+            if (sparse != null && (sparse < 0 || dense < 0))
+                return sparse == Integer.MAX_VALUE ? null : sparse;
+            return dense >= 0 ? dense : null;
         }
+        int dense = denseMaximum();
+        Integer sparse = mySparse.lowerKey(Integer.MAX_VALUE);
+        if (sparse != null && (sparse >= DENSE_KEYS || dense < 0))
+            return sparse == Integer.MIN_VALUE ? null : sparse;
+        return dense >= 0 ? dense : null;
     }
-}
\ No newline at end of file
+}
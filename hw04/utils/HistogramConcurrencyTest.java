@@ -0,0 +1,179 @@
+/*
+ * HistogramConcurrencyTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+/**
+ * Checks that {@link Histogram#record(int, long)} and {@link Histogram#merge(Histogram)} lose no counts when several
+ * threads call them at once on the same chart, both for the flat keys below {@link Histogram#DENSE_KEYS} and for the
+ * sparse keys outside them, while other threads read {@link Histogram#total(int, int)}. Exits with status 1 if any
+ * check fails.
+ *
+ * @version 2.0
+ */
+public class HistogramConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int RECORDS = 20000;
+    private static final int[] SPARSE_KEYS = { Integer.MIN_VALUE, -7, -1, Histogram.DENSE_KEYS, 1000, 123456,
+            Integer.MAX_VALUE };
+
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length != 1) {
+            System.err.println("USAGE: java HistogramConcurrencyTest <random_number_seed>");
+            return;
+        }
+
+        // Each thread records its own keys, drawn in advance so the expected totals are known
+        Random rnd = new Random(Long.parseLong(args[0]));
+        int[][] keys = new int[THREADS][RECORDS];
+        long[][] counts = new long[THREADS][RECORDS];
+        TreeMap<Integer, Long> expected = new TreeMap<>();
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < RECORDS; i++) {
+                keys[t][i] = rnd.nextInt(4) == 0 ? SPARSE_KEYS[rnd.nextInt(SPARSE_KEYS.length)]
+                        : rnd.nextInt(Histogram.DENSE_KEYS);
+                counts[t][i] = 1 + rnd.nextInt(3);
+                expected.merge(keys[t][i], counts[t][i], Long::sum);
+            }
+        }
+
+        int checks = 0;
+
+        // All threads record into one chart while a reader keeps summing it
+        Histogram shared = new Histogram("Shared", "Key", "Count");
+        AtomicBoolean done = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                shared.total(0, Histogram.DENSE_KEYS - 1);
+                shared.isEmpty();
+            }
+        });
+        reader.start();
+        run(t -> {
+            for (int i = 0; i < RECORDS; i++) {
+                if (counts[t][i] == 1)
+                    shared.record(keys[t][i]);
+                else
+                    shared.record(keys[t][i], counts[t][i]);
+            }
+        });
+        done.set(true);
+        reader.join();
+        checks += compare("record", shared, expected);
+
+        // Each thread fills a chart of its own and merges it into one, twice over to merge into a non-empty chart
+        Histogram merged = new Histogram("Merged", "Key", "Count");
+        for (int round = 0; round < 2; round++) {
+            run(t -> {
+                Histogram mine = new Histogram("Worker", "Key", "Count");
+                for (int i = 0; i < RECORDS; i++) {
+                    mine.record(keys[t][i], counts[t][i]);
+                }
+                merged.merge(mine);
+            });
+        }
+        TreeMap<Integer, Long> twice = new TreeMap<>();
+        for (Integer key : expected.keySet()) {
+            twice.put(key, 2 * expected.get(key));
+        }
+        checks += compare("merge", merged, twice);
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Runs {@code work} for each thread number on its own thread, and waits for all of them.
+     */
+    private static void run(IntConsumer work) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            threads.add(new Thread(() -> work.accept(id)));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Checks the total of every key of {@code expected} in {@code chart}, the totals over ranges, and the smallest and
+     * largest keys still counted, and returns the number of checks.
+     */
+    private static int compare(String name, Histogram chart, TreeMap<Integer, Long> expected) {
+        int checks = 0;
+        long all = 0;
+        Integer lo = null;
+        Integer hi = null;
+        for (Integer key : expected.keySet()) {
+            long count = expected.get(key);
+            check(name + " key " + key, chart.total(key, key) == count);
+            checks++;
+            all += count;
+            if (count != 0) {
+                lo = lo == null ? key : lo;
+                hi = key;
+            }
+        }
+        check(name + " all keys", chart.total(Integer.MIN_VALUE, Integer.MAX_VALUE) == all);
+        long dense = expected.subMap(0, true, Histogram.DENSE_KEYS - 1, true).values().stream()
+                .mapToLong(Long::longValue).sum();
+        check(name + " flat keys", chart.total(0, Histogram.DENSE_KEYS - 1) == dense);
+        check(name + " empty", chart.isEmpty() == (lo == null));
+        checks += 3;
+        if (lo != null) {
+            check(name + " minimum", chart.minimum() == lo);
+            check(name + " maximum", chart.maximum() == hi);
+            checks += 2;
+        }
+
+        return checks;
+    }
+
+    /**
+     * Prints {@code what} and counts a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
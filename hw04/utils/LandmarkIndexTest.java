@@ -0,0 +1,202 @@
+/*
+ * LandmarkIndexTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.EdgeList;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.traversal.LandmarkIndex;
+
+/**
+ * Checks {@link LandmarkIndex} on a small random Actor-Movie graph against a plain breadth-first search from every
+ * vertex: the bounds and distances of random pairs with both ways of choosing landmarks, an index written with
+ * {@link LandmarkIndex#write(File)} and opened again with {@link LandmarkIndex#open(File, CompactGraph)}, and files
+ * that must be rejected because they are damaged, have another version or were built for another graph, including
+ * one with the same numbers of vertices and edges. Exits with status 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class LandmarkIndexTest {
+
+    private static final int PAIRS = 20000;
+    private static final int HEADER_SIZE = 36; // bytes of an index header
+
+    private static int checks = 0;
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     *
+     * @throws IOException
+     *             if an index file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("USAGE: java LandmarkIndexTest <random_number_seed>");
+            return;
+        }
+
+        Random rnd = new Random(Long.parseLong(args[0]));
+        UndirectedGraph graph = TestGraphs.actorMovie(rnd);
+        CompactGraph g = graph.compact();
+        int[][] expected = TestGraphs.distances(g);
+        CompactGraph rewired = rewired(graph, rnd);
+        check("rewired graph has as many vertices and edges", rewired.numVertices() == g.numVertices()
+                && rewired.numEdges() == g.numEdges() && rewired.adjacencySize() == g.adjacencySize());
+
+        for (LandmarkIndex.Selection selection : LandmarkIndex.Selection.values()) {
+            for (int k : new int[] { 1, 8 }) {
+                String name = selection + " " + k;
+                LandmarkIndex built = LandmarkIndex.build(g, k, selection);
+                File f = File.createTempFile("landmarks", LandmarkIndex.EXTENSION);
+                f.deleteOnExit();
+                built.write(f);
+                LandmarkIndex opened = LandmarkIndex.open(f, g);
+
+                boolean same = opened.numLandmarks() == k && built.numLandmarks() == k;
+                for (int i = 0; same && i < k; i++) {
+                    same = opened.landmark(i) == built.landmark(i);
+                }
+                check(name + " landmarks", same);
+                for (int i = 0; i < PAIRS; i++) {
+                    int s = rnd.nextInt(g.numVertices());
+                    int t = i % 100 == 0 ? s : rnd.nextInt(g.numVertices());
+                    int d = expected[s][t];
+                    check(name + " " + s + " to " + t, built.lowerBound(s, t) <= d && built.upperBound(s, t) >= d
+                            && built.distance(s, t) == d);
+                    if (i % 10 == 0)
+                        check(name + " opened " + s + " to " + t, opened.lowerBound(s, t) == built.lowerBound(s, t)
+                                && opened.upperBound(s, t) == built.upperBound(s, t));
+                }
+
+                byte[] bytes = Files.readAllBytes(f.toPath());
+                rejects(name + " magic", putInt(bytes, 0, 0x58585858), g, "is not a landmark index");
+                rejects(name + " version", putInt(bytes, 4, 2), g, "has landmark index version 2");
+                rejects(name + " header", flip(bytes, 16), g, "has a corrupt header");
+                rejects(name + " landmark", flip(bytes, HEADER_SIZE), g, "has a corrupt section");
+                rejects(name + " distances", flip(bytes, bytes.length - 1), g, "has a corrupt section");
+                rejects(name + " truncated", Arrays.copyOf(bytes, bytes.length - 1), g, "is truncated");
+                rejects(name + " extended", Arrays.copyOf(bytes, bytes.length + 1), g, "is truncated");
+                rejects(name + " short", Arrays.copyOf(bytes, HEADER_SIZE - 1), g, "is not a landmark index");
+                rejects(name + " rewired graph", bytes, rewired, "was built for another graph");
+                rejects(name + " smaller graph", bytes, TestGraphs.actorMovie(new Random(0)).compact(),
+                        "was built for another graph");
+            }
+        }
+
+        try {
+            LandmarkIndex.build(g, 0, LandmarkIndex.Selection.FARTHEST);
+            check("no landmarks", false);
+        } catch (IllegalArgumentException e) {
+            check("no landmarks", true);
+        }
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Returns {@code graph} with the same vertex ids and one movie of a large cast recast with an actor it did not
+     * have, so that it only differs in its adjacency.
+     */
+    private static CompactGraph rewired(UndirectedGraph graph, Random rnd) {
+        CompactGraph g = graph.compact();
+        UndirectedGraph other = new UndirectedGraph();
+        for (int v = 0; v < g.numVertices(); v++) {
+            other.addVertex(graph.getVertex(v).name);
+        }
+        int movie = graph.getVertex("M 0").id;
+        int dropped = g.target(g.edgeBegin(movie));
+        int added = dropped;
+        while (added == dropped || TestGraphs.adjacent(g, movie, added)
+                || !graph.getVertex(added).name.startsWith("A ")) {
+            added = rnd.nextInt(g.numVertices());
+        }
+        EdgeList edges = new EdgeList();
+        for (int v = 0; v < g.numVertices(); v++) {
+            for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+                int w = g.target(e);
+                if (v < w && (v == movie && w == dropped || v == dropped && w == movie))
+                    edges.add(movie, added);
+                else if (v < w)
+                    edges.add(v, w);
+            }
+        }
+        other.addEdges(edges);
+
+        return other.compact();
+    }
+
+    /**
+     * Writes {@code bytes} to a file and checks that opening it for {@code g} fails with a message containing
+     * {@code reason}.
+     */
+    private static void rejects(String what, byte[] bytes, CompactGraph g, String reason) throws IOException {
+        File f = File.createTempFile("landmarks", LandmarkIndex.EXTENSION);
+        f.deleteOnExit();
+        Files.write(f.toPath(), bytes);
+        try {
+            LandmarkIndex.open(f, g);
+            check(what + " was opened", false);
+        } catch (IOException e) {
+            check(what + ": " + e.getMessage(), e.getMessage().contains(reason));
+        }
+    }
+
+    /**
+     * Returns a copy of {@code bytes} with the little-endian int at {@code at} replaced by {@code value}.
+     */
+    private static byte[] putInt(byte[] bytes, int at, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(at, value);
+
+        return copy;
+    }
+
+    /**
+     * Returns a copy of {@code bytes} with every bit of the byte at {@code at} flipped.
+     */
+    private static byte[] flip(byte[] bytes, int at) {
+        byte[] copy = bytes.clone();
+        copy[at] = (byte) ~copy[at];
+
+        return copy;
+    }
+
+    /**
+     * Counts a check, printing {@code what} and counting a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        checks++;
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * MovieFileParserTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import wpialgs.hw04.separation.ActorToMovieDegreesOfSeparation;
+import wpialgs.sixdegrees.utils.Actor;
+import wpialgs.sixdegrees.utils.Movie;
+import wpialgs.sixdegrees.utils.MovieFileParser;
+
+/**
+ * Checks that {@link MovieFileParser} reads generated data files exactly like reading them line by line with
+ * {@link Scanner#nextLine()} and {@link String#split(String)} does: the same lines and fields, and the same actors,
+ * movies and credits once read into a graph with a single character delimiter or with an equivalent regular
+ * expression. The files mix every line terminator, trailing and repeated delimiters, empty lines and non-ASCII names,
+ * and the large one has long stretches without {@code '\n'} so that lines straddle the chunk boundaries. Exits with
+ * status 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class MovieFileParserTest {
+
+    private static final String[] TERMINATORS = { "\n", "\r\n", "\r", "\u0085", "\u2028", "\u2029" };
+    private static final String[] NAMES = { "Bacon, Kevin", "Zo\u00EB", "Price \u00A2", "Euro \u20AC", "Dash \u2010",
+            "\u4E2D\u6587", "Space ", " Lead" };
+    private static final int LARGE_BYTES = 5 << 20;
+
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     *
+     * @throws IOException
+     *             if a data file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("USAGE: java MovieFileParserTest <random_number_seed>");
+            return;
+        }
+
+        Random rnd = new Random(Long.parseLong(args[0]));
+        int checks = 0;
+
+        // Small files that end in every possible way
+        String[] small = { "", "\n", "\t", "\t\t\n\t", "A\tB", "A\tB\t\t", "A\tB\r", "A\tB\r\n\r\n", "\n\n\r\r\n",
+                "\tOnly cast\n", "T\t\tX\t\n", "T\u2028U\u2029V\u0085W\rX\r\nY\nZ", "T\u00A2\tA\u20AC\u2010\r",
+                "T\t\u2028\t\u2029\t" };
+        for (int i = 0; i < small.length; i++) {
+            checks += compare("small " + i, write(small[i]), false);
+        }
+
+        // Random files of a few kilobytes, and one large enough to be cut into several chunks
+        for (int i = 0; i < 20; i++) {
+            checks += compare("random " + i, write(generate(rnd, 4096, false)), false);
+        }
+        checks += compare("large", write(generate(rnd, LARGE_BYTES, true)), true);
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Returns at least {@code bytes} of random movie lines. With {@code stretches}, lines in runs of a few thousand
+     * end without {@code '\n'}, so that no chunk can be cut in them.
+     */
+    private static String generate(Random rnd, int bytes, boolean stretches) {
+        StringBuilder text = new StringBuilder();
+        int line = 0;
+        while (text.length() < bytes) {
+            boolean noNewline = stretches && (line / 3000) % 2 == 1;
+            switch (rnd.nextInt(12)) {
+            case 0: // empty line
+                break;
+            case 1: // only delimiters
+                text.append("\t".repeat(1 + rnd.nextInt(3)));
+                break;
+            case 2: // no title
+                text.append('\t').append(NAMES[rnd.nextInt(NAMES.length)]);
+                break;
+            default:
+                text.append("Movie ").append(rnd.nextInt(bytes / 40)).append(rnd.nextBoolean() ? "" : " \u00E9t\u00E9");
+                for (int k = rnd.nextInt(6); k > 0; k--) {
+                    text.append('\t');
+                    if (rnd.nextInt(10) > 0) // and sometimes an empty field
+                        text.append(NAMES[rnd.nextInt(NAMES.length)]).append(' ').append(rnd.nextInt(bytes / 20));
+                }
+                if (rnd.nextInt(5) == 0)
+                    text.append("\t".repeat(1 + rnd.nextInt(3)));
+            }
+            String terminator = TERMINATORS[rnd.nextInt(TERMINATORS.length)];
+            while (noNewline && terminator.indexOf('\n') >= 0) {
+                terminator = TERMINATORS[rnd.nextInt(TERMINATORS.length)];
+            }
+            text.append(terminator);
+            line++;
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * Writes {@code text} in UTF-8 to a temporary file.
+     */
+    private static File write(String text) throws IOException {
+        File f = File.createTempFile("movies", ".txt");
+        f.deleteOnExit();
+        Files.write(f.toPath(), text.getBytes(StandardCharsets.UTF_8));
+
+        return f;
+    }
+
+    /**
+     * Compares the lines parsed from {@code f} and the maps read from it both ways, and returns the number of checks.
+     */
+    private static int compare(String name, File f, boolean chunked) throws IOException {
+        MovieFileParser.Chunk[] chunks = MovieFileParser.parse(f, '\t');
+        List<List<String>> parsed = new ArrayList<>();
+        for (MovieFileParser.Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.numLines(); i++) {
+                List<String> fields = new ArrayList<>();
+                fields.add(chunk.title(i));
+                for (int j = chunk.castBegin(i); j < chunk.castEnd(i); j++) {
+                    fields.add(chunk.actorName(chunk.castMember(j)));
+                }
+                parsed.add(fields);
+            }
+        }
+
+        // The old way: Scanner lines, split on the delimiter, lines with nothing left ignored
+        List<List<String>> split = new ArrayList<>();
+        try (Scanner in = new Scanner(f, "UTF-8")) {
+            while (in.hasNextLine()) {
+                String[] elems = in.nextLine().split("\t");
+                if (elems.length != 0)
+                    split.add(Arrays.asList(elems));
+            }
+        }
+        check(name + " lines", parsed.equals(split));
+
+        Credits fast = new Credits();
+        fast.readFile(f, "\t");
+        Credits slow = new Credits();
+        slow.readFile(f, "[\t]");
+        check(name + " actors", fast.actors().equals(slow.actors()));
+        check(name + " movies", fast.movies().equals(slow.movies()));
+        if (!chunked)
+            return 3;
+
+        check(name + " chunks", chunks.length > 1);
+        return 4;
+    }
+
+    /**
+     * Prints {@code what} and counts a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+
+    /**
+     * Gives the test access to the actors and movies read from a file.
+     */
+    private static class Credits extends ActorToMovieDegreesOfSeparation {
+
+        /**
+         * Returns every actor followed by the titles of his or her movies, in sorted order.
+         */
+        List<String> actors() {
+            List<String> actors = new ArrayList<>();
+            for (String name : myActors.keys()) {
+                List<String> movies = new ArrayList<>();
+                for (Movie movie : myActors.get(name).getMovies()) {
+                    movies.add(movie.name);
+                }
+                Collections.sort(movies);
+                actors.add(name + " " + movies);
+            }
+            Collections.sort(actors);
+
+            return actors;
+        }
+
+        /**
+         * Returns every movie followed by the names of its cast, in sorted order.
+         */
+        List<String> movies() {
+            List<String> movies = new ArrayList<>();
+            for (String title : myMovies.keys()) {
+                List<String> cast = new ArrayList<>();
+                for (Actor actor : myMovies.get(title).getActors()) {
+                    cast.add(actor.name);
+                }
+                Collections.sort(cast);
+                movies.add(title + " " + cast);
+            }
+            Collections.sort(movies);
+
+            return movies;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * MultiSourceSearchTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+import wpialgs.sixdegrees.traversal.DistanceProfile;
+import wpialgs.sixdegrees.traversal.MultiSourceSearch;
+
+/**
+ * Checks the profiles of {@link MultiSourceSearch} on a small random Actor-Movie graph against a plain breadth-first
+ * search from each source: with every vertex as a source, counting actors only, and with a random list of sources
+ * that repeats some and ends in a partial batch, counting every vertex. Exits with status 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class MultiSourceSearchTest {
+
+    private static int checks = 0;
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("USAGE: java MultiSourceSearchTest <random_number_seed>");
+            return;
+        }
+
+        Random rnd = new Random(Long.parseLong(args[0]));
+        UndirectedGraph graph = TestGraphs.actorMovie(rnd);
+        CompactGraph g = graph.compact();
+        IntPredicate actor = TestGraphs.actors(graph);
+        int[][] expected = TestGraphs.distances(g);
+
+        int[] every = new int[g.numVertices()];
+        Arrays.setAll(every, v -> v);
+        checkProfiles("every vertex", g, every, actor, expected);
+
+        int[] some = new int[3 * MultiSourceSearch.LANES + 5];
+        for (int i = 0; i < some.length; i++) {
+            some[i] = i % 10 == 9 ? some[i - 1] : rnd.nextInt(g.numVertices());
+        }
+        checkProfiles("random sources", g, some, v -> true, expected);
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Checks the profile of each of {@code sources}.
+     */
+    private static void checkProfiles(String name, CompactGraph g, int[] sources, IntPredicate counted,
+            int[][] expected) {
+        DistanceProfile[] profiles = MultiSourceSearch.profiles(g, sources, counted);
+        check(name + " profiles", profiles.length == sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            int[] distances = expected[sources[i]];
+            long reachable = 0;
+            for (int v = 0; v < distances.length; v++) {
+                if (counted.test(v) && distances[v] != Vertex.INFINITY)
+                    reachable++;
+            }
+            check(name + " profile of " + sources[i], TestGraphs.sameProfile(profiles[i], distances, counted)
+                    && profiles[i].reachable() == reachable && profiles[i].getSource() == sources[i]);
+        }
+    }
+
+    /**
+     * Counts a check, printing {@code what} and counting a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        checks++;
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
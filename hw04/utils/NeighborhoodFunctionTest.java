@@ -0,0 +1,111 @@
+/*
+ * NeighborhoodFunctionTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.util.Random;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+import wpialgs.sixdegrees.traversal.NeighborhoodFunction;
+
+/**
+ * Checks the {@link NeighborhoodFunction} of the actors of a small random Actor-Movie graph against the exact figures
+ * from a plain breadth-first search from every vertex: the number of actors, the connected pairs and their average
+ * degrees of separation within 5%, the pairs one degree apart within 10%, the same estimate for the same seed, and
+ * the rejected arguments. Exits with status 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class NeighborhoodFunctionTest {
+
+    private static int checks = 0;
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("USAGE: java NeighborhoodFunctionTest <random_number_seed>");
+            return;
+        }
+
+        UndirectedGraph graph = TestGraphs.actorMovie(new Random(Long.parseLong(args[0])));
+        CompactGraph g = graph.compact();
+        IntPredicate actor = TestGraphs.actors(graph);
+        int[][] expected = TestGraphs.distances(g);
+
+        long actors = 0;
+        double pairs = 0;
+        double oneApart = 0;
+        double degrees = 0;
+        for (int s = 0; s < g.numVertices(); s++) {
+            if (actor.test(s))
+                actors++;
+            for (int v = 0; v < g.numVertices(); v++) {
+                if (v != s && actor.test(s) && actor.test(v) && expected[s][v] != Vertex.INFINITY) {
+                    pairs++;
+                    degrees += expected[s][v] / 2;
+                    if (expected[s][v] == 2)
+                        oneApart++;
+                }
+            }
+        }
+
+        NeighborhoodFunction function = NeighborhoodFunction.estimate(g, actor, d -> d / 2, 16, 4, 2223);
+        check("actors", function.numCounted() == actors);
+        check("pairs", Math.abs(function.reachablePairs() - pairs) <= 0.05 * pairs);
+        check("degrees", Math.abs(function.averageDegrees() - degrees / pairs) <= 0.05 * degrees / pairs);
+        check("one degree apart", Math.abs(function.pairs(1) - oneApart) <= 0.1 * oneApart);
+        check("no pairs at zero degrees", function.pairs(0) == 0);
+        check("runs", function.runs() == 4 && function.registers() == 1 << 16);
+
+        NeighborhoodFunction again = NeighborhoodFunction.estimate(g, actor, d -> d / 2, 16, 4, 2223);
+        check("same seed", again.reachablePairs() == function.reachablePairs()
+                && again.averageDegrees() == function.averageDegrees() && again.maxDegrees() == function.maxDegrees());
+
+        int[][] rejected = { { 3, 1 }, { 17, 1 }, { 8, 0 } };
+        for (int[] arguments : rejected) {
+            try {
+                NeighborhoodFunction.estimate(g, actor, d -> d / 2, arguments[0], arguments[1], 1);
+                check("log2m " + arguments[0] + " with " + arguments[1] + " runs", false);
+            } catch (IllegalArgumentException e) {
+                check("log2m " + arguments[0] + " with " + arguments[1] + " runs", true);
+            }
+        }
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Counts a check, printing {@code what} and counting a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        checks++;
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * ParallelSearchTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.traversal.TraversalResult;
+import wpialgs.sixdegrees.traversal.TraversalStrategy;
+
+/**
+ * Checks the {@link TraversalStrategy#PARALLEL} traversal against a plain breadth-first search: from every vertex of
+ * a small random Actor-Movie graph into the same reused result, from a few vertices of a graph large enough for
+ * frontiers of many chunks, and from several threads at once, which each reuse their own buffers. Exits with status
+ * 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class ParallelSearchTest {
+
+    private static final int LARGE_ACTORS = 60000;
+    private static final int LARGE_MOVIES = 20000;
+    private static final int THREADS = 4;
+
+    private static int checks = 0;
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length != 1) {
+            System.err.println("USAGE: java ParallelSearchTest <random_number_seed>");
+            return;
+        }
+
+        Random rnd = new Random(Long.parseLong(args[0]));
+        UndirectedGraph graph = TestGraphs.actorMovie(rnd);
+        CompactGraph g = graph.compact();
+        IntPredicate actor = TestGraphs.actors(graph);
+        int[][] expected = TestGraphs.distances(g);
+        TraversalResult result = new TraversalResult(g.numVertices());
+        for (int s = 0; s < g.numVertices(); s++) {
+            TraversalStrategy.PARALLEL.traverse(g, s, result, actor);
+            check("from " + s, result.getSource() == s && TestGraphs.sameTraversal(g, result, expected[s])
+                    && TestGraphs.sameProfile(result.profile(), expected[s], actor));
+        }
+
+        // Frontiers of thousands of vertices, after the buffers were sized for the small graph
+        UndirectedGraph large = new UndirectedGraph();
+        for (int m = 0; m < LARGE_MOVIES; m++) {
+            for (int k = 2 + rnd.nextInt(6); k > 0; k--) {
+                large.addEdge("M " + m, "A " + rnd.nextInt(LARGE_ACTORS));
+            }
+        }
+        CompactGraph h = large.compact();
+        IntPredicate largeActor = TestGraphs.actors(large);
+        int[] sources = new int[8];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = rnd.nextInt(h.numVertices());
+            int[] distances = TestGraphs.distances(h, sources[i]);
+            TraversalResult r = new TraversalResult(h.numVertices());
+            TraversalStrategy.PARALLEL.traverse(h, sources[i], r, largeActor);
+            check("large from " + sources[i], TestGraphs.sameTraversal(h, r, distances)
+                    && TestGraphs.sameProfile(r.profile(), distances, largeActor));
+        }
+
+        // Several traversals at once, alternating between both graphs
+        boolean[][] passed = new boolean[THREADS][sources.length];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < sources.length; i++) {
+                    int s = (id + i) % 2 == 0 ? sources[i] : i * 97 % g.numVertices();
+                    CompactGraph on = (id + i) % 2 == 0 ? h : g;
+                    TraversalResult r = TraversalStrategy.PARALLEL.traverse(on, s);
+                    passed[id][i] = TestGraphs.sameTraversal(on, r, TestGraphs.distances(on, s));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < sources.length; i++) {
+                check("thread " + t + " traversal " + i, passed[t][i]);
+            }
+        }
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Counts a check, printing {@code what} and counting a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        checks++;
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * ProjectedSearchTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.util.Random;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+import wpialgs.sixdegrees.traversal.ProjectedSearch;
+import wpialgs.sixdegrees.traversal.TraversalResult;
+
+/**
+ * Checks {@link ProjectedSearch} from every vertex of a small random Actor-Movie graph, projected onto the actors and
+ * onto the movies, against a plain breadth-first search of the whole graph: half the distance for the vertices of the
+ * projection, nothing for the others, the lowest id predecessor one step closer, the lowest id middle vertex joining
+ * them and the profile. The same result is reused for every source. Exits with status 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class ProjectedSearchTest {
+
+    private static int checks = 0;
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("USAGE: java ProjectedSearchTest <random_number_seed>");
+            return;
+        }
+
+        UndirectedGraph graph = TestGraphs.actorMovie(new Random(Long.parseLong(args[0])));
+        CompactGraph g = graph.compact();
+        IntPredicate actor = TestGraphs.actors(graph);
+        int[][] expected = TestGraphs.distances(g);
+        checkProjection("actors", g, actor, expected);
+        checkProjection("movies", g, actor.negate(), expected);
+
+        try {
+            ProjectedSearch.traverse(g, actor, graph.getVertex("M 0").id);
+            check("a movie as the source of the actors", false);
+        } catch (IllegalArgumentException e) {
+            check("a movie as the source of the actors", true);
+        }
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Checks the projection onto {@code side} from each of its vertices.
+     */
+    private static void checkProjection(String name, CompactGraph g, IntPredicate side, int[][] expected) {
+        TraversalResult result = new TraversalResult(g.numVertices());
+        for (int s = 0; s < g.numVertices(); s++) {
+            if (!side.test(s))
+                continue;
+            ProjectedSearch.traverse(g, side, s, result, side);
+            boolean ok = result.getSource() == s;
+            for (int v = 0; ok && v < g.numVertices(); v++) {
+                int d = expected[s][v];
+                if (!side.test(v) || d == Vertex.INFINITY) {
+                    ok = result.distance(v) == Vertex.INFINITY;
+                } else if (v == s) {
+                    ok = result.distance(v) == 0 && result.predecessor(v) == -1 && result.via(v) == -1;
+                } else {
+                    int[] step = lowestStep(g, side, expected[s], v);
+                    ok = result.distance(v) == d / 2 && result.predecessor(v) == step[0] && result.via(v) == step[1];
+                }
+            }
+            check(name + " from " + s, ok);
+            check(name + " profile from " + s, TestGraphs.sameProfile(result.profile(), expected[s], side));
+        }
+    }
+
+    /**
+     * Returns the lowest id vertex of the projection one step closer than {@code v} to the source, and the lowest id
+     * middle vertex joining them.
+     */
+    private static int[] lowestStep(CompactGraph g, IntPredicate side, int[] distance, int v) {
+        int predecessor = Integer.MAX_VALUE;
+        for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+            int m = g.target(e);
+            if (side.test(m) || distance[m] != distance[v] - 1)
+                continue;
+            for (int f = g.edgeBegin(m); f < g.edgeEnd(m); f++) {
+                int p = g.target(f);
+                if (side.test(p) && distance[p] == distance[v] - 2)
+                    predecessor = Math.min(predecessor, p);
+            }
+        }
+        int via = Integer.MAX_VALUE;
+        for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+            int m = g.target(e);
+            if (!side.test(m) && TestGraphs.adjacent(g, m, predecessor))
+                via = Math.min(via, m);
+        }
+
+        return new int[] { predecessor, via };
+    }
+
+    /**
+     * Counts a check, printing {@code what} and counting a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        checks++;
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * TestGraphs.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+import wpialgs.sixdegrees.traversal.DistanceProfile;
+import wpialgs.sixdegrees.traversal.TraversalResult;
+
+/**
+ * The random graph and the plain breadth-first search that the traversal and index tests check against.
+ *
+ * @version 2.0
+ */
+final class TestGraphs {
+
+    private static final int ACTORS = 800;
+    private static final int MOVIES = 400;
+
+    private TestGraphs() {
+    }
+
+    /**
+     * Returns a random Actor-Movie graph. Actors are named "A ..." and movies "M ..."; most casts are small and every
+     * 40th one is large. A chain of ten movies forms a separate component, and one actor is in no movie at all.
+     */
+    static UndirectedGraph actorMovie(Random rnd) {
+        UndirectedGraph graph = new UndirectedGraph();
+        for (int m = 0; m < MOVIES; m++) {
+            for (int k = m % 40 == 0 ? 60 : 1 + rnd.nextInt(5); k > 0; k--) {
+                graph.addEdge("M " + m, "A " + rnd.nextInt(ACTORS));
+            }
+        }
+        for (int i = 0; i < 10; i++) {
+            graph.addEdge("M apart " + i, "A apart " + i);
+            graph.addEdge("M apart " + i, "A apart " + (i + 1));
+        }
+        graph.addVertex("A alone");
+
+        return graph;
+    }
+
+    /**
+     * Returns whether a vertex of {@code graph} is an actor.
+     */
+    static IntPredicate actors(UndirectedGraph graph) {
+        return v -> graph.getVertex(v).name.startsWith("A");
+    }
+
+    /**
+     * Returns the distance of every vertex from every vertex.
+     */
+    static int[][] distances(CompactGraph g) {
+        int[][] distances = new int[g.numVertices()][];
+        for (int s = 0; s < g.numVertices(); s++) {
+            distances[s] = distances(g, s);
+        }
+
+        return distances;
+    }
+
+    /**
+     * Returns the distance of every vertex from {@code s}.
+     */
+    static int[] distances(CompactGraph g, int s) {
+        int[] distance = new int[g.numVertices()];
+        Arrays.fill(distance, Vertex.INFINITY);
+        int[] queue = new int[g.numVertices()];
+        int head = 0;
+        int tail = 0;
+        distance[s] = 0;
+        queue[tail++] = s;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+                if (distance[g.target(e)] == Vertex.INFINITY) {
+                    distance[g.target(e)] = distance[v] + 1;
+                    queue[tail++] = g.target(e);
+                }
+            }
+        }
+
+        return distance;
+    }
+
+    /**
+     * Returns whether {@code result} has the expected distances, and the lowest id neighbor one step closer as the
+     * predecessor of every reached vertex.
+     */
+    static boolean sameTraversal(CompactGraph g, TraversalResult result, int[] expected) {
+        for (int v = 0; v < g.numVertices(); v++) {
+            if (result.distance(v) != expected[v])
+                return false;
+            int lowest = -1;
+            for (int e = g.edgeBegin(v); e < g.edgeEnd(v) && lowest < 0 && expected[v] != Vertex.INFINITY; e++) {
+                if (expected[g.target(e)] == expected[v] - 1)
+                    lowest = g.target(e);
+            }
+            if (result.predecessor(v) != lowest)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns whether {@code profile} counts the accepted vertices at their expected distances.
+     */
+    static boolean sameProfile(DistanceProfile profile, int[] expected, IntPredicate counted) {
+        long[] counts = new long[expected.length + 1];
+        for (int v = 0; v < expected.length; v++) {
+            if (counted.test(v) && expected[v] != Vertex.INFINITY)
+                counts[expected[v]]++;
+        }
+        for (int d = 0; d < counts.length; d++) {
+            if (profile.count(d) != counts[d])
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the count of each distance of {@code profile}.
+     */
+    static long[] counts(DistanceProfile profile) {
+        long[] counts = new long[profile.eccentricity() + 1];
+        Arrays.setAll(counts, profile::count);
+
+        return counts;
+    }
+
+    /**
+     * Returns whether there is an edge between {@code v} and {@code w}.
+     */
+    static boolean adjacent(CompactGraph g, int v, int w) {
+        if (v < 0 || w < 0)
+            return false;
+        for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+            if (g.target(e) == w)
+                return true;
+        }
+
+        return false;
+    }
+}
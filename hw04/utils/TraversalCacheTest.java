@@ -0,0 +1,147 @@
+/*
+ * TraversalCacheTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.traversal.TraversalCache;
+import wpialgs.sixdegrees.traversal.TraversalResult;
+import wpialgs.sixdegrees.traversal.TraversalStrategy;
+
+/**
+ * Checks the hits, misses and least recently used evictions of a {@link TraversalCache} holding traversals of a
+ * small random Actor-Movie graph, results too large for the budget or replacing the one of the same source, results
+ * dropped for another graph or by {@link TraversalCache#clear()}, and the counts after several threads used the cache
+ * at once. Exits with status 1 if any check fails.
+ *
+ * @version 2.0
+ */
+public class TraversalCacheTest {
+
+    private static final int THREADS = 4;
+    private static final int LOOKUPS = 5000;
+
+    private static int checks = 0;
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length != 1) {
+            System.err.println("USAGE: java TraversalCacheTest <random_number_seed>");
+            return;
+        }
+
+        Random rnd = new Random(Long.parseLong(args[0]));
+        UndirectedGraph graph = TestGraphs.actorMovie(rnd);
+        CompactGraph g = graph.compact();
+        TraversalResult[] results = new TraversalResult[5];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = TraversalStrategy.TOP_DOWN.traverse(g, i);
+        }
+        long size = results[0].sizeInBytes();
+        TraversalCache cache = new TraversalCache(3 * size);
+        for (int i = 0; i < results.length; i++) {
+            cache.put(g, results[i]);
+        }
+        check("size", cache.size() == 3 && cache.evictions() == 2 && cache.bytes() == 3 * size);
+        check("hit", cache.get(g, 4) == results[4] && cache.find(g, 2) == results[2] && cache.hits() == 2);
+        check("miss", cache.get(g, 0) == null && cache.find(g, 1) == null && cache.misses() == 1);
+
+        // The least recently used one goes
+        cache.get(g, 3);
+        cache.put(g, results[0]);
+        check("eviction", cache.find(g, 4) == null && cache.find(g, 2) == results[2]
+                && cache.find(g, 3) == results[3] && cache.find(g, 0) == results[0] && cache.evictions() == 3);
+
+        // Another result from the same source takes the place of the first
+        TraversalResult again = TraversalStrategy.TOP_DOWN.traverse(g, 2);
+        cache.put(g, again);
+        check("replaced", cache.find(g, 2) == again && cache.size() == 3 && cache.bytes() == 3 * size
+                && cache.evictions() == 3);
+
+        TraversalCache small = new TraversalCache(size - 1);
+        small.put(g, results[0]);
+        check("too large", small.size() == 0 && small.bytes() == 0 && small.get(g, 0) == null);
+
+        UndirectedGraph other = new UndirectedGraph();
+        other.addEdge("A 0", "M 0");
+        check("per graph", cache.get(other.compact(), 3) == null && cache.get(g, 3) == null && cache.size() == 0
+                && cache.bytes() == 0);
+
+        cache.put(g, results[1]);
+        long hits = cache.hits();
+        cache.clear();
+        check("clear", cache.size() == 0 && cache.bytes() == 0 && cache.hits() == hits && cache.find(g, 1) == null);
+
+        try {
+            new TraversalCache(-1);
+            check("negative budget", false);
+        } catch (IllegalArgumentException e) {
+            check("negative budget", true);
+        }
+
+        // Every lookup is counted once, and the budget holds, whatever the threads interleave
+        TraversalCache shared = new TraversalCache(3 * size);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long seed = rnd.nextLong();
+            threads.add(new Thread(() -> {
+                Random mine = new Random(seed);
+                for (int i = 0; i < LOOKUPS; i++) {
+                    TraversalResult result = results[mine.nextInt(results.length)];
+                    if (shared.get(g, result.getSource()) == null)
+                        shared.put(g, result);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        check("threads", shared.hits() + shared.misses() == (long) THREADS * LOOKUPS
+                && shared.size() <= 3 && shared.bytes() == shared.size() * size);
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Counts a check, printing {@code what} and counting a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        checks++;
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * TraversalTest.java
+ *
+ * Author: John Baldor
+ * Submitted on: 10/10/24
+ *
+ * Academic Honesty Declaration:
+ *
+ * The following code represents my own work and I have neither received nor given assistance
+ * that violates the collaboration policy posted with this assignment. I have not copied or modified code
+ * from any other source other than the homework assignment, course textbook, or course lecture slides.
+ * Any unauthorized collaboration or use of materials not permitted will be subjected to academic integrity policies of
+ * WPI and CS 2223.
+ *
+ * I acknowledge that this homework assignment is based upon an assignment created by WPI and that any publishing or
+ * posting of this code is prohibited unless I receive written permission from WPI.
+ */
+package wpialgs.hw04.utils;
+
+import java.util.Random;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.UndirectedGraph;
+import wpialgs.sixdegrees.traversal.TraversalResult;
+import wpialgs.sixdegrees.traversal.TraversalStrategy;
+
+/**
+ * Checks the {@link TraversalStrategy#TOP_DOWN} and {@link TraversalStrategy#DIRECTION_OPTIMIZING} traversals of a
+ * small random Actor-Movie graph from every vertex against a plain breadth-first search: distances, lowest id
+ * predecessors and profiles, into the same reused result. The graph has a few large casts, where the direction
+ * optimizing search goes bottom-up, a separate component and an isolated vertex. Exits with status 1 if any check
+ * fails.
+ *
+ * @version 2.0
+ */
+public class TraversalTest {
+
+    private static int checks = 0;
+    private static int failures = 0;
+
+    /**
+     * The main entry point to the program.
+     *
+     * @param args
+     *            Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("USAGE: java TraversalTest <random_number_seed>");
+            return;
+        }
+
+        UndirectedGraph graph = TestGraphs.actorMovie(new Random(Long.parseLong(args[0])));
+        CompactGraph g = graph.compact();
+        IntPredicate actor = TestGraphs.actors(graph);
+        int[][] expected = TestGraphs.distances(g);
+        for (TraversalStrategy strategy : new TraversalStrategy[] { TraversalStrategy.TOP_DOWN,
+                TraversalStrategy.DIRECTION_OPTIMIZING }) {
+            TraversalResult result = new TraversalResult(g.numVertices());
+            for (int s = 0; s < g.numVertices(); s++) {
+                strategy.traverse(g, s, result, actor);
+                check(strategy + " from " + s, result.getSource() == s
+                        && TestGraphs.sameTraversal(g, result, expected[s])
+                        && TestGraphs.sameProfile(result.profile(), expected[s], actor));
+            }
+        }
+
+        System.out.printf("%d checks, %d failed\n", checks, failures);
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Counts a check, printing {@code what} and counting a failure unless {@code passed}.
+     */
+    private static void check(String what, boolean passed) {
+        checks++;
+        if (!passed) {
+            System.out.println("FAILED: " + what);
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package wpialgs.sixdegrees.graphs;
+
+import java.util.Arrays;
+
+/**
+ * Frozen, int-indexed form of an {@link UndirectedGraph} stored in compressed sparse row (CSR) layout.
+ * <p>
+ * Vertices are identified by their {@link Vertex#id}. The neighbors of vertex {@code v} are the entries
+ * {@code target(e)} for {@code e} in {@code [edgeBegin(v), edgeEnd(v))}, sorted by ascending id. Traversals over
+ * this form only touch two flat {@code int} arrays, so their speed is bound by memory bandwidth rather than by
+ * following object references through hash tables and trees.
+ * <p>
+ * Notes:
+ * <ul>
+ * <li>Each undirected edge appears twice, once in each endpoint's row; a self loop appears once.
+ * <li>A {@link CompactGraph} never changes. Use {@link UndirectedGraph#compact()} to obtain an up to date copy.
+ * </ul>
+ */
+public final class CompactGraph {
+
+    // Class attributes
+    private final int[] myOffsets; // row v spans myTargets[myOffsets[v]] .. myTargets[myOffsets[v + 1] - 1]
+    private final int[] myTargets;
+    private final int myNumEdges;
+
+    /**
+     * Construct a graph from already laid out CSR arrays.
+     *
+     * @param offsets
+     *            row offsets, of length {@code numVertices + 1}
+     * @param targets
+     *            concatenated neighbor ids of every row
+     * @param numEdges
+     *            number of undirected edges
+     */
+    CompactGraph(int[] offsets, int[] targets, int numEdges) {
+        myOffsets = offsets;
+        myTargets = targets;
+        myNumEdges = numEdges;
+    }
+
+    /**
+     * Returns the number of vertices in this {@link CompactGraph}.
+     *
+     * @return number of vertices
+     */
+    public int numVertices() {
+        return myOffsets.length - 1;
+    }
+
+    /**
+     * Returns the number of undirected edges in this {@link CompactGraph}.
+     *
+     * @return number of edges
+     */
+    public int numEdges() {
+        return myNumEdges;
+    }
+
+    /**
+     * Returns the total length of all neighbor rows: twice the number of edges, minus one per self loop.
+     *
+     * @return number of adjacency entries
+     */
+    public int adjacencySize() {
+        return myTargets.length;
+    }
+
+    /**
+     * Returns the number of neighbors of vertex {@code v}.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return the degree of {@code v}
+     */
+    public int degree(int v) {
+        return myOffsets[v + 1] - myOffsets[v];
+    }
+
+    /**
+     * Returns the position of the first neighbor of vertex {@code v}.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return index of the first entry of {@code v}'s row
+     */
+    public int edgeBegin(int v) {
+        return myOffsets[v];
+    }
+
+    /**
+     * Returns the position one past the last neighbor of vertex {@code v}.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return index one past the last entry of {@code v}'s row
+     */
+    public int edgeEnd(int v) {
+        return myOffsets[v + 1];
+    }
+
+    /**
+     * Returns the neighbor stored at position {@code e}.
+     *
+     * @param e
+     *            an index between {@link #edgeBegin(int)} and {@link #edgeEnd(int)} of some vertex
+     *
+     * @return the id of the neighbor
+     */
+    public int target(int e) {
+        return myTargets[e];
+    }
+
+    /**
+     * Returns a copy of this graph with vertices without neighbors added up to {@code numVertices}. The rows are
+     * shared with this graph.
+     *
+     * @param numVertices
+     *            number of vertices of the copy, at least {@link #numVertices()}
+     *
+     * @return the larger graph
+     */
+    CompactGraph withVertices(int numVertices) {
+        int[] offsets = Arrays.copyOf(myOffsets, numVertices + 1);
+        Arrays.fill(offsets, myOffsets.length, offsets.length, myTargets.length);
+        return new CompactGraph(offsets, myTargets, myNumEdges);
+    }
+
+    /**
+     * Returns a copy of this graph with more neighbors in some rows. Rows without new neighbors are copied in blocks,
+     * so this takes time proportional to the size of the graph but does no sorting beyond the new entries.
+     *
+     * @param entries
+     *            the new entries, packed by {@link EdgeList#pack(int, int)} as (row, neighbor), sorted and not already
+     *            in this graph; both directions of an edge must be there
+     * @param count
+     *            number of entries used
+     * @param numEdges
+     *            number of undirected edges they make up
+     *
+     * @return the larger graph
+     */
+    CompactGraph withEdges(long[] entries, int count, int numEdges) {
+        int n = numVertices();
+        int[] offsets = new int[n + 1];
+        for (int v = 0, k = 0; v <= n; v++) {
+            while (k < count && EdgeList.first(entries[k]) < v)
+                k++;
+            offsets[v] = myOffsets[v] + k;
+        }
+
+        // Copy the old rows up to each changed one, then merge the changed row
+        int[] targets = new int[myTargets.length + count];
+        int copied = 0;
+        for (int k = 0; k < count;) {
+            int v = EdgeList.first(entries[k]);
+            int begin = myOffsets[v];
+            System.arraycopy(myTargets, copied, targets, copied + k, begin - copied);
+
+            int out = begin + k;
+            int e = begin;
+            int end = myOffsets[v + 1];
+            for (; k < count && EdgeList.first(entries[k]) == v; k++) {
+                int w = EdgeList.second(entries[k]);
+                while (e < end && myTargets[e] < w)
+                    targets[out++] = myTargets[e++];
+                targets[out++] = w;
+            }
+            System.arraycopy(myTargets, e, targets, out, end - e);
+            copied = end;
+        }
+        System.arraycopy(myTargets, copied, targets, copied + count, myTargets.length - copied);
+
+        return new CompactGraph(offsets, targets, myNumEdges + numEdges);
+    }
+
+    /**
+     * Returns whether {@code w} is a neighbor of {@code v}.
+     *
+     * @param v
+     *            a vertex id
+     * @param w
+     *            a vertex id
+     *
+     * @return {@code true} if the edge {@code v}-{@code w} is in this graph
+     */
+    boolean hasEdge(int v, int w) {
+        return Arrays.binarySearch(myTargets, myOffsets[v], myOffsets[v + 1], w) >= 0;
+    }
+}
@@ -0,0 +1,75 @@
+package wpialgs.sixdegrees.graphs;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of undirected edges between {@link Vertex#id ids}, to be added to an {@link UndirectedGraph} in one
+ * go with {@link UndirectedGraph#addEdges(EdgeList)}.
+ * <p>
+ * Each edge is packed into a single {@code long}, smaller id in the high half, so that sorting the list puts equal
+ * edges next to each other and orders them by their first endpoint. Duplicates are allowed here; they are removed
+ * when the edges are added.
+ */
+public final class EdgeList {
+
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    // Class attributes
+    private long[] myEdges;
+    private int mySize;
+
+    /**
+     * Construct an empty list.
+     */
+    public EdgeList() {
+        myEdges = new long[16];
+        mySize = 0;
+    }
+
+    /**
+     * Adds the edge {@code v}-{@code w}. The order of the two ids does not matter.
+     *
+     * @param v
+     *            the id of the first {@link Vertex}
+     * @param w
+     *            the id of the second {@link Vertex}
+     */
+    public void add(int v, int w) {
+        if (v < 0 || w < 0)
+            throw new IllegalArgumentException("negative vertex id: " + Math.min(v, w));
+        if (mySize == myEdges.length) {
+            if (mySize == MAX_SIZE)
+                throw new IllegalStateException("too many edges");
+            myEdges = Arrays.copyOf(myEdges, (int) Math.min(2L * mySize, MAX_SIZE));
+        }
+        myEdges[mySize++] = pack(Math.min(v, w), Math.max(v, w));
+    }
+
+    /**
+     * Returns the number of edges added so far, counting duplicates.
+     *
+     * @return number of edges in this list
+     */
+    public int size() {
+        return mySize;
+    }
+
+    /**
+     * Returns the packed edges; only the first {@link #size()} entries are used.
+     */
+    long[] edges() {
+        return myEdges;
+    }
+
+    static long pack(int v, int w) {
+        return (long) v << 32 | w;
+    }
+
+    static int first(long edge) {
+        return (int) (edge >>> 32);
+    }
+
+    static int second(long edge) {
+        return (int) edge;
+    }
+}
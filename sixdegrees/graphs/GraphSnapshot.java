@@ -0,0 +1,327 @@
+package wpialgs.sixdegrees.graphs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.zip.CRC32C;
+
+/**
+ * A built graph saved in a versioned binary file that can be opened again without parsing the data file or creating
+ * any per-vertex objects.
+ * <p>
+ * A snapshot holds the {@link CompactGraph} adjacency, the name of every vertex, its kind (actor and/or movie), an
+ * open addressing name index and the type of graph it was built as. All numbers are little-endian. The file is laid
+ * out as follows, each section starting where the previous one ends:
+ * <ul>
+ * <li>header: magic {@code "OBGS"}, version, number of vertices, edges, adjacency entries, index slots, name bytes
+ * and type bytes, the CRC-32C of every section and finally the CRC-32C of the header itself ({@value #HEADER_SIZE}
+ * bytes)
+ * <li>offsets: {@code int[numVertices + 1]}, the CSR row offsets
+ * <li>targets: {@code int[numTargets]}, the CSR neighbor ids
+ * <li>name offsets: {@code int[numVertices + 1]}, where each name starts in the name bytes
+ * <li>index: {@code int[indexSlots]}, {@code id + 1} of the vertex whose name hashes to the slot, {@code 0} if empty
+ * <li>kinds: {@code byte[numVertices]}, a combination of {@link #ACTOR} and {@link #MOVIE}
+ * <li>names: the UTF-8 bytes of every name, back to back
+ * <li>type: the UTF-8 bytes of the graph type
+ * </ul>
+ * {@link #open(File)} memory maps the file through a {@link FileChannel}, checks every checksum and bulk-copies the
+ * two adjacency arrays. Names, kinds and the index are read straight from the mapping when asked for.
+ */
+public final class GraphSnapshot {
+
+    /**
+     * File name extension used for snapshots.
+     */
+    public static final String EXTENSION = ".obgs";
+
+    /**
+     * Kind bit of a vertex that is an actor or actress.
+     */
+    public static final int ACTOR = 1;
+
+    /**
+     * Kind bit of a vertex that is a movie.
+     */
+    public static final int MOVIE = 2;
+
+    private static final int MAGIC = 0x5347424F; // "OBGS" read as a little-endian int
+    private static final int VERSION = 1;
+    private static final int SECTIONS = 7;
+    private static final int HEADER_SIZE = 4 * (8 + SECTIONS + 1);
+
+    // Class attributes
+    private final String myType;
+    private final CompactGraph myGraph;
+    private final IntBuffer myNameOffsets;
+    private final IntBuffer myIndex;
+    private final ByteBuffer myKinds;
+    private final ByteBuffer myNames;
+
+    private GraphSnapshot(String type, CompactGraph graph, IntBuffer nameOffsets, IntBuffer index, ByteBuffer kinds,
+            ByteBuffer names) {
+        myType = type;
+        myGraph = graph;
+        myNameOffsets = nameOffsets;
+        myIndex = index;
+        myKinds = kinds;
+        myNames = names;
+    }
+
+    /**
+     * Writes a snapshot of {@code g} to {@code f}, replacing its contents.
+     *
+     * @param f
+     *            the {@link File} to write
+     * @param type
+     *            the type of graph, checked by whoever opens the snapshot
+     * @param g
+     *            the graph to save
+     * @param names
+     *            the name of each vertex id
+     * @param kinds
+     *            the kind bits of each vertex id
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void write(File f, String type, CompactGraph g, IntFunction<String> names, IntUnaryOperator kinds)
+            throws IOException {
+        int n = g.numVertices();
+        int numTargets = g.adjacencySize();
+        byte[][] encoded = new byte[n][];
+        int[] nameOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            encoded[v] = names.apply(v).getBytes(StandardCharsets.UTF_8);
+            nameOffsets[v + 1] = nameOffsets[v] + encoded[v].length;
+        }
+        byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+
+        // Name index with a load factor of at most one half
+        int slots = Integer.highestOneBit(Math.max(1, n)) << 2;
+        int[] index = new int[slots];
+        for (int v = 0; v < n; v++) {
+            int slot = slot(encoded[v], slots);
+            while (index[slot] != 0) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            index[slot] = v + 1;
+        }
+
+        long[] sizes = { 4L * (n + 1), 4L * numTargets, 4L * (n + 1), 4L * slots, n, nameOffsets[n], typeBytes.length };
+        long size = HEADER_SIZE;
+        for (long s : sizes) {
+            size += s;
+        }
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("graph is too large for a snapshot (" + size + " bytes)");
+
+        try (RandomAccessFile file = new RandomAccessFile(f, "rw"); FileChannel channel = file.getChannel()) {
+            file.setLength(size);
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            buf.position(HEADER_SIZE);
+            for (int v = 0; v < n; v++) {
+                buf.putInt(g.edgeBegin(v));
+            }
+            buf.putInt(numTargets);
+            for (int e = 0; e < numTargets; e++) {
+                buf.putInt(g.target(e));
+            }
+            for (int offset : nameOffsets) {
+                buf.putInt(offset);
+            }
+            for (int slot : index) {
+                buf.putInt(slot);
+            }
+            for (int v = 0; v < n; v++) {
+                buf.put((byte) kinds.applyAsInt(v));
+            }
+            for (byte[] name : encoded) {
+                buf.put(name);
+            }
+            buf.put(typeBytes);
+
+            buf.position(0);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(g.numEdges()).putInt(numTargets).putInt(slots)
+                    .putInt(nameOffsets[n]).putInt(typeBytes.length);
+            long at = HEADER_SIZE;
+            for (long s : sizes) {
+                buf.putInt(checksum(buf, at, s));
+                at += s;
+            }
+            buf.putInt(checksum(buf, 0, HEADER_SIZE - 4));
+            buf.force();
+        }
+    }
+
+    /**
+     * Opens a snapshot written by {@link #write(File, String, CompactGraph, IntFunction, IntUnaryOperator)}.
+     *
+     * @param f
+     *            the snapshot {@link File}
+     *
+     * @return the opened snapshot
+     *
+     * @throws IOException
+     *             if the file cannot be read, is not a snapshot, has another version or fails a checksum
+     */
+    public static GraphSnapshot open(File f) throws IOException {
+        MappedByteBuffer buf;
+        try (RandomAccessFile file = new RandomAccessFile(f, "r"); FileChannel channel = file.getChannel()) {
+            if (channel.size() < HEADER_SIZE)
+                throw new IOException(f + " is not a graph snapshot");
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buf.getInt(0) != MAGIC)
+            throw new IOException(f + " is not a graph snapshot");
+        if (buf.getInt(4) != VERSION)
+            throw new IOException(f + " has snapshot version " + buf.getInt(4) + ", expected " + VERSION);
+        if (checksum(buf, 0, HEADER_SIZE - 4) != buf.getInt(HEADER_SIZE - 4))
+            throw new IOException(f + " has a corrupt header");
+        int n = buf.getInt(8);
+        int numEdges = buf.getInt(12);
+        int numTargets = buf.getInt(16);
+        int slots = buf.getInt(20);
+        int nameBytes = buf.getInt(24);
+        int typeBytes = buf.getInt(28);
+
+        long[] sizes = { 4L * (n + 1), 4L * numTargets, 4L * (n + 1), 4L * slots, n, nameBytes, typeBytes };
+        long[] starts = new long[SECTIONS];
+        long at = HEADER_SIZE;
+        for (int s = 0; s < SECTIONS; s++) {
+            starts[s] = at;
+            at += sizes[s];
+        }
+        if (at != buf.capacity())
+            throw new IOException(f + " is truncated");
+        for (int s = 0; s < SECTIONS; s++) {
+            if (checksum(buf, starts[s], sizes[s]) != buf.getInt(32 + 4 * s))
+                throw new IOException(f + " has a corrupt section " + s);
+        }
+
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[numTargets];
+        ints(buf, starts[0], sizes[0]).get(offsets);
+        ints(buf, starts[1], sizes[1]).get(targets);
+        ByteBuffer type = bytes(buf, starts[6], sizes[6]);
+        byte[] typeName = new byte[typeBytes];
+        type.get(typeName);
+
+        return new GraphSnapshot(new String(typeName, StandardCharsets.UTF_8),
+                new CompactGraph(offsets, targets, numEdges), ints(buf, starts[2], sizes[2]),
+                ints(buf, starts[3], sizes[3]), bytes(buf, starts[4], sizes[4]), bytes(buf, starts[5], sizes[5]));
+    }
+
+    /**
+     * Returns the type of graph this snapshot was saved as.
+     *
+     * @return the type given to {@link #write(File, String, CompactGraph, IntFunction, IntUnaryOperator)}
+     */
+    public String getType() {
+        return myType;
+    }
+
+    /**
+     * Returns the adjacency of the saved graph.
+     *
+     * @return the {@link CompactGraph}, indexed by the same ids as when it was saved
+     */
+    public CompactGraph getGraph() {
+        return myGraph;
+    }
+
+    /**
+     * Returns the id of the vertex named {@code name}.
+     *
+     * @param name
+     *            a vertex name
+     *
+     * @return the id of that vertex, {@code -1} if there is none
+     */
+    public int indexOf(String name) {
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int slots = myIndex.limit();
+        for (int slot = slot(key, slots);; slot = (slot + 1) & (slots - 1)) {
+            int v = myIndex.get(slot) - 1;
+            if (v < 0)
+                return -1;
+            if (nameEquals(v, key))
+                return v;
+        }
+    }
+
+    /**
+     * Returns the name of vertex {@code v}.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return the name of {@code v}
+     */
+    public String nameOf(int v) {
+        int begin = myNameOffsets.get(v);
+        byte[] name = new byte[myNameOffsets.get(v + 1) - begin];
+        myNames.get(begin, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the kind of vertex {@code v}.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return a combination of {@link #ACTOR} and {@link #MOVIE}
+     */
+    public int kind(int v) {
+        return myKinds.get(v);
+    }
+
+    // -----------------------------------------------------------
+    // Helper methods
+    // -----------------------------------------------------------
+
+    private boolean nameEquals(int v, byte[] key) {
+        int begin = myNameOffsets.get(v);
+        if (myNameOffsets.get(v + 1) - begin != key.length)
+            return false;
+        for (int i = 0; i < key.length; i++) {
+            if (myNames.get(begin + i) != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static int slot(byte[] name, int slots) {
+        int h = 0;
+        for (int i = 0; i < name.length; i++) {
+            h = 31 * h + name[i];
+        }
+        h ^= h >>> 16;
+        return (h * 0x9E3779B9) & (slots - 1);
+    }
+
+    private static int checksum(ByteBuffer buf, long at, long size) {
+        CRC32C crc = new CRC32C();
+        crc.update(buf.slice((int) at, (int) size));
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer bytes(ByteBuffer buf, long at, long size) {
+        return buf.slice((int) at, (int) size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static IntBuffer ints(ByteBuffer buf, long at, long size) {
+        return bytes(buf, at, size).asIntBuffer();
+    }
+}
@@ -1,8 +1,11 @@
 package wpialgs.sixdegrees.graphs;
 
 import edu.princeton.cs.algs4.LinearProbingHashST;
-import edu.princeton.cs.algs4.Queue;
 import edu.princeton.cs.algs4.SET;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Undirected, unweighted simple graph data type
@@ -22,6 +25,9 @@ public class UndirectedGraph {
     private final LinearProbingHashST<Vertex, SET<Vertex>> myAdjList;
     private final LinearProbingHashST<String, Vertex> myVertices;
     private static final SET<Vertex> EMPTY_SET = new SET<>();
+    private Vertex[] myVertexIds; // Vertex.id -> Vertex
+    private CompactGraph myCompact; // cached CSR form, dropped whenever the graph changes
+    private boolean myAdjListStale; // edges added in bulk are only in myCompact until the sets are needed
     private int myNumVertices;
     private int myNumEdges;
 
@@ -31,6 +37,9 @@ public class UndirectedGraph {
     public UndirectedGraph() {
         myAdjList = new LinearProbingHashST<>();
         myVertices = new LinearProbingHashST<>();
+        myVertexIds = new Vertex[16];
+        myCompact = null;
+        myAdjListStale = false;
         myNumVertices = myNumEdges = 0;
     }
 
@@ -39,7 +48,8 @@ public class UndirectedGraph {
     // -----------------------------------------------------------
 
     /**
-     * Add a new vertex name with no neighbors (if vertex does not yet exist)
+     * Add a new vertex name with no neighbors (if vertex does not yet exist). The {@link #compact()} form is kept and
+     * only gets an empty row for it.
      *
      * @param name
      *            vertex to be added
@@ -49,8 +59,13 @@ public class UndirectedGraph {
         v = myVertices.get(name);
         if (v == null) {
             v = new Vertex(name);
+            v.id = myNumVertices;
+            if (myNumVertices == myVertexIds.length)
+                myVertexIds = Arrays.copyOf(myVertexIds, 2 * myNumVertices);
+            myVertexIds[myNumVertices] = v;
             myVertices.put(name, v);
-            myAdjList.put(v, new SET<>());
+            if (!myAdjListStale)
+                myAdjList.put(v, new SET<>());
             myNumVertices += 1;
         }
 
@@ -86,17 +101,74 @@ public class UndirectedGraph {
     }
 
     /**
-     * Returns an {@link Vertex} over all vertices in this {@link UndirectedGraph}.
+     * Returns the vertex whose {@link Vertex#id} is {@code id}
+     *
+     * @param id
+     *            an id between {@code 0} (inclusive) and {@link #numVertices()} (exclusive)
+     *
+     * @return the {@link Vertex} with that id
+     */
+    public Vertex getVertex(int id) {
+        return myVertexIds[id];
+    }
+
+    /**
+     * Returns an {@link Iterable} over all vertices in this {@link UndirectedGraph}, in order of {@link Vertex#id}.
+     * Vertices added afterwards are not included.
      *
      * @return an {@link Iterable} over all vertices in this {@link UndirectedGraph}.
      */
     public Iterable<Vertex> getVertices() {
-        Queue<Vertex> vertices = new Queue<>();
-        for (String key : myVertices.keys()) {
-            vertices.enqueue(myVertices.get(key));
+        return Collections.unmodifiableList(Arrays.asList(myVertexIds).subList(0, myNumVertices));
+    }
+
+    /**
+     * Performs {@code action} on every vertex in this {@link UndirectedGraph}, in order of {@link Vertex#id}, without
+     * allocating anything.
+     *
+     * @param action
+     *            what to do with each {@link Vertex}
+     */
+    public void forEachVertex(Consumer<Vertex> action) {
+        for (int v = 0; v < myNumVertices; v++) {
+            action.accept(myVertexIds[v]);
+        }
+    }
+
+    /**
+     * Performs {@code action} on every neighbor of the {@link Vertex} named {@code name}, in order of
+     * {@link Vertex#id}. The neighbors are read from the {@link #compact()} form, which is built first if the graph
+     * changed since it was last built.
+     *
+     * @param name
+     *            the String name of a {@link Vertex}
+     * @param action
+     *            what to do with each neighbor; nothing is done if {@code name} is not in this {@link UndirectedGraph}
+     */
+    public void forEachNeighbor(String name, Consumer<Vertex> action) {
+        Vertex v = getVertex(name);
+        if (v != null) {
+            CompactGraph g = compact();
+            for (int e = g.edgeBegin(v.id), end = g.edgeEnd(v.id); e < end; e++) {
+                action.accept(myVertexIds[g.target(e)]);
+            }
         }
+    }
 
-        return vertices;
+    /**
+     * Performs {@code action} on the id of every neighbor of the {@link Vertex} whose {@link Vertex#id} is {@code id},
+     * in increasing order, from the {@link #compact()} form.
+     *
+     * @param id
+     *            an id between {@code 0} (inclusive) and {@link #numVertices()} (exclusive)
+     * @param action
+     *            what to do with the id of each neighbor
+     */
+    public void forEachNeighbor(int id, IntConsumer action) {
+        CompactGraph g = compact();
+        for (int e = g.edgeBegin(id), end = g.edgeEnd(id); e < end; e++) {
+            action.accept(g.target(e));
+        }
     }
 
     /**
@@ -142,8 +214,133 @@ public class UndirectedGraph {
             v = addVertex(from);
         if ((w = getVertex(to)) == null)
             w = addVertex(to);
-        myAdjList.get(v).add(w);
-        myAdjList.get(w).add(v);
+        adjacency().get(v).add(w);
+        adjacency().get(w).add(v);
+        myCompact = null;
+    }
+
+    /**
+     * Adds every edge in {@code edges}, skipping the ones that are already in this {@link UndirectedGraph}. Both
+     * endpoints of each edge must already be vertices of this graph.
+     * <p>
+     * The edges are sorted and deduplicated in one pass and the {@link #compact()} form is laid out from them
+     * directly, which is much faster than calling {@link #addEdge(String, String)} for each of them. The neighbor sets
+     * behind {@link #adjacentTo(String)} and {@link #hasEdge(String, String)} are only filled in when one of those is
+     * first needed, so vertices should be added before edges are added in bulk.
+     *
+     * @param edges
+     *            the edges to add, by {@link Vertex#id}
+     */
+    public void addEdges(EdgeList edges) {
+        // Gather the new edges and the ones already in the graph, smaller id first
+        CompactGraph current = compact();
+        long[] all = Arrays.copyOf(edges.edges(), edges.size() + current.numEdges());
+        int size = edges.size();
+        for (int k = 0; k < size; k++) {
+            if (EdgeList.second(all[k]) >= myNumVertices)
+                throw new IllegalArgumentException("no vertex with id " + EdgeList.second(all[k]));
+        }
+        for (int v = 0; v < myNumVertices; v++) {
+            for (int e = current.edgeBegin(v); e < current.edgeEnd(v); e++) {
+                if (v <= current.target(e))
+                    all[size++] = EdgeList.pack(v, current.target(e));
+            }
+        }
+
+        // Sort, drop duplicates and count the degrees
+        Arrays.parallelSort(all, 0, size);
+        int[] offsets = new int[myNumVertices + 1];
+        int numEdges = 0;
+        for (int k = 0; k < size; k++) {
+            if (numEdges == 0 || all[k] != all[numEdges - 1]) {
+                long edge = all[numEdges++] = all[k];
+                offsets[EdgeList.first(edge) + 1]++;
+                if (EdgeList.first(edge) != EdgeList.second(edge))
+                    offsets[EdgeList.second(edge) + 1]++;
+            }
+        }
+        for (int v = 0; v < myNumVertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        // Edges are sorted by their first endpoint, so every row is filled in ascending order
+        int[] targets = new int[offsets[myNumVertices]];
+        int[] next = Arrays.copyOf(offsets, myNumVertices);
+        for (int k = 0; k < numEdges; k++) {
+            int v = EdgeList.first(all[k]);
+            int w = EdgeList.second(all[k]);
+            targets[next[v]++] = w;
+            if (v != w)
+                targets[next[w]++] = v;
+        }
+
+        myCompact = new CompactGraph(offsets, targets, numEdges);
+        myNumEdges = numEdges;
+        myAdjListStale = true;
+    }
+
+    /**
+     * Adds every edge in {@code edges} to a graph that is already created, skipping the ones that are already in this
+     * {@link UndirectedGraph}. Both endpoints of each edge must already be vertices of this graph.
+     * <p>
+     * Only the new edges are sorted; the {@link #compact()} form is copied with them merged into their rows, which
+     * takes time proportional to the size of the graph but far less than laying it out again with
+     * {@link #addEdges(EdgeList)}. The neighbor sets are only updated if they are in use.
+     *
+     * @param edges
+     *            the edges to add, by {@link Vertex#id}
+     *
+     * @return the ids of the vertices that got new neighbors, in ascending order
+     */
+    public int[] insertEdges(EdgeList edges) {
+        CompactGraph current = compact();
+        long[] all = edges.edges();
+        int size = edges.size();
+        long[] entries = new long[2 * size];
+        int count = 0;
+        for (int k = 0; k < size; k++) {
+            int v = EdgeList.first(all[k]);
+            int w = EdgeList.second(all[k]);
+            if (w >= myNumVertices)
+                throw new IllegalArgumentException("no vertex with id " + w);
+            if (!current.hasEdge(v, w)) {
+                entries[count++] = EdgeList.pack(v, w);
+                if (v != w)
+                    entries[count++] = EdgeList.pack(w, v);
+            }
+        }
+
+        // Sort, drop duplicates and count the edges: each one is stored with its smaller id first once
+        Arrays.sort(entries, 0, count);
+        int unique = 0;
+        int numEdges = 0;
+        for (int k = 0; k < count; k++) {
+            if (unique == 0 || entries[k] != entries[unique - 1]) {
+                long entry = entries[unique++] = entries[k];
+                if (EdgeList.first(entry) <= EdgeList.second(entry))
+                    numEdges++;
+            }
+        }
+        if (unique == 0)
+            return new int[0];
+
+        myCompact = current.withEdges(entries, unique, numEdges);
+        myNumEdges += numEdges;
+        if (!myAdjListStale) {
+            for (int k = 0; k < unique; k++) {
+                myAdjList.get(myVertexIds[EdgeList.first(entries[k])]).add(myVertexIds[EdgeList.second(entries[k])]);
+            }
+        }
+
+        int[] touched = new int[unique];
+        int numTouched = 0;
+        for (int k = 0; k < unique; k++) {
+            int v = EdgeList.first(entries[k]);
+            if (numTouched == 0 || touched[numTouched - 1] != v)
+                touched[numTouched++] = v;
+        }
+
+        return Arrays.copyOf(touched, numTouched);
     }
 
     /**
@@ -160,7 +357,7 @@ public class UndirectedGraph {
     public boolean hasEdge(String from, String to) {
         if (!hasVertex(from) || !hasVertex(to))
             return false;
-        return myAdjList.get(myVertices.get(from)).contains(myVertices.get(to));
+        return adjacency().get(myVertices.get(from)).contains(myVertices.get(to));
     }
 
     /**
@@ -172,6 +369,42 @@ public class UndirectedGraph {
         return myNumEdges;
     }
 
+    // -----------------------------------------------------------
+    // Compact form
+    // -----------------------------------------------------------
+
+    /**
+     * Returns the frozen {@link CompactGraph} form of this {@link UndirectedGraph}. The compact form is built on the
+     * first call after the graph was last changed by {@link #addEdge(String, String)} and reused until the next one,
+     * so it should be requested once the graph is fully created. {@link #addEdges(EdgeList)} and
+     * {@link #insertEdges(EdgeList)} lay out the compact form themselves, and vertices added since the last call get
+     * empty rows in a copy.
+     *
+     * @return the CSR form of this graph, indexed by {@link Vertex#id}
+     */
+    public CompactGraph compact() {
+        if (myCompact != null && myCompact.numVertices() < myNumVertices) {
+            myCompact = myCompact.withVertices(myNumVertices);
+        } else if (myCompact == null) {
+            int[] offsets = new int[myNumVertices + 1];
+            for (int v = 0; v < myNumVertices; v++) {
+                offsets[v + 1] = offsets[v] + myAdjList.get(myVertexIds[v]).size();
+            }
+
+            int[] targets = new int[offsets[myNumVertices]];
+            for (int v = 0; v < myNumVertices; v++) {
+                int e = offsets[v];
+                for (Vertex w : myAdjList.get(myVertexIds[v])) {
+                    targets[e++] = w.id;
+                }
+                Arrays.sort(targets, offsets[v], offsets[v + 1]);
+            }
+            myCompact = new CompactGraph(offsets, targets, myNumEdges);
+        }
+
+        return myCompact;
+    }
+
     // -----------------------------------------------------------
     // Override Methods
     // -----------------------------------------------------------
@@ -189,7 +422,7 @@ public class UndirectedGraph {
             return false;
 
         UndirectedGraph that = (UndirectedGraph) o;
-        return myNumVertices == that.myNumVertices && myNumEdges == that.myNumEdges && myAdjList.equals(that.myAdjList)
+        return myNumVertices == that.myNumVertices && myNumEdges == that.myNumEdges && adjacency().equals(that.adjacency())
                 && myVertices.equals(that.myVertices);
     }
 
@@ -200,7 +433,7 @@ public class UndirectedGraph {
      */
     @Override
     public int hashCode() {
-        int result = myAdjList.hashCode();
+        int result = adjacency().hashCode();
         result = 31 * result + myVertices.hashCode();
         result = 31 * result + myNumVertices;
         result = 31 * result + myNumEdges;
@@ -215,13 +448,14 @@ public class UndirectedGraph {
     @Override
     public String toString() {
         StringBuilder s = new StringBuilder();
-        for (Vertex v : getVertices()) {
+        CompactGraph g = compact();
+        forEachVertex(v -> {
             s.append(v).append(": ");
-            for (Vertex w : myAdjList.get(v)) {
-                s.append(w).append(" ");
+            for (int e = g.edgeBegin(v.id), end = g.edgeEnd(v.id); e < end; e++) {
+                s.append(myVertexIds[g.target(e)]).append(" ");
             }
             s.append("\n");
-        }
+        });
 
         return s.toString();
     }
@@ -240,8 +474,30 @@ public class UndirectedGraph {
      *         set if {@code v} is not in {@link UndirectedGraph}.
      */
     private Iterable<Vertex> adjacentTo(Vertex v) {
-        if (!myAdjList.contains(v))
+        if (!adjacency().contains(v))
             return EMPTY_SET;
-        return myAdjList.get(v);
+        return adjacency().get(v);
+    }
+
+    /**
+     * Returns the neighbor sets of every {@link Vertex}, first rebuilding them from the compact form if edges were
+     * added in bulk since they were last used.
+     *
+     * @return the adjacency list of this graph
+     */
+    private LinearProbingHashST<Vertex, SET<Vertex>> adjacency() {
+        if (myAdjListStale) {
+            CompactGraph g = compact();
+            for (int v = 0; v < myNumVertices; v++) {
+                SET<Vertex> neighbors = new SET<>();
+                for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+                    neighbors.add(myVertexIds[g.target(e)]);
+                }
+                myAdjList.put(myVertexIds[v], neighbors);
+            }
+            myAdjListStale = false;
+        }
+
+        return myAdjList;
     }
 }
\ No newline at end of file
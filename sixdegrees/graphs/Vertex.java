@@ -10,6 +10,13 @@ import java.util.Objects;
  * The predecessor field refers to the previous field on the shortest path from the source (i.e. the vertex one edge
  * closer to the source).
  * <p>
+ * The traversals in {@link wpialgs.sixdegrees.traversal} do not write the distance and predecessor fields; they
+ * return a {@link wpialgs.sixdegrees.traversal.TraversalResult} instead so one graph can be traversed by many
+ * threads at once.
+ * <p>
+ * The id field is assigned by {@link UndirectedGraph#addVertex(String)} and is the index of this vertex in the
+ * {@link CompactGraph} form of the graph.
+ * <p>
  * This {@link Vertex} class was adapted from
  * <a href="https://courses.cs.duke.edu/cps100e/spring09/class/12_Bacon/code/Vertex.html">Vertex</a>
  */
@@ -30,6 +37,11 @@ public class Vertex implements Comparable<Vertex> {
      */
     public Vertex predecessor; // previous vertex
 
+    /**
+     * index of this vertex in its {@link UndirectedGraph}, or {@code -1} if it has not been added to one
+     */
+    public int id;
+
     /**
      * Infinite distance indicates that there is no path from the source to this vertex
      */
@@ -45,6 +57,7 @@ public class Vertex implements Comparable<Vertex> {
         name = v;
         distance = INFINITY; // start as infinity away
         predecessor = null;
+        id = -1;
     }
 
     /**
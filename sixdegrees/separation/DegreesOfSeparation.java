@@ -2,12 +2,16 @@ package wpialgs.sixdegrees.separation;
 
 import edu.princeton.cs.algs4.*;
 import java.io.File;
+import java.io.IOException;
 import java.util.Objects;
 import wpialgs.hw04.utils.Histogram;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.GraphSnapshot;
 import wpialgs.sixdegrees.graphs.UndirectedGraph;
 import wpialgs.sixdegrees.graphs.Vertex;
 import wpialgs.sixdegrees.utils.Actor;
 import wpialgs.sixdegrees.utils.Movie;
+import wpialgs.sixdegrees.utils.MovieFileParser;
 
 /**
  * Traverses a graph from a single source using breadth-first search algorithm from source {@code s} on a graph
@@ -24,8 +28,10 @@ public abstract class DegreesOfSeparation {
     protected final LinearProbingHashST<String, Movie> myMovies;
     protected final UndirectedGraph myG;
     // source node to start our search
-    protected final String mySource;
-    protected final Histogram myHistogram;
+    protected String mySource;
+    protected Histogram myHistogram;
+    // graph opened with openSnapshot, null if the graph was created from a data file
+    protected GraphSnapshot mySnapshot;
 
     /**
      * This allows us to compute the degrees of separation for actors/movies in Hollywood using "Kevin Bacon" as the
@@ -67,6 +73,20 @@ public abstract class DegreesOfSeparation {
      */
     public abstract String chainAsString(String name);
 
+    /**
+     * Create a string with the chain between two actors or actresses / movies, in the same format as
+     * {@link #chainAsString(String)}. This does not need a prior traversal from the source: it only searches the part
+     * of the graph that lies between {@code from} and {@code to}.
+     *
+     * @param from
+     *            name of the actor or actress / movie the chain starts from.
+     * @param to
+     *            name of the actor or actress / movie the chain leads to.
+     *
+     * @return A string representation of the chain
+     */
+    public abstract String chainAsString(String from, String to);
+
     /**
      * Computes the Hollywood number for the source.
      *
@@ -125,6 +145,154 @@ public abstract class DegreesOfSeparation {
         return myHistogram;
     }
 
+    /**
+     * Returns the name of the source vertex.
+     *
+     * @return the Actor/Movie serving as the source of our search
+     */
+    public String getSource() {
+        return mySource;
+    }
+
+    /**
+     * Changes the source vertex. The actors, movies and graph are kept, so only {@link #traverseBFS(String)} has to
+     * run again before {@link #chainAsString(String)}, {@link #computeHollywoodNumber()} and
+     * {@link #createFrequencyChart()} answer for the new source. The histogram starts over empty.
+     *
+     * @param sourceVertex
+     *            Actor/Movie that will be serving as the source of our search.
+     */
+    public void setSource(String sourceVertex) {
+        mySource = sourceVertex;
+        myHistogram = new Histogram("Frequency Chart for: " + sourceVertex, "Degrees of Separation", "Frequency");
+    }
+
+    /**
+     * Returns whether {@code name} is an {@link Actor} read from the data file.
+     *
+     * @param name
+     *            name of an actor or actress
+     *
+     * @return {@code true} if an actor or actress with that name was read
+     */
+    public boolean isActor(String name) {
+        if (mySnapshot != null) {
+            int v = mySnapshot.indexOf(name);
+            return v >= 0 && isActor(v);
+        }
+        return myActors.contains(name);
+    }
+
+    /**
+     * Returns whether vertex {@code v} is an {@link Actor} read from the data file.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return {@code true} if {@code v} is an actor or actress
+     */
+    protected boolean isActor(int v) {
+        if (mySnapshot != null)
+            return (mySnapshot.kind(v) & GraphSnapshot.ACTOR) != 0;
+        return myActors.contains(myG.getVertex(v).name);
+    }
+
+    /**
+     * Returns what vertex {@code v} was read from the data file as.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return a combination of {@link GraphSnapshot#ACTOR} and {@link GraphSnapshot#MOVIE}
+     */
+    protected int kindOf(int v) {
+        if (mySnapshot != null)
+            return mySnapshot.kind(v);
+        String name = nameOf(v);
+        int kind = myActors.contains(name) ? GraphSnapshot.ACTOR : 0;
+        return myMovies.contains(name) ? kind | GraphSnapshot.MOVIE : kind;
+    }
+
+    /**
+     * Returns the compact form of the graph: the one opened with {@link #openSnapshot(File)} if any, otherwise the
+     * one created by {@link #createGraph()}.
+     *
+     * @return the {@link CompactGraph} traversals run on
+     */
+    public CompactGraph compactGraph() {
+        return mySnapshot != null ? mySnapshot.getGraph() : myG.compact();
+    }
+
+    /**
+     * Returns the id of the vertex named {@code name}.
+     *
+     * @param name
+     *            an actor or actress / movie name
+     *
+     * @return the vertex id in {@link #compactGraph()}, {@code -1} if there is no such vertex
+     */
+    public int indexOf(String name) {
+        if (mySnapshot != null)
+            return mySnapshot.indexOf(name);
+        Vertex v = myG.getVertex(name);
+        return v == null ? -1 : v.id;
+    }
+
+    /**
+     * Returns the name of vertex {@code v}.
+     *
+     * @param v
+     *            a vertex id in {@link #compactGraph()}
+     *
+     * @return the actor or actress / movie name
+     */
+    public String nameOf(int v) {
+        return mySnapshot != null ? mySnapshot.nameOf(v) : myG.getVertex(v).name;
+    }
+
+    /**
+     * Saves the created graph as a {@link GraphSnapshot}, so it can later be opened with
+     * {@link #openSnapshot(File)} instead of reading the data file and creating the graph again.
+     *
+     * @param f
+     *            the {@link File} to write
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void saveSnapshot(File f) throws IOException {
+        GraphSnapshot.write(f, snapshotType(), compactGraph(), this::nameOf, this::kindOf);
+    }
+
+    /**
+     * Opens a graph saved by {@link #saveSnapshot(File)} by the same kind of {@link DegreesOfSeparation}. The file is
+     * memory mapped and no {@link Actor}, {@link Movie} or {@link Vertex} objects are created: from then on, this
+     * object answers every query from the snapshot, and {@link #getGraph()} and the actor and movie tables stay as
+     * they are.
+     *
+     * @param f
+     *            the snapshot {@link File}
+     *
+     * @throws IOException
+     *             if the file cannot be read, is corrupt or was saved by another kind of {@link DegreesOfSeparation}
+     */
+    public void openSnapshot(File f) throws IOException {
+        GraphSnapshot snapshot = GraphSnapshot.open(f);
+        if (!snapshot.getType().equals(snapshotType()))
+            throw new IOException(f + " holds a " + snapshot.getType() + " graph, not a " + snapshotType());
+        mySnapshot = snapshot;
+    }
+
+    /**
+     * Returns the type of graph recorded in the snapshots of this object. Only snapshots of the same type can be
+     * opened.
+     *
+     * @return the class name, unless a subclass says otherwise
+     */
+    protected String snapshotType() {
+        return getClass().getName();
+    }
+
     /**
      * Overrides the default {@link Object#hashCode()} method.
      *
@@ -143,6 +311,9 @@ public abstract class DegreesOfSeparation {
     /**
      * Reads in the {@link Actor}s and {@link Movie}s from a {@link File}. Each line in the data file consists of a
      * movie title, followed by a list of actors and actresses that appeared in that movie, delimited by delimiter
+     * <p>
+     * Single character delimiters are read in parallel by {@link MovieFileParser}; any other delimiter is used as a
+     * regular expression on each line. Both give the same maps.
      *
      * @param f
      *            the {@link File} to be read, does not do anything if the file cannot be read for any reason
@@ -150,28 +321,36 @@ public abstract class DegreesOfSeparation {
      *            the string that appears between {@link Movie} and {@link Actor} names on each line
      */
     public final void readFile(File f, String delimiter) {
-        // Read every line
-        In in = new In(f);
-        while (in.hasNextLine()) {
-            String line = in.readLine();
+        if (!MovieFileParser.canParse(delimiter)) {
+            readLines(f, delimiter);
+            return;
+        }
 
-            // Ignore lines with bad input
-            String[] elems = line.split(delimiter);
-            if (elems.length != 0) {
-                // create movie
-                Movie movie = new Movie(elems[0]);
-                myMovies.put(elems[0], movie); // add movie to movie map
+        MovieFileParser.Chunk[] chunks;
+        try {
+            chunks = MovieFileParser.parse(f, delimiter.charAt(0));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not open " + f, e);
+        }
 
-                // loop through elems
-                for (int k = 1; k < elems.length; k++) {
-                    // create an actor and add to actors map and
-                    // to movie's list of actors
-                    Actor person = myActors.get(elems[k]);
-                    if (person == null) { // new actor
-                        person = new Actor(elems[k]);
-                        myActors.put(elems[k], person);
-                    }
+        // Merge in file order, so the maps are filled in the same order as reading line by line
+        for (MovieFileParser.Chunk chunk : chunks) {
+            Actor[] actors = new Actor[chunk.numActors()];
+            for (int k = 0; k < actors.length; k++) {
+                String name = chunk.actorName(k);
+                Actor person = myActors.get(name);
+                if (person == null) { // new actor
+                    person = new Actor(name);
+                    myActors.put(name, person);
+                }
+                actors[k] = person;
+            }
 
+            for (int i = 0; i < chunk.numLines(); i++) {
+                Movie movie = new Movie(chunk.title(i));
+                myMovies.put(movie.name, movie);
+                for (int j = chunk.castBegin(i); j < chunk.castEnd(i); j++) {
+                    Actor person = actors[chunk.castMember(j)];
                     person.add(movie);
                     movie.addActor(person);
                 }
@@ -208,10 +387,44 @@ public abstract class DegreesOfSeparation {
      * If source is not in the {@code UndirectedGraph}, then the traversal will do nothing.
      *
      * @param g
-     *            {@code UndirectedGraph} that should be initialized and all vertices must have distance set to
-     *            {@link Vertex#INFINITY}. After traversal, {@code distance} and {@code predecessor} fields will be set.
+     *            {@code UndirectedGraph} that should be initialized. Implementations keep the distances and
+     *            predecessors found by the traversal themselves rather than in the {@link Vertex} fields, so the
+     *            graph can be shared.
      * @param source
      *            the {@link Vertex} from which to begin the traversal
      */
     public abstract void traverseBFS(UndirectedGraph g, Vertex source);
-}
\ No newline at end of file
+
+    /**
+     * Reads {@code f} line by line, splitting each line with {@code delimiter} as a regular expression.
+     */
+    private void readLines(File f, String delimiter) {
+        // Read every line
+        In in = new In(f);
+        while (in.hasNextLine()) {
+            String line = in.readLine();
+
+            // Ignore lines with bad input
+            String[] elems = line.split(delimiter);
+            if (elems.length != 0) {
+                // create movie
+                Movie movie = new Movie(elems[0]);
+                myMovies.put(elems[0], movie); // add movie to movie map
+
+                // loop through elems
+                for (int k = 1; k < elems.length; k++) {
+                    // create an actor and add to actors map and
+                    // to movie's list of actors
+                    Actor person = myActors.get(elems[k]);
+                    if (person == null) { // new actor
+                        person = new Actor(elems[k]);
+                        myActors.put(elems[k], person);
+                    }
+
+                    person.add(movie);
+                    movie.addActor(person);
+                }
+            }
+        }
+    }
+}
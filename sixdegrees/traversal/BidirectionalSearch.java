@@ -0,0 +1,165 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.Arrays;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+
+/**
+ * Point-to-point shortest path search over a {@link CompactGraph} that grows a breadth-first search from both ends.
+ * <p>
+ * Each step expands one whole level of the side whose frontier holds fewer vertices. The search stops after the
+ * first level in which the two sides meet; the shortest of the paths found in that level is returned, ties going to
+ * the meeting vertex with the lowest id. For typical pairs this touches a tiny fraction of the vertices a full
+ * traversal would.
+ * <p>
+ * A {@link BidirectionalSearch} keeps its buffers between queries and only resets the vertices the last query
+ * touched, so repeated queries do not allocate. It must not be shared between threads.
+ */
+public final class BidirectionalSearch {
+
+    // Class attributes
+    private final CompactGraph myG;
+    private final Side myForward;
+    private final Side myBackward;
+
+    /**
+     * Prepare to search {@code g}.
+     *
+     * @param g
+     *            the graph to search
+     */
+    public BidirectionalSearch(CompactGraph g) {
+        myG = g;
+        myForward = new Side(g.numVertices());
+        myBackward = new Side(g.numVertices());
+    }
+
+    /**
+     * Returns the graph this search runs on.
+     *
+     * @return the {@link CompactGraph} given at construction
+     */
+    public CompactGraph getGraph() {
+        return myG;
+    }
+
+    /**
+     * Finds a shortest path between {@code from} and {@code to}.
+     *
+     * @param from
+     *            id of the first end of the path
+     * @param to
+     *            id of the last end of the path
+     *
+     * @return the ids on the path starting with {@code from} and ending with {@code to}, or {@code null} if there is
+     *         no such path
+     */
+    public int[] path(int from, int to) {
+        myForward.reset(from);
+        myBackward.reset(to);
+        if (from == to) {
+            myForward.shared = 1; // both sides hold the one vertex
+            return new int[] { from };
+        }
+
+        while (!myForward.isExhausted() && !myBackward.isExhausted()) {
+            int meet = myForward.size() <= myBackward.size() ? myForward.expand(myG, myBackward)
+                    : myBackward.expand(myG, myForward);
+            if (meet >= 0) {
+                int length = myForward.distance[meet] + myBackward.distance[meet];
+                int[] path = new int[length + 1];
+                for (int v = meet, i = myForward.distance[meet]; v >= 0; v = myForward.parent[v], i--) {
+                    path[i] = v;
+                }
+                for (int v = myBackward.parent[meet], i = myForward.distance[meet] + 1; v >= 0; i++) {
+                    path[i] = v;
+                    v = myBackward.parent[v];
+                }
+                return path;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns how many distinct vertices the last call to {@link #path(int, int)} reached from either end.
+     *
+     * @return number of vertices visited by the last query
+     */
+    public int verticesVisited() {
+        return myForward.tail + myBackward.tail - myForward.shared - myBackward.shared;
+    }
+
+    /**
+     * One half of the search: its distances, parents and the queue of every vertex it has reached, and how many of
+     * them the other half had already reached.
+     */
+    private static final class Side {
+        final int[] distance;
+        final int[] parent;
+        final int[] queue;
+        int levelBegin;
+        int tail;
+        int shared;
+
+        Side(int n) {
+            distance = new int[n];
+            parent = new int[n];
+            queue = new int[n];
+            Arrays.fill(distance, Vertex.INFINITY);
+        }
+
+        void reset(int source) {
+            for (int i = 0; i < tail; i++) {
+                distance[queue[i]] = Vertex.INFINITY;
+            }
+            levelBegin = tail = shared = 0;
+            distance[source] = 0;
+            parent[source] = -1;
+            queue[tail++] = source;
+        }
+
+        boolean isExhausted() {
+            return levelBegin == tail;
+        }
+
+        int size() {
+            return tail - levelBegin;
+        }
+
+        /**
+         * Expands the current frontier by one level.
+         *
+         * @return the best vertex where this side met {@code other}, or {@code -1} if they did not meet
+         */
+        int expand(CompactGraph g, Side other) {
+            int meet = -1;
+            int best = Vertex.INFINITY;
+            int levelEnd = tail;
+            for (int i = levelBegin; i < levelEnd; i++) {
+                int current = queue[i];
+                int next = distance[current] + 1;
+                for (int e = g.edgeBegin(current), end = g.edgeEnd(current); e < end; e++) {
+                    int w = g.target(e);
+                    if (distance[w] == Vertex.INFINITY) {
+                        distance[w] = next;
+                        parent[w] = current;
+                        queue[tail++] = w;
+                        if (other.distance[w] != Vertex.INFINITY) {
+                            shared++;
+                            int length = next + other.distance[w];
+                            if (length < best || (length == best && w < meet)) {
+                                best = length;
+                                meet = w;
+                            }
+                        }
+                    }
+                }
+            }
+            levelBegin = levelEnd;
+
+            return meet;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+
+/**
+ * Finds the {@code k} vertices with the lowest Hollywood number, the best centers of the graph, by traversing from
+ * every candidate in parallel.
+ * <p>
+ * The candidates are the counted vertices of the largest connected component (the one with the most counted
+ * vertices), so every candidate reaches the same number {@code r} of counted vertices and ranking by Hollywood number
+ * is the same as ranking by the exact sum of degrees of separation. Candidates are searched from the highest degree
+ * down, since those tend to be central and set a good cut-off early.
+ * <p>
+ * Each search is pruned once it cannot make the top {@code k}: when every vertex up to distance {@code d} has been
+ * found, with a partial sum {@code S} over the {@code c} counted ones, the remaining counted vertices are at least
+ * {@code d + 1} away, so the final sum is at least {@code S + (r - c) * degreesOf(d + 1)}. A search stops as soon as
+ * that bound is higher than the current {@code k}-th best sum.
+ */
+public final class ClosenessLeaderboard {
+
+    private static final long REPORT_NANOS = 1_000_000_000L;
+
+    /**
+     * A vertex on the leaderboard.
+     */
+    public static final class Entry {
+
+        private final int myVertex;
+        private final long mySum;
+        private final int myReachable;
+
+        private Entry(int vertex, long sum, int reachable) {
+            myVertex = vertex;
+            mySum = sum;
+            myReachable = reachable;
+        }
+
+        /**
+         * Returns the vertex.
+         *
+         * @return its id
+         */
+        public int getVertex() {
+            return myVertex;
+        }
+
+        /**
+         * Returns the sum of the degrees of separation from this vertex to every reachable counted vertex.
+         *
+         * @return the total degrees of separation
+         */
+        public long distanceSum() {
+            return mySum;
+        }
+
+        /**
+         * Returns the average degrees of separation from this vertex to every reachable counted vertex.
+         *
+         * @return the Hollywood number
+         */
+        public double hollywoodNumber() {
+            return (double) mySum / myReachable;
+        }
+    }
+
+    /**
+     * Receives the state of the leaderboard while it is being computed.
+     */
+    public interface Listener {
+
+        /**
+         * Called about once a second from one of the searching threads, and once more when all candidates are done.
+         *
+         * @param done
+         *            number of candidates searched so far
+         * @param pruned
+         *            how many of them were pruned
+         * @param total
+         *            number of candidates
+         * @param top
+         *            the current leaders, best first
+         */
+        void progress(int done, int pruned, int total, List<Entry> top);
+    }
+
+    // Ranking order: lowest sum first, then lowest id
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::distanceSum)
+            .thenComparingInt(Entry::getVertex);
+
+    // Class attributes
+    private final CompactGraph myGraph;
+    private final IntPredicate myCounted;
+    private final IntUnaryOperator myDegrees;
+    private final int myK;
+    private final int[] myCandidates;
+    private final int myReachable;
+
+    // State of a computation
+    private final PriorityQueue<Entry> myTop; // worst leader at the head
+    private volatile long myCutoff;
+    private final AtomicInteger myNext = new AtomicInteger();
+    private int myDone;
+    private int myPruned;
+    private long myLastReport;
+
+    /**
+     * Prepares a leaderboard of the {@code k} best centers of {@code g}.
+     *
+     * @param g
+     *            the graph
+     * @param counted
+     *            accepts the vertices that the Hollywood number is about; only they can be on the leaderboard
+     * @param degrees
+     *            converts a distance into degrees of separation; must never decrease as the distance grows
+     * @param k
+     *            size of the leaderboard
+     *
+     * @throws IllegalArgumentException
+     *             if {@code k} is not positive
+     */
+    public ClosenessLeaderboard(CompactGraph g, IntPredicate counted, IntUnaryOperator degrees, int k) {
+        if (k <= 0)
+            throw new IllegalArgumentException("leaderboard size must be positive: " + k);
+        myGraph = g;
+        myCounted = counted;
+        myDegrees = degrees;
+        myK = k;
+        myTop = new PriorityQueue<>(k, ORDER.reversed());
+
+        // Label the connected components and keep the counted vertices of the largest one
+        int n = g.numVertices();
+        int[] component = new int[n];
+        Arrays.fill(component, -1);
+        int[] queue = new int[n];
+        int best = -1;
+        int bestSize = 0;
+        for (int s = 0, label = 0; s < n; s++) {
+            if (component[s] >= 0)
+                continue;
+            int size = 0;
+            int head = 0;
+            int tail = 0;
+            component[s] = label;
+            queue[tail++] = s;
+            while (head < tail) {
+                int v = queue[head++];
+                if (counted.test(v))
+                    size++;
+                for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+                    int w = g.target(e);
+                    if (component[w] < 0) {
+                        component[w] = label;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            if (size > bestSize) {
+                best = label;
+                bestSize = size;
+            }
+            label++;
+        }
+
+        // Highest degree first
+        long[] order = new long[bestSize];
+        int c = 0;
+        for (int v = 0; v < n; v++) {
+            if (component[v] == best && counted.test(v))
+                order[c++] = (long) (Integer.MAX_VALUE - g.degree(v)) << 32 | v;
+        }
+        Arrays.sort(order);
+        myCandidates = new int[bestSize];
+        for (int i = 0; i < bestSize; i++) {
+            myCandidates[i] = (int) order[i];
+        }
+        myReachable = bestSize;
+    }
+
+    /**
+     * Returns the number of vertices that compete for the leaderboard.
+     *
+     * @return number of counted vertices in the largest component
+     */
+    public int numCandidates() {
+        return myCandidates.length;
+    }
+
+    /**
+     * Searches from every candidate on the common {@link ForkJoinPool} and returns the leaderboard.
+     *
+     * @param listener
+     *            receives the progress, or {@code null}
+     *
+     * @return the at most {@code k} vertices with the lowest Hollywood number, best first; ties go to the lowest id
+     */
+    public List<Entry> compute(Listener listener) {
+        synchronized (this) {
+            myTop.clear();
+            myCutoff = Long.MAX_VALUE;
+            myNext.set(0);
+            myDone = 0;
+            myPruned = 0;
+            myLastReport = System.nanoTime();
+        }
+
+        int workers = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), myCandidates.length));
+        IntStream.range(0, workers).parallel().forEach(w -> {
+            for (int i = myNext.getAndIncrement(); i < myCandidates.length; i = myNext.getAndIncrement()) {
+                int source = myCandidates[i];
+                long sum = search(source);
+                record(source, sum, listener);
+            }
+        });
+
+        synchronized (this) {
+            List<Entry> top = leaders();
+            if (listener != null)
+                listener.progress(myDone, myPruned, myCandidates.length, top);
+            return top;
+        }
+    }
+
+    /**
+     * Adds the result of a search to the leaderboard and reports the progress when it is time to.
+     *
+     * @param source
+     *            the candidate
+     * @param sum
+     *            its sum of degrees of separation, {@code -1} if its search was pruned
+     * @param listener
+     *            receives the progress, or {@code null}
+     */
+    private synchronized void record(int source, long sum, Listener listener) {
+        myDone++;
+        if (sum < 0) {
+            myPruned++;
+        } else {
+            Entry entry = new Entry(source, sum, myReachable);
+            if (myTop.size() < myK) {
+                myTop.add(entry);
+            } else if (ORDER.compare(entry, myTop.peek()) < 0) {
+                myTop.poll();
+                myTop.add(entry);
+            }
+            if (myTop.size() == myK)
+                myCutoff = myTop.peek().distanceSum();
+        }
+
+        long now = System.nanoTime();
+        if (listener != null && now - myLastReport >= REPORT_NANOS) {
+            myLastReport = now;
+            listener.progress(myDone, myPruned, myCandidates.length, leaders());
+        }
+    }
+
+    /**
+     * Returns the current leaders, best first.
+     */
+    private List<Entry> leaders() {
+        List<Entry> top = new ArrayList<>(myTop);
+        top.sort(ORDER);
+        return Collections.unmodifiableList(top);
+    }
+
+    /**
+     * Traverses from {@code source} until every counted vertex is found or the sum is bound to exceed the current
+     * cut-off.
+     *
+     * @return the sum of degrees of separation, {@code -1} if the search was pruned
+     */
+    private long search(int source) {
+        CompactGraph g = myGraph;
+        int n = g.numVertices();
+        Scratch scratch = Scratch.get();
+        int[] queue = scratch.queue(n);
+        long[] visited = scratch.bits(n);
+        Arrays.fill(visited, 0, (n + 63) >>> 6, 0L);
+
+        int head = 0;
+        int tail = 0;
+        visited[source >>> 6] |= 1L << source;
+        queue[tail++] = source;
+        int found = myCounted.test(source) ? 1 : 0;
+        long sum = 0;
+        boolean pruned = false;
+
+        for (int level = 0; head < tail && found < myReachable; level++) {
+            // Find every vertex at distance level + 1
+            int levelEnd = tail;
+            int degrees = myDegrees.applyAsInt(level + 1);
+            for (; head < levelEnd; head++) {
+                int current = queue[head];
+                for (int e = g.edgeBegin(current); e < g.edgeEnd(current); e++) {
+                    int w = g.target(e);
+                    if ((visited[w >>> 6] & 1L << w) == 0) {
+                        visited[w >>> 6] |= 1L << w;
+                        queue[tail++] = w;
+                        if (myCounted.test(w)) {
+                            found++;
+                            sum += degrees;
+                        }
+                    }
+                }
+            }
+
+            // The counted vertices not found yet are at least level + 2 away
+            long bound = sum + (long) (myReachable - found) * myDegrees.applyAsInt(level + 2);
+            if (found < myReachable && bound > myCutoff) {
+                pruned = true;
+                break;
+            }
+        }
+
+        return pruned ? -1 : sum;
+    }
+}
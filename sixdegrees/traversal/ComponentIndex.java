@@ -0,0 +1,210 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+
+/**
+ * The connected components of a {@link CompactGraph}, so that whether two vertices are connected, and how large the
+ * component of a vertex is, are answered in constant time without searching the graph.
+ * <p>
+ * The components are found by a union-find over the edges, with the rows of the graph split among the threads of the
+ * common {@link java.util.concurrent.ForkJoinPool}. Every vertex starts out as a tree of its own, and an edge joins the
+ * trees of its endpoints by compare-and-set on the parent of the root with the higher id, which then points at the
+ * other root. Parents only ever point at lower ids, so the trees stay acyclic however the threads interleave, and a
+ * failed compare-and-set only means the roots have to be found again. Every find halves the path it walks. Once all
+ * edges are joined, the root of each tree is the lowest id of its component; components are numbered in that order
+ * and the number of each vertex is stored.
+ * <p>
+ * Sizes count only the vertices accepted by the predicate given to {@link #build(CompactGraph, IntPredicate)}, such
+ * as the actors of the Actor-Movie graph, but every vertex belongs to a component.
+ */
+public final class ComponentIndex {
+
+    private static final int GRAIN = 1024;
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    // Class attributes
+    private final CompactGraph myGraph;
+    private final int[] myComponent; // component of each vertex, numbered in order of their lowest vertex
+    private final int[] mySizes; // counted vertices in each component
+    private final int myLargest;
+    private final long myBuildNanos;
+
+    private ComponentIndex(CompactGraph g, int[] component, int[] sizes, int largest, long buildNanos) {
+        myGraph = g;
+        myComponent = component;
+        mySizes = sizes;
+        myLargest = largest;
+        myBuildNanos = buildNanos;
+    }
+
+    /**
+     * Finds the components of {@code g}.
+     *
+     * @param g
+     *            the graph
+     * @param counted
+     *            accepts the vertices counted in the size of a component
+     *
+     * @return the index
+     */
+    public static ComponentIndex build(CompactGraph g, IntPredicate counted) {
+        long start = System.nanoTime();
+        int n = g.numVertices();
+        int[] parent = new int[n];
+        Arrays.parallelSetAll(parent, v -> v);
+
+        // Join the endpoints of every edge once, from the row of its higher endpoint
+        IntStream.range(0, (n + GRAIN - 1) / GRAIN).parallel().forEach(chunk -> {
+            int end = Math.min(n, (chunk + 1) * GRAIN);
+            for (int v = chunk * GRAIN; v < end; v++) {
+                for (int e = g.edgeBegin(v); e < g.edgeEnd(v) && g.target(e) < v; e++) {
+                    union(parent, v, g.target(e));
+                }
+            }
+        });
+        IntStream.range(0, n).parallel().forEach(v -> parent[v] = find(parent, v));
+
+        // Roots come before the rest of their component, so one pass numbers the components and labels the vertices
+        int[] component = new int[n];
+        int numComponents = 0;
+        for (int v = 0; v < n; v++) {
+            component[v] = parent[v] == v ? numComponents++ : component[parent[v]];
+        }
+        int[] sizes = new int[numComponents];
+        for (int v = 0; v < n; v++) {
+            if (counted.test(v))
+                sizes[component[v]]++;
+        }
+        int largest = -1;
+        for (int c = 0; c < numComponents; c++) {
+            if (sizes[c] > (largest < 0 ? 0 : sizes[largest]))
+                largest = c;
+        }
+
+        return new ComponentIndex(g, component, sizes, largest, System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the root of the tree of {@code v}, halving the path to it on the way.
+     */
+    private static int find(int[] parent, int v) {
+        int p = (int) INTS.getAcquire(parent, v);
+        while (p != v) {
+            int grandparent = (int) INTS.getAcquire(parent, p);
+            if (grandparent != p)
+                INTS.weakCompareAndSet(parent, v, p, grandparent);
+            v = grandparent;
+            p = (int) INTS.getAcquire(parent, v);
+        }
+
+        return v;
+    }
+
+    /**
+     * Joins the trees of {@code v} and {@code w}, making the root with the higher id a child of the other.
+     */
+    private static void union(int[] parent, int v, int w) {
+        while (true) {
+            v = find(parent, v);
+            w = find(parent, w);
+            if (v == w)
+                return;
+            if (v < w) {
+                int root = v;
+                v = w;
+                w = root;
+            }
+            if (INTS.compareAndSet(parent, v, v, w))
+                return;
+        }
+    }
+
+    /**
+     * Returns the graph this index was built for.
+     *
+     * @return the {@link CompactGraph}
+     */
+    public CompactGraph getGraph() {
+        return myGraph;
+    }
+
+    /**
+     * Returns whether there is a path between {@code v} and {@code w}.
+     *
+     * @param v
+     *            a vertex id
+     * @param w
+     *            a vertex id
+     *
+     * @return {@code true} if they are in the same component
+     */
+    public boolean connected(int v, int w) {
+        return myComponent[v] == myComponent[w];
+    }
+
+    /**
+     * Returns the component of {@code v}.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return its component number, from {@code 0} to {@link #numComponents()} - 1 in order of their lowest vertex id
+     */
+    public int component(int v) {
+        return myComponent[v];
+    }
+
+    /**
+     * Returns the number of counted vertices in component {@code c}.
+     *
+     * @param c
+     *            a component number
+     *
+     * @return size of the component
+     */
+    public int size(int c) {
+        return mySizes[c];
+    }
+
+    /**
+     * Returns the number of components, including those without any counted vertex.
+     *
+     * @return number of components
+     */
+    public int numComponents() {
+        return mySizes.length;
+    }
+
+    /**
+     * Returns the component with the most counted vertices. If there are several, it is the one with the lowest
+     * number.
+     *
+     * @return a component number, {@code -1} if no vertex is counted
+     */
+    public int largest() {
+        return myLargest;
+    }
+
+    /**
+     * Returns the memory taken by the index: a component per vertex and a size per component.
+     *
+     * @return size in bytes
+     */
+    public long sizeInBytes() {
+        return 4L * (myComponent.length + mySizes.length);
+    }
+
+    /**
+     * Returns how long {@link #build(CompactGraph, IntPredicate)} took.
+     *
+     * @return build time in nanoseconds
+     */
+    public long buildNanos() {
+        return myBuildNanos;
+    }
+}
@@ -0,0 +1,124 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+
+/**
+ * Direction-optimizing breadth-first search over a {@link CompactGraph}.
+ * <p>
+ * Small frontiers are expanded top-down: every edge leaving the frontier is followed. Once the edges leaving the
+ * frontier outnumber {@code 1/ALPHA} of the edges of the unexplored vertices, levels are expanded bottom-up instead:
+ * every unexplored vertex looks for any neighbor in the frontier and stops at the first one. The search returns to
+ * top-down when the frontier is shrinking and holds less than {@code 1/BETA} of the vertices.
+ * <p>
+ * The switching rule and the {@code ALPHA}/{@code BETA} values follow Beamer, Asanovic and Patterson,
+ * <i>Direction-Optimizing Breadth-First Search</i> (SC 2012).
+ *
+ * @see TraversalStrategy#DIRECTION_OPTIMIZING
+ */
+final class DirectionOptimizingSearch {
+
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+
+    private DirectionOptimizingSearch() {
+    }
+
+    /**
+     * Traverse {@code g} from {@code source}.
+     *
+     * @see TraversalStrategy#search(CompactGraph, int, int[], int[], IntPredicate, DistanceProfile)
+     */
+    static long traverse(CompactGraph g, int source, int[] distance, int[] predecessor, IntPredicate counted,
+            DistanceProfile profile) {
+        int n = g.numVertices();
+        Arrays.fill(distance, 0, n, Vertex.INFINITY);
+        Arrays.fill(predecessor, 0, n, -1);
+
+        // Levels are stored back to back in the queue: the current frontier is queue[levelBegin .. levelEnd)
+        Scratch scratch = Scratch.get();
+        int[] queue = scratch.queue(n);
+        long[] inFrontier = scratch.bits(n);
+        int words = (n + 63) >>> 6;
+        int levelBegin = 0;
+        int tail = 0;
+        long examined = 0;
+        distance[source] = 0;
+        queue[tail++] = source;
+
+        long frontierEdges = g.degree(source);
+        long unexploredEdges = g.adjacencySize() - frontierEdges;
+        int previousSize = 0;
+        boolean bottomUp = false;
+        if (profile != null && counted.test(source))
+            profile.add(0, 1);
+
+        for (int level = 0; levelBegin < tail; level++) {
+            int levelEnd = tail;
+            int frontierSize = levelEnd - levelBegin;
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize <= previousSize && frontierSize < n / BETA) {
+                bottomUp = false;
+            }
+
+            int next = level + 1;
+            long found = 0;
+            frontierEdges = 0;
+            if (bottomUp) {
+                Arrays.fill(inFrontier, 0, words, 0L);
+                for (int i = levelBegin; i < levelEnd; i++) {
+                    inFrontier[queue[i] >>> 6] |= 1L << queue[i];
+                }
+
+                // Neighbors are sorted, so the first frontier neighbor found is the lowest id
+                for (int v = 0; v < n; v++) {
+                    if (distance[v] == Vertex.INFINITY) {
+                        for (int e = g.edgeBegin(v), end = g.edgeEnd(v); e < end; e++) {
+                            int w = g.target(e);
+                            examined++;
+                            if ((inFrontier[w >>> 6] & (1L << w)) != 0) {
+                                distance[v] = next;
+                                predecessor[v] = w;
+                                queue[tail++] = v;
+                                frontierEdges += g.degree(v);
+                                if (profile != null && counted.test(v))
+                                    found++;
+                                break;
+                            }
+                        }
+                    }
+                }
+            } else {
+                for (int i = levelBegin; i < levelEnd; i++) {
+                    int current = queue[i];
+                    int end = g.edgeEnd(current);
+                    examined += end - g.edgeBegin(current);
+                    for (int e = g.edgeBegin(current); e < end; e++) {
+                        int neighbor = g.target(e);
+                        if (distance[neighbor] == Vertex.INFINITY) {
+                            distance[neighbor] = next;
+                            predecessor[neighbor] = current;
+                            queue[tail++] = neighbor;
+                            frontierEdges += g.degree(neighbor);
+                            if (profile != null && counted.test(neighbor))
+                                found++;
+                        } else if (distance[neighbor] == next && current < predecessor[neighbor]) {
+                            predecessor[neighbor] = current;
+                        }
+                    }
+                }
+            }
+
+            if (found > 0)
+                profile.add(next, found);
+            unexploredEdges -= frontierEdges;
+            previousSize = frontierSize;
+            levelBegin = levelEnd;
+        }
+
+        return examined;
+    }
+}
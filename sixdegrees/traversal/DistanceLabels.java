@@ -0,0 +1,238 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.Arrays;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+
+/**
+ * Exact distances between any two vertices of a {@link CompactGraph} from 2-hop labels, built by pruned landmark
+ * labeling.
+ * <p>
+ * Every vertex gets a label: a list of hubs with its distance to each of them, such that any two connected vertices
+ * share a hub on one of their shortest paths. A query merges the two labels, both sorted by hub, and takes the
+ * smallest sum of distances, without touching the graph.
+ * <p>
+ * The labels are built by a breadth-first search from every vertex in turn, highest degree first. The search from
+ * {@code v} adds {@code v} to the label of each vertex it reaches, except where the labels built so far already give
+ * a distance that short: there it neither labels nor goes any further. Since the busiest actors and movies go first,
+ * later searches are pruned almost at once and labels stay short. Hubs are stored by rank in this order, so a label
+ * grows already sorted.
+ * <p>
+ * Distances are stored in a byte each, which limits the graph to shortest paths of at most {@value #MAX_DISTANCE}
+ * edges.
+ */
+public final class DistanceLabels {
+
+    /**
+     * Longest distance that can be stored.
+     */
+    public static final int MAX_DISTANCE = 255;
+
+    // Class attributes
+    private final CompactGraph myGraph;
+    private final int[] myOffsets; // label of v from myOffsets[v] to myOffsets[v + 1] - 1
+    private final int[] myHubs; // hub ranks, ascending within a label
+    private final byte[] myDistances;
+    private final long myBuildNanos;
+
+    private DistanceLabels(CompactGraph g, int[] offsets, int[] hubs, byte[] distances, long buildNanos) {
+        myGraph = g;
+        myOffsets = offsets;
+        myHubs = hubs;
+        myDistances = distances;
+        myBuildNanos = buildNanos;
+    }
+
+    /**
+     * Builds the labels of {@code g}.
+     *
+     * @param g
+     *            the graph
+     *
+     * @return the labels
+     *
+     * @throws IllegalArgumentException
+     *             if a shortest path of {@code g} is longer than {@value #MAX_DISTANCE} edges or the labels do not fit
+     *             in an array
+     */
+    public static DistanceLabels build(CompactGraph g) {
+        long start = System.nanoTime();
+        int n = g.numVertices();
+
+        // Rank vertices by degree, highest first, ties to the lowest id
+        long[] order = new long[n];
+        for (int v = 0; v < n; v++) {
+            order[v] = (long) (Integer.MAX_VALUE - g.degree(v)) << 32 | v;
+        }
+        Arrays.parallelSort(order);
+
+        // Labels under construction
+        int[][] hubs = new int[n][];
+        byte[][] distances = new byte[n][];
+        int[] sizes = new int[n];
+        long total = 0;
+
+        int[] rootDistance = new int[n]; // by hub rank: distance from the root, MAX_VALUE if not in its label
+        Arrays.fill(rootDistance, Integer.MAX_VALUE);
+        int[] distance = new int[n];
+        Arrays.fill(distance, Vertex.INFINITY);
+        int[] queue = new int[n];
+
+        for (int rank = 0; rank < n; rank++) {
+            int root = (int) order[rank];
+            for (int i = 0; i < sizes[root]; i++) {
+                rootDistance[hubs[root][i]] = distances[root][i] & 0xFF;
+            }
+
+            int head = 0;
+            int tail = 0;
+            distance[root] = 0;
+            queue[tail++] = root;
+            while (head < tail) {
+                int v = queue[head++];
+                int d = distance[v];
+
+                // Pruned if the labels so far already connect the root and v that closely
+                int[] vHubs = hubs[v];
+                byte[] vDistances = distances[v];
+                boolean pruned = false;
+                for (int i = 0; i < sizes[v] && !pruned; i++) {
+                    int via = rootDistance[vHubs[i]];
+                    pruned = via != Integer.MAX_VALUE && via + (vDistances[i] & 0xFF) <= d;
+                }
+                if (pruned)
+                    continue;
+
+                if (d > MAX_DISTANCE)
+                    throw new IllegalArgumentException("graph has a shortest path longer than " + MAX_DISTANCE
+                            + " edges");
+                if (vHubs == null || sizes[v] == vHubs.length) {
+                    int capacity = vHubs == null ? 4 : 2 * vHubs.length;
+                    hubs[v] = vHubs = vHubs == null ? new int[capacity] : Arrays.copyOf(vHubs, capacity);
+                    distances[v] = vDistances = vDistances == null ? new byte[capacity]
+                            : Arrays.copyOf(vDistances, capacity);
+                }
+                vHubs[sizes[v]] = rank;
+                vDistances[sizes[v]] = (byte) d;
+                sizes[v]++;
+                if (++total > Integer.MAX_VALUE - 8)
+                    throw new IllegalArgumentException("labels of " + n + " vertices do not fit in memory");
+
+                for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+                    int w = g.target(e);
+                    if (distance[w] == Vertex.INFINITY) {
+                        distance[w] = d + 1;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+
+            // Reset what this search touched
+            for (int i = 0; i < tail; i++) {
+                distance[queue[i]] = Vertex.INFINITY;
+            }
+            for (int i = 0; i < sizes[root]; i++) {
+                rootDistance[hubs[root][i]] = Integer.MAX_VALUE;
+            }
+        }
+
+        // Store the labels back to back
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + sizes[v];
+        }
+        int[] allHubs = new int[offsets[n]];
+        byte[] allDistances = new byte[offsets[n]];
+        for (int v = 0; v < n; v++) {
+            if (sizes[v] > 0) {
+                System.arraycopy(hubs[v], 0, allHubs, offsets[v], sizes[v]);
+                System.arraycopy(distances[v], 0, allDistances, offsets[v], sizes[v]);
+            }
+            hubs[v] = null;
+            distances[v] = null;
+        }
+
+        return new DistanceLabels(g, offsets, allHubs, allDistances, System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the graph these labels were built for.
+     *
+     * @return the {@link CompactGraph}
+     */
+    public CompactGraph getGraph() {
+        return myGraph;
+    }
+
+    /**
+     * Returns the distance between {@code s} and {@code t}.
+     *
+     * @param s
+     *            a vertex id
+     * @param t
+     *            a vertex id
+     *
+     * @return the length of a shortest path, {@link Vertex#INFINITY} if there is none
+     */
+    public int distance(int s, int t) {
+        int i = myOffsets[s];
+        int iEnd = myOffsets[s + 1];
+        int j = myOffsets[t];
+        int jEnd = myOffsets[t + 1];
+        int best = Vertex.INFINITY;
+        while (i < iEnd && j < jEnd) {
+            int a = myHubs[i];
+            int b = myHubs[j];
+            if (a == b) {
+                best = Math.min(best, (myDistances[i] & 0xFF) + (myDistances[j] & 0xFF));
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Returns the number of hubs in the label of {@code v}.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return size of its label
+     */
+    public int labelSize(int v) {
+        return myOffsets[v + 1] - myOffsets[v];
+    }
+
+    /**
+     * Returns the number of hubs in all labels.
+     *
+     * @return total size of the labels
+     */
+    public long numEntries() {
+        return myHubs.length;
+    }
+
+    /**
+     * Returns the memory taken by the labels: an offset per vertex and five bytes per entry.
+     *
+     * @return size in bytes
+     */
+    public long sizeInBytes() {
+        return 4L * myOffsets.length + 5L * myHubs.length;
+    }
+
+    /**
+     * Returns how long {@link #build(CompactGraph)} took.
+     *
+     * @return build time in nanoseconds
+     */
+    public long buildNanos() {
+        return myBuildNanos;
+    }
+}
@@ -0,0 +1,138 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.Arrays;
+
+/**
+ * The number of vertices found at each distance from one source. This is everything the Hollywood number and the
+ * frequency chart of a source need, without keeping a distance per vertex. A {@link TraversalStrategy} fills one in
+ * as it discovers the vertices, and {@link MultiSourceSearch} fills in one per source. {@link DistanceRepair} keeps one
+ * up to date as edges are added.
+ */
+public final class DistanceProfile {
+
+    // Class attributes
+    private final int mySource;
+    private long[] myCounts; // myCounts[d] = vertices at distance d
+    private int myLevels;
+
+    /**
+     * Creates an empty profile for {@code source}.
+     *
+     * @param source
+     *            id of the source vertex
+     */
+    public DistanceProfile(int source) {
+        mySource = source;
+        myCounts = new long[8];
+        myLevels = 0;
+    }
+
+    /**
+     * Returns the vertex the distances are measured from.
+     *
+     * @return id of the source
+     */
+    public int getSource() {
+        return mySource;
+    }
+
+    /**
+     * Returns the number of vertices at {@code distance} from the source.
+     *
+     * @param distance
+     *            a distance
+     *
+     * @return how many vertices were found at that distance
+     */
+    public long count(int distance) {
+        return distance >= 0 && distance < myLevels ? myCounts[distance] : 0;
+    }
+
+    /**
+     * Returns the largest distance at which a vertex was found.
+     *
+     * @return the eccentricity of the source, {@code -1} if nothing was recorded
+     */
+    public int eccentricity() {
+        return myLevels - 1;
+    }
+
+    /**
+     * Returns the number of vertices reachable from the source, the source included.
+     *
+     * @return sum of all counts
+     */
+    public long reachable() {
+        long total = 0;
+        for (int d = 0; d < myLevels; d++) {
+            total += myCounts[d];
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the sum of the distances of all reachable vertices.
+     *
+     * @return sum of {@code d * count(d)}
+     */
+    public long distanceSum() {
+        long total = 0;
+        for (int d = 1; d < myLevels; d++) {
+            total += d * myCounts[d];
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the median distance of the reachable vertices, the source included: at least half of them are this
+     * close to the source.
+     *
+     * @return the lowest distance {@code d} such that {@code count(0) + ... + count(d)} is at least half of
+     *         {@link #reachable()}, {@code -1} if nothing was recorded
+     */
+    public int median() {
+        long half = (reachable() + 1) / 2;
+        long total = 0;
+        for (int d = 0; d < myLevels; d++) {
+            total += myCounts[d];
+            if (total >= half && total > 0)
+                return d;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns a profile of the same source with the same counts, which can be changed without changing this one.
+     *
+     * @return the copy
+     */
+    DistanceProfile copy() {
+        DistanceProfile copy = new DistanceProfile(mySource);
+        copy.myCounts = myCounts.clone();
+        copy.myLevels = myLevels;
+
+        return copy;
+    }
+
+    /**
+     * Records {@code count} more vertices at {@code distance}, or fewer if {@code count} is negative, as when
+     * {@link DistanceRepair} moves a vertex closer to the source.
+     *
+     * @param distance
+     *            a distance
+     * @param count
+     *            number of vertices
+     */
+    void add(int distance, long count) {
+        if (distance >= myCounts.length)
+            myCounts = Arrays.copyOf(myCounts, Math.max(2 * myCounts.length, distance + 1));
+        myCounts[distance] += count;
+        myLevels = Math.max(myLevels, distance + 1);
+        while (myLevels > 0 && myCounts[myLevels - 1] == 0) {
+            myLevels--;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+
+/**
+ * Brings a {@link TraversalResult} up to date after edges were added to the graph it was traversed on, without
+ * traversing the graph again.
+ * <p>
+ * Adding edges can only shorten distances, and only starting from the vertices that got new neighbors. The repair
+ * seeds a breadth-first search with those vertices in order of distance and lowers the distance of every neighbor it
+ * can improve, going further only from the vertices whose distance changed. The search visits the vertices in order of
+ * distance, so each one is improved at most once, and its cost depends on how much of the graph came closer to the
+ * source rather than on the size of the graph. The lowest id predecessor rule of the {@link TraversalStrategy
+ * strategies} is then restored around the changed vertices, and the counts of the {@link TraversalResult#profile()
+ * profile} are moved to the new distances, so the result is the same as a new traversal of the larger graph.
+ * <p>
+ * Results of a {@link ProjectedSearch} cannot be repaired this way.
+ */
+public final class DistanceRepair {
+
+    private DistanceRepair() {
+    }
+
+    /**
+     * Repairs {@code result} after edges were added around {@code touched}. If the graph has more vertices than
+     * {@code result}, the repair is done in a larger copy, in which the new vertices start out unreached, and
+     * {@code result} and its profile are left as they were.
+     *
+     * @param g
+     *            the graph, with the new edges
+     * @param result
+     *            a traversal of the graph before the edges were added
+     * @param touched
+     *            ids of every vertex that got new neighbors
+     * @param counted
+     *            accepts the vertices counted in the profile of {@code result}, which must be the same before and
+     *            after the edges were added
+     *
+     * @return {@code result} or its larger copy, holding the distances and predecessors in {@code g}
+     *
+     * @throws IllegalArgumentException
+     *             if {@code result} has more vertices than {@code g} or holds no traversal
+     */
+    public static TraversalResult repair(CompactGraph g, TraversalResult result, int[] touched, IntPredicate counted) {
+        int n = g.numVertices();
+        if (result.numVertices() > n || result.getSource() < 0)
+            throw new IllegalArgumentException("result is not a traversal of a smaller graph");
+        if (result.numVertices() < n) {
+            TraversalResult larger = new TraversalResult(n);
+            System.arraycopy(result.distances(), 0, larger.distances(), 0, result.numVertices());
+            System.arraycopy(result.predecessors(), 0, larger.predecessors(), 0, result.numVertices());
+            DistanceProfile old = result.profile();
+            larger.finish(result.getSource(), result.edgesExamined(), false, old == null ? null : old.copy());
+            result = larger;
+        }
+        int[] distance = result.distances();
+        int[] predecessor = result.predecessors();
+        DistanceProfile profile = result.profile();
+
+        // Seeds by distance; the vertices whose distance changed are queued in order of distance as well
+        long[] seeds = new long[touched.length];
+        int numSeeds = 0;
+        for (int v : touched) {
+            if (distance[v] != Vertex.INFINITY)
+                seeds[numSeeds++] = (long) distance[v] << 32 | v;
+        }
+        Arrays.sort(seeds, 0, numSeeds);
+        Scratch scratch = Scratch.get();
+        int[] queue = scratch.queue(n);
+        long[] changed = scratch.bits(n);
+        Arrays.fill(changed, 0, (n + 63) >>> 6, 0);
+        int head = 0;
+        int tail = 0;
+        long examined = 0;
+
+        for (int s = 0; s < numSeeds || head < tail;) {
+            int current;
+            if (head == tail || s < numSeeds && (int) (seeds[s] >>> 32) <= distance[queue[head]]) {
+                current = (int) seeds[s];
+                if (distance[current] != (int) (seeds[s++] >>> 32))
+                    continue; // already came closer, and queued
+            } else {
+                current = queue[head++];
+            }
+
+            int next = distance[current] + 1;
+            int end = g.edgeEnd(current);
+            examined += end - g.edgeBegin(current);
+            for (int e = g.edgeBegin(current); e < end; e++) {
+                int neighbor = g.target(e);
+                int old = distance[neighbor];
+                if (next < old) {
+                    distance[neighbor] = next;
+                    changed[neighbor >>> 6] |= 1L << neighbor;
+                    queue[tail++] = neighbor;
+                    if (profile != null && counted.test(neighbor)) {
+                        if (old != Vertex.INFINITY)
+                            profile.add(old, -1);
+                        profile.add(next, 1);
+                    }
+                }
+            }
+        }
+
+        // A changed vertex takes its lowest id neighbor one level closer, and may become a lower id predecessor of its
+        // unchanged neighbors one level further
+        for (int i = 0; i < tail; i++) {
+            int v = queue[i];
+            examined += lowestPredecessor(g, v, distance, predecessor);
+            int next = distance[v] + 1;
+            for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+                int neighbor = g.target(e);
+                if (distance[neighbor] == next && (changed[neighbor >>> 6] & 1L << neighbor) == 0
+                        && v < predecessor[neighbor])
+                    predecessor[neighbor] = v;
+            }
+        }
+
+        // Vertices with new neighbors may have a new lowest id predecessor without coming closer
+        for (int v : touched) {
+            if ((changed[v >>> 6] & 1L << v) == 0 && distance[v] != Vertex.INFINITY)
+                examined += lowestPredecessor(g, v, distance, predecessor);
+        }
+        result.finish(result.getSource(), examined, false, profile);
+
+        return result;
+    }
+
+    /**
+     * Sets the predecessor of {@code v} to its lowest id neighbor one level closer to the source, which is the first
+     * one in its sorted row, unless {@code v} is the source.
+     *
+     * @return the number of edges examined
+     */
+    private static int lowestPredecessor(CompactGraph g, int v, int[] distance, int[] predecessor) {
+        if (distance[v] == 0)
+            return 0;
+        int begin = g.edgeBegin(v);
+        for (int e = begin; e < g.edgeEnd(v); e++) {
+            if (distance[g.target(e)] == distance[v] - 1) {
+                predecessor[v] = g.target(e);
+                return e - begin + 1;
+            }
+        }
+
+        return g.edgeEnd(v) - begin;
+    }
+}
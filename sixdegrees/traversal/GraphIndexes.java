@@ -0,0 +1,180 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+
+/**
+ * The indexes kept over a graph that changes from time to time: a {@link LandmarkIndex}, the {@link DistanceLabels},
+ * a {@link ComponentIndex} and a {@link TraversalCache}.
+ * <p>
+ * Each index is built or opened for one version of the graph, the {@link CompactGraph} it was given, and is only
+ * answered from while that is still the current graph; after the graph changes it has to be built again. Building
+ * replaces an index while other threads may be reading the previous one, so every index is read once per query.
+ */
+public final class GraphIndexes {
+
+    // Class attributes
+    private volatile LandmarkIndex myLandmarks;
+    private volatile DistanceLabels myLabels;
+    private volatile ComponentIndex myComponents;
+    private volatile TraversalCache myCache; // null if traversals are not kept
+
+    /**
+     * Builds a {@link LandmarkIndex} of {@code g}, replacing the previous one.
+     *
+     * @param g
+     *            the current graph
+     * @param k
+     *            number of landmarks
+     * @param selection
+     *            how to choose the landmarks
+     *
+     * @return the new index
+     */
+    public LandmarkIndex buildLandmarks(CompactGraph g, int k, LandmarkIndex.Selection selection) {
+        LandmarkIndex index = LandmarkIndex.build(g, k, selection);
+        myLandmarks = index;
+        return index;
+    }
+
+    /**
+     * Opens a {@link LandmarkIndex} written for {@code g}, replacing the previous one.
+     *
+     * @param f
+     *            the index {@link File}
+     * @param g
+     *            the current graph
+     *
+     * @throws IOException
+     *             if the file cannot be read, is corrupt or was built for another graph
+     */
+    public void openLandmarks(File f, CompactGraph g) throws IOException {
+        myLandmarks = LandmarkIndex.open(f, g);
+    }
+
+    /**
+     * Returns the landmark index of {@code g}.
+     *
+     * @param g
+     *            the current graph
+     *
+     * @return the index built or opened for {@code g}
+     *
+     * @throws IllegalStateException
+     *             if none was built or opened since the graph last changed
+     */
+    public LandmarkIndex landmarks(CompactGraph g) {
+        LandmarkIndex index = myLandmarks;
+        if (index == null || index.getGraph() != g)
+            throw new IllegalStateException("no landmark index for the current graph");
+        return index;
+    }
+
+    /**
+     * Builds the {@link DistanceLabels} of {@code g}, replacing the previous ones.
+     *
+     * @param g
+     *            the current graph
+     *
+     * @return the new labels
+     */
+    public DistanceLabels buildLabels(CompactGraph g) {
+        DistanceLabels labels = DistanceLabels.build(g);
+        myLabels = labels;
+        return labels;
+    }
+
+    /**
+     * Returns how to find the exact distance between two vertices of {@code g}: from its {@link DistanceLabels} if
+     * there are any, otherwise with its landmark index.
+     *
+     * @param g
+     *            the current graph
+     *
+     * @return the distance between two vertex ids, {@link Vertex#INFINITY} if they are not connected
+     *
+     * @throws IllegalStateException
+     *             if there are neither labels nor a landmark index for {@code g}
+     */
+    public IntBinaryOperator distances(CompactGraph g) {
+        DistanceLabels labels = myLabels;
+        if (labels != null && labels.getGraph() == g)
+            return labels::distance;
+        return landmarks(g)::distance;
+    }
+
+    /**
+     * Finds the connected components of {@code g}, replacing the previous index.
+     *
+     * @param g
+     *            the current graph
+     * @param counted
+     *            accepts the vertices counted in the size of a component
+     *
+     * @return the new index
+     */
+    public ComponentIndex buildComponents(CompactGraph g, IntPredicate counted) {
+        ComponentIndex index = ComponentIndex.build(g, counted);
+        myComponents = index;
+        return index;
+    }
+
+    /**
+     * Returns the component index of {@code g}.
+     *
+     * @param g
+     *            the current graph
+     *
+     * @return the index built for {@code g}
+     *
+     * @throws IllegalStateException
+     *             if none was built since the graph last changed
+     */
+    public ComponentIndex components(CompactGraph g) {
+        ComponentIndex index = myComponents;
+        if (index == null || index.getGraph() != g)
+            throw new IllegalStateException("no component index for the current graph");
+        return index;
+    }
+
+    /**
+     * Returns whether the component index of {@code g}, if there is one, puts {@code s} and {@code t} in different
+     * components, so that nothing needs to be searched between them.
+     *
+     * @param g
+     *            the current graph
+     * @param s
+     *            a vertex id
+     * @param t
+     *            a vertex id
+     *
+     * @return {@code true} only if they are known not to be connected
+     */
+    public boolean separated(CompactGraph g, int s, int t) {
+        ComponentIndex index = myComponents;
+        return index != null && index.getGraph() == g && !index.connected(s, t);
+    }
+
+    /**
+     * Starts keeping traversals in a new {@link TraversalCache}. The previous cache and its counts are dropped.
+     *
+     * @param budget
+     *            most bytes of traversals to keep, {@code 0} to stop caching
+     */
+    public void setCacheBudget(long budget) {
+        myCache = budget == 0 ? null : new TraversalCache(budget);
+    }
+
+    /**
+     * Returns the cache of traversals.
+     *
+     * @return the {@link TraversalCache}, {@code null} if traversals are not kept
+     */
+    public TraversalCache cache() {
+        return myCache;
+    }
+}
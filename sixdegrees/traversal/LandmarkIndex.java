@@ -0,0 +1,504 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+
+/**
+ * The distances from a few landmark vertices to every vertex of a {@link CompactGraph}, which bound the distance
+ * between any two vertices without traversing the graph.
+ * <p>
+ * For a landmark {@code L}, the triangle inequality gives {@code |d(s, L) - d(t, L)| <= d(s, t) <= d(s, L) + d(L, t)}.
+ * The index keeps the tightest of these bounds over all its landmarks, so a query takes time proportional to the
+ * number of landmarks only. The same lower bounds guide an exact A* search (ALT: A*, landmarks and the triangle
+ * inequality) that stops as soon as it reaches the target and never expands a vertex that cannot be on a path shorter
+ * than the upper bound.
+ * <p>
+ * Each distance takes a byte: {@value #FAR} stands for that distance or more and {@value #UNREACHABLE} for no path at
+ * all, so the index takes {@code k} bytes per vertex. The index can be written to a file and opened again for the
+ * same graph; the file is laid out as follows, all numbers little-endian:
+ * <ul>
+ * <li>header: magic {@code "OBLI"}, version, number of vertices, edges and landmarks, a CRC-32C of the adjacency of
+ * the graph, the CRC-32C of each section and finally the CRC-32C of the header itself ({@value #HEADER_SIZE} bytes)
+ * <li>landmarks: {@code int[numLandmarks]}, the landmark ids
+ * <li>distances: {@code byte[numVertices * numLandmarks]}, the distances of vertex {@code v} to every landmark
+ * starting at {@code v * numLandmarks}
+ * </ul>
+ */
+public final class LandmarkIndex {
+
+    /**
+     * File name extension used for landmark indexes.
+     */
+    public static final String EXTENSION = ".obli";
+
+    /**
+     * Stored distance of a vertex that is this far from a landmark or farther.
+     */
+    public static final int FAR = 254;
+
+    /**
+     * Stored distance of a vertex that cannot reach a landmark.
+     */
+    public static final int UNREACHABLE = 255;
+
+    /**
+     * How landmarks are chosen.
+     */
+    public enum Selection {
+        /**
+         * The vertices of highest degree, which are close to most vertices and give tight upper bounds.
+         */
+        HIGHEST_DEGREE,
+
+        /**
+         * The highest degree vertex, then each time the vertex farthest from the landmarks chosen so far, which
+         * spreads the landmarks out, reaches every component and gives tight lower bounds.
+         */
+        FARTHEST
+    }
+
+    private static final int MAGIC = 0x494C424F; // "OBLI" read as a little-endian int
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * 9;
+
+    private static final ThreadLocal<Search> SEARCH = ThreadLocal.withInitial(Search::new);
+
+    // Class attributes
+    private final CompactGraph myGraph;
+    private final int[] myLandmarks;
+    private final byte[] myDistances; // myDistances[v * k + i] = distance from v to landmark i
+
+    private LandmarkIndex(CompactGraph g, int[] landmarks, byte[] distances) {
+        myGraph = g;
+        myLandmarks = landmarks;
+        myDistances = distances;
+    }
+
+    /**
+     * Builds an index of {@code g} with {@code k} landmarks, traversing from each of them on the common
+     * {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * @param g
+     *            the graph
+     * @param k
+     *            number of landmarks; fewer are used if {@code g} does not have that many vertices
+     * @param selection
+     *            how to choose the landmarks
+     *
+     * @return the index
+     *
+     * @throws IllegalArgumentException
+     *             if {@code k} is not positive or the distances do not fit in an array
+     */
+    public static LandmarkIndex build(CompactGraph g, int k, Selection selection) {
+        if (k <= 0)
+            throw new IllegalArgumentException("number of landmarks must be positive: " + k);
+        int n = g.numVertices();
+        k = Math.min(k, n);
+        if ((long) n * k > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException(n + " vertices with " + k + " landmarks do not fit in memory");
+
+        // Highest degree first, ties to the lowest id
+        long[] order = new long[n];
+        for (int v = 0; v < n; v++) {
+            order[v] = (long) (Integer.MAX_VALUE - g.degree(v)) << 32 | v;
+        }
+        Arrays.parallelSort(order);
+
+        int[] landmarks = new int[k];
+        byte[][] columns = new byte[k][];
+        if (selection == Selection.HIGHEST_DEGREE) {
+            for (int i = 0; i < k; i++) {
+                landmarks[i] = (int) order[i];
+            }
+            IntStream.range(0, k).parallel().forEach(i -> columns[i] = distancesFrom(g, landmarks[i]));
+        } else {
+            // Distance to the closest landmark so far; unreachable vertices are the farthest of all
+            int[] nearest = new int[n];
+            Arrays.fill(nearest, Integer.MAX_VALUE);
+            for (int i = 0; i < k; i++) {
+                int next = (int) order[0];
+                int farthest = -1;
+                for (long entry : order) {
+                    int v = (int) entry;
+                    if (nearest[v] > farthest) {
+                        farthest = nearest[v];
+                        next = v;
+                    }
+                }
+                landmarks[i] = next;
+                columns[i] = distancesFrom(g, next);
+                for (int v = 0; v < n; v++) {
+                    int d = columns[i][v] & 0xFF;
+                    if (d != UNREACHABLE)
+                        nearest[v] = Math.min(nearest[v], d);
+                }
+            }
+        }
+
+        // Store the distances of each vertex next to each other
+        int numLandmarks = k;
+        byte[] distances = new byte[n * numLandmarks];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            for (int i = 0; i < numLandmarks; i++) {
+                distances[v * numLandmarks + i] = columns[i][v];
+            }
+        });
+
+        return new LandmarkIndex(g, landmarks, distances);
+    }
+
+    /**
+     * Traverses {@code g} from {@code source} into a new array of stored distances.
+     */
+    private static byte[] distancesFrom(CompactGraph g, int source) {
+        int n = g.numVertices();
+        byte[] distance = new byte[n];
+        Arrays.fill(distance, (byte) UNREACHABLE);
+        int[] queue = Scratch.get().queue(n);
+        int head = 0;
+        int tail = 0;
+        distance[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            byte next = (byte) Math.min(FAR, (distance[current] & 0xFF) + 1);
+            for (int e = g.edgeBegin(current); e < g.edgeEnd(current); e++) {
+                int w = g.target(e);
+                if (distance[w] == (byte) UNREACHABLE) {
+                    distance[w] = next;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        return distance;
+    }
+
+    /**
+     * Opens an index written by {@link #write(File)} for the same graph.
+     *
+     * @param f
+     *            the index {@link File}
+     * @param g
+     *            the graph the index was built for
+     *
+     * @return the opened index
+     *
+     * @throws IOException
+     *             if the file cannot be read, is not a landmark index, has another version, fails a checksum or was
+     *             built for another graph
+     */
+    public static LandmarkIndex open(File f, CompactGraph g) throws IOException {
+        MappedByteBuffer buf;
+        try (RandomAccessFile file = new RandomAccessFile(f, "r"); FileChannel channel = file.getChannel()) {
+            if (channel.size() < HEADER_SIZE)
+                throw new IOException(f + " is not a landmark index");
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buf.getInt(0) != MAGIC)
+            throw new IOException(f + " is not a landmark index");
+        if (buf.getInt(4) != VERSION)
+            throw new IOException(f + " has landmark index version " + buf.getInt(4) + ", expected " + VERSION);
+        if (checksum(buf, 0, HEADER_SIZE - 4) != buf.getInt(HEADER_SIZE - 4))
+            throw new IOException(f + " has a corrupt header");
+        int n = buf.getInt(8);
+        int numEdges = buf.getInt(12);
+        int k = buf.getInt(16);
+        if (n != g.numVertices() || numEdges != g.numEdges() || buf.getInt(20) != fingerprint(g))
+            throw new IOException(f + " was built for another graph");
+        long size = HEADER_SIZE + 4L * k + (long) n * k;
+        if (k <= 0 || size != buf.capacity())
+            throw new IOException(f + " is truncated");
+        if (checksum(buf, HEADER_SIZE, 4 * k) != buf.getInt(24)
+                || checksum(buf, HEADER_SIZE + 4 * k, n * k) != buf.getInt(28))
+            throw new IOException(f + " has a corrupt section");
+
+        int[] landmarks = new int[k];
+        byte[] distances = new byte[n * k];
+        buf.position(HEADER_SIZE);
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = buf.getInt();
+        }
+        buf.get(distances);
+
+        return new LandmarkIndex(g, landmarks, distances);
+    }
+
+    /**
+     * Writes this index to {@code f}, replacing its contents.
+     *
+     * @param f
+     *            the {@link File} to write
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void write(File f) throws IOException {
+        int n = myGraph.numVertices();
+        int k = myLandmarks.length;
+        long size = HEADER_SIZE + 4L * k + (long) n * k;
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("landmark index is too large for a file (" + size + " bytes)");
+
+        try (RandomAccessFile file = new RandomAccessFile(f, "rw"); FileChannel channel = file.getChannel()) {
+            file.setLength(size);
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            buf.position(HEADER_SIZE);
+            for (int landmark : myLandmarks) {
+                buf.putInt(landmark);
+            }
+            buf.put(myDistances);
+
+            buf.position(0);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(myGraph.numEdges()).putInt(k)
+                    .putInt(fingerprint(myGraph)).putInt(checksum(buf, HEADER_SIZE, 4 * k))
+                    .putInt(checksum(buf, HEADER_SIZE + 4 * k, n * k));
+            buf.putInt(checksum(buf, 0, HEADER_SIZE - 4));
+            buf.force();
+        }
+    }
+
+    /**
+     * Returns the graph this index was built for.
+     *
+     * @return the {@link CompactGraph}
+     */
+    public CompactGraph getGraph() {
+        return myGraph;
+    }
+
+    /**
+     * Returns the number of landmarks.
+     *
+     * @return {@code k}
+     */
+    public int numLandmarks() {
+        return myLandmarks.length;
+    }
+
+    /**
+     * Returns a landmark.
+     *
+     * @param i
+     *            which landmark, from {@code 0} to {@link #numLandmarks()} - 1
+     *
+     * @return its vertex id
+     */
+    public int landmark(int i) {
+        return myLandmarks[i];
+    }
+
+    /**
+     * Returns a lower bound on the distance between {@code s} and {@code t}.
+     *
+     * @param s
+     *            a vertex id
+     * @param t
+     *            a vertex id
+     *
+     * @return at most the distance, {@link Vertex#INFINITY} if a landmark shows there is no path
+     */
+    public int lowerBound(int s, int t) {
+        int k = myLandmarks.length;
+        int sBase = s * k;
+        int tBase = t * k;
+        int bound = 0;
+        for (int i = 0; i < k; i++) {
+            int ds = myDistances[sBase + i] & 0xFF;
+            int dt = myDistances[tBase + i] & 0xFF;
+            if (ds == dt)
+                continue;
+            if (ds == UNREACHABLE || dt == UNREACHABLE)
+                return Vertex.INFINITY;
+            // Still a lower bound if the larger one is only known to be at least FAR
+            bound = Math.max(bound, Math.abs(ds - dt));
+        }
+
+        return bound;
+    }
+
+    /**
+     * Returns an upper bound on the distance between {@code s} and {@code t}.
+     *
+     * @param s
+     *            a vertex id
+     * @param t
+     *            a vertex id
+     *
+     * @return at least the distance, {@link Vertex#INFINITY} if no landmark reaches both within {@value #FAR}
+     */
+    public int upperBound(int s, int t) {
+        if (s == t)
+            return 0;
+        int k = myLandmarks.length;
+        int sBase = s * k;
+        int tBase = t * k;
+        int bound = Vertex.INFINITY;
+        for (int i = 0; i < k; i++) {
+            int ds = myDistances[sBase + i] & 0xFF;
+            int dt = myDistances[tBase + i] & 0xFF;
+            if (ds < FAR && dt < FAR)
+                bound = Math.min(bound, ds + dt);
+        }
+
+        return bound;
+    }
+
+    /**
+     * Returns the exact distance between {@code s} and {@code t}, from the bounds alone when they meet and otherwise
+     * with an A* search guided by the lower bounds.
+     *
+     * @param s
+     *            a vertex id
+     * @param t
+     *            a vertex id
+     *
+     * @return the distance, {@link Vertex#INFINITY} if there is no path
+     */
+    public int distance(int s, int t) {
+        int lower = lowerBound(s, t);
+        int upper = upperBound(s, t);
+        if (lower == upper || lower == Vertex.INFINITY)
+            return lower;
+
+        return SEARCH.get().run(this, s, t, lower, upper);
+    }
+
+    /**
+     * Returns the number of vertices the last {@link #distance(int, int)} query of the calling thread expanded.
+     *
+     * @return number of vertices expanded by the A* search, {@code 0} if the bounds were enough
+     */
+    public static int verticesExpanded() {
+        return SEARCH.get().myExpanded;
+    }
+
+    /**
+     * A* search state of one thread. Distances and bounds are valid only for vertices stamped with the current
+     * query, so nothing is cleared between queries.
+     */
+    private static final class Search {
+
+        private int[] myStamp = new int[0];
+        private int[] myDistance = new int[0];
+        private int[] myBound = new int[0];
+        private int myQuery;
+        private int myExpanded;
+        // Every edge changes the priority by 0, 1 or 2, so three buckets hold everything still to expand
+        private final int[][] myBuckets = { new int[16], new int[16], new int[16] };
+        private final int[] mySizes = new int[3];
+
+        int run(LandmarkIndex index, int s, int t, int lower, int upper) {
+            CompactGraph g = index.myGraph;
+            int n = g.numVertices();
+            if (myStamp.length < n) {
+                myStamp = new int[n];
+                myDistance = new int[n];
+                myBound = new int[n];
+                myQuery = 0;
+            }
+            if (++myQuery == 0) {
+                Arrays.fill(myStamp, 0);
+                myQuery = 1;
+            }
+            Arrays.fill(mySizes, 0);
+            myExpanded = 0;
+
+            visit(s, 0, lower);
+            int remaining = 1;
+            for (int f = lower; remaining > 0 && f <= upper; f++) {
+                int b = f % 3;
+                while (mySizes[b] > 0) {
+                    int v = myBuckets[b][--mySizes[b]];
+                    remaining--;
+                    int d = myDistance[v];
+                    if (d + myBound[v] != f)
+                        continue; // reached again with a shorter distance
+                    if (v == t) {
+                        myExpanded++;
+                        return d;
+                    }
+                    myExpanded++;
+                    for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+                        int w = g.target(e);
+                        if (myStamp[w] != myQuery) {
+                            int bound = index.lowerBound(w, t);
+                            if (bound != Vertex.INFINITY && d + 1 + bound <= upper) {
+                                visit(w, d + 1, bound);
+                                remaining++;
+                            }
+                        } else if (d + 1 < myDistance[w]) {
+                            myDistance[w] = d + 1;
+                            push(w, d + 1 + myBound[w]);
+                            remaining++;
+                        }
+                    }
+                }
+            }
+
+            return Vertex.INFINITY;
+        }
+
+        private void visit(int v, int d, int bound) {
+            myStamp[v] = myQuery;
+            myDistance[v] = d;
+            myBound[v] = bound;
+            push(v, d + bound);
+        }
+
+        private void push(int v, int f) {
+            int b = f % 3;
+            if (mySizes[b] == myBuckets[b].length)
+                myBuckets[b] = Arrays.copyOf(myBuckets[b], 2 * mySizes[b]);
+            myBuckets[b][mySizes[b]++] = v;
+        }
+    }
+
+    // -----------------------------------------------------------
+    // Helper methods
+    // -----------------------------------------------------------
+
+    /**
+     * Returns a CRC-32C of the adjacency of {@code g}, which ties an index file to the graph it was built for.
+     */
+    private static int fingerprint(CompactGraph g) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buf = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        for (int v = 0; v <= g.numVertices(); v++) {
+            if (!buf.hasRemaining()) {
+                crc.update(buf.flip());
+                buf.clear();
+            }
+            buf.putInt(v < g.numVertices() ? g.edgeBegin(v) : g.adjacencySize());
+        }
+        for (int e = 0; e < g.adjacencySize(); e++) {
+            if (!buf.hasRemaining()) {
+                crc.update(buf.flip());
+                buf.clear();
+            }
+            buf.putInt(g.target(e));
+        }
+        crc.update(buf.flip());
+        return (int) crc.getValue();
+    }
+
+    private static int checksum(ByteBuffer buf, int at, int size) {
+        CRC32C crc = new CRC32C();
+        crc.update(buf.slice(at, size));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,99 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+
+/**
+ * Multi-source breadth-first search (MS-BFS) that traverses a {@link CompactGraph} from {@value #LANES} sources at
+ * once.
+ * <p>
+ * Every vertex holds one bit per source in a {@code long}: {@code seen} marks the sources that already reached it and
+ * {@code visit} the sources for which it is in the current frontier. Expanding a level ORs the {@code visit} word of
+ * each frontier vertex into its neighbors, so one pass over an edge serves up to {@value #LANES} traversals. Batches
+ * of sources run in parallel. Only the number of vertices at each distance is kept, as a {@link DistanceProfile} per
+ * source.
+ * <p>
+ * See Then et al., <i>The More the Merrier: Efficient Multi-Source Graph Traversal</i> (VLDB 2014).
+ */
+public final class MultiSourceSearch {
+
+    /**
+     * Number of sources traversed together by one batch.
+     */
+    public static final int LANES = Long.SIZE;
+
+    private MultiSourceSearch() {
+    }
+
+    /**
+     * Traverses {@code g} from every vertex in {@code sources}.
+     *
+     * @param g
+     *            the graph to traverse
+     * @param sources
+     *            ids of the source vertices
+     * @param counted
+     *            which vertices should be counted in the profiles; the others are traversed but not counted
+     *
+     * @return the {@link DistanceProfile} of each source, in the order of {@code sources}
+     */
+    public static DistanceProfile[] profiles(CompactGraph g, int[] sources, IntPredicate counted) {
+        DistanceProfile[] profiles = new DistanceProfile[sources.length];
+        int batches = (sources.length + LANES - 1) / LANES;
+        IntStream.range(0, batches).parallel().forEach(
+                b -> traverse(g, sources, b * LANES, Math.min(sources.length, (b + 1) * LANES), counted, profiles));
+
+        return profiles;
+    }
+
+    /**
+     * Traverses {@code g} from {@code sources[lo .. hi)}, one bit per source.
+     */
+    private static void traverse(CompactGraph g, int[] sources, int lo, int hi, IntPredicate counted,
+            DistanceProfile[] profiles) {
+        int n = g.numVertices();
+        long[] seen = new long[n];
+        long[] visit = new long[n];
+        long[] visitNext = new long[n];
+        for (int i = lo; i < hi; i++) {
+            int s = sources[i];
+            long bit = 1L << (i - lo);
+            seen[s] |= bit;
+            visit[s] |= bit;
+            profiles[i] = new DistanceProfile(s);
+            if (counted.test(s))
+                profiles[i].add(0, 1);
+        }
+
+        boolean active = true;
+        for (int level = 1; active; level++) {
+            // Push every frontier bit to the neighbors
+            for (int v = 0; v < n; v++) {
+                long bits = visit[v];
+                if (bits != 0) {
+                    for (int e = g.edgeBegin(v), end = g.edgeEnd(v); e < end; e++) {
+                        visitNext[g.target(e)] |= bits;
+                    }
+                }
+            }
+
+            // Keep the bits of sources that reach a vertex for the first time
+            active = false;
+            for (int v = 0; v < n; v++) {
+                long fresh = visitNext[v] & ~seen[v];
+                visitNext[v] = 0;
+                visit[v] = fresh;
+                if (fresh != 0) {
+                    active = true;
+                    seen[v] |= fresh;
+                    if (counted.test(v)) {
+                        for (; fresh != 0; fresh &= fresh - 1) {
+                            profiles[lo + Long.numberOfTrailingZeros(fresh)].add(level, 1);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
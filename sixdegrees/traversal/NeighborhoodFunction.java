@@ -0,0 +1,403 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+
+/**
+ * The distribution of degrees of separation over every pair of counted vertices of a graph, estimated with HyperANF
+ * instead of one traversal per vertex.
+ * <p>
+ * Every vertex keeps a HyperLogLog counter of the counted vertices within {@code t} edges of it. Round {@code t + 1}
+ * merges each counter with the counters of its neighbors, which is one step of every traversal at once, and the
+ * rounds stop when no counter changes. The sum of the counters after round {@code t} estimates the number of ordered
+ * pairs at distance at most {@code t}. A counter of {@code m} registers has a relative standard error of about
+ * {@code 1.04 / sqrt(m)}, and so does each sum. The whole computation takes {@code 2 * m} bytes per vertex and about
+ * {@code m} operations per edge and round, however many vertices there are.
+ * <p>
+ * The estimate can be repeated with independent hash functions. The figures below are the means over the runs, and
+ * their standard errors are measured from the spread of the runs, so they need at least two.
+ */
+public final class NeighborhoodFunction {
+
+    // 2^-k for every register value
+    private static final double[] INVERSE_POWERS = new double[66];
+
+    static {
+        for (int k = 0; k < INVERSE_POWERS.length; k++) {
+            INVERSE_POWERS[k] = Math.scalb(1.0, -k);
+        }
+    }
+
+    // Class attributes
+    private final int myRegisters;
+    private final int myRuns;
+    private final int myRounds;
+    private final long myNumCounted;
+    private final double[][] myPairs; // myPairs[r][d] = pairs of distinct vertices d degrees apart in run r
+    private final double[] myAverage;
+    private final double[] myEffectiveDiameter;
+
+    private NeighborhoodFunction(int registers, int rounds, long numCounted, double[][] pairs) {
+        myRegisters = registers;
+        myRuns = pairs.length;
+        myRounds = rounds;
+        myNumCounted = numCounted;
+        myPairs = pairs;
+        myAverage = new double[myRuns];
+        myEffectiveDiameter = new double[myRuns];
+        for (int r = 0; r < myRuns; r++) {
+            double[] q = pairs[r];
+            double total = 0;
+            double weighted = 0;
+            for (int d = 0; d < q.length; d++) {
+                total += q[d];
+                weighted += d * q[d];
+            }
+            myAverage[r] = total > 0 ? weighted / total : Double.NaN;
+
+            // Interpolate where 90% of the pairs are reached
+            double target = 0.9 * total;
+            double below = 0;
+            myEffectiveDiameter[r] = Double.NaN;
+            for (int d = 0; d < q.length && total > 0; d++) {
+                if (below + q[d] >= target) {
+                    myEffectiveDiameter[r] = d - 1 + (target - below) / q[d];
+                    break;
+                }
+                below += q[d];
+            }
+        }
+    }
+
+    /**
+     * Estimates the neighborhood function of {@code g}, running the rounds of each estimate on the common
+     * {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * @param g
+     *            the graph
+     * @param counted
+     *            accepts the vertices whose pairs are counted
+     * @param degrees
+     *            converts a distance into degrees of separation; must never decrease as the distance grows
+     * @param log2m
+     *            base 2 logarithm of the number of registers per counter, from 4 to 16
+     * @param runs
+     *            number of independent estimates to average
+     * @param seed
+     *            seed of the hash functions; the same seed gives the same estimate
+     *
+     * @return the estimated distribution
+     *
+     * @throws IllegalArgumentException
+     *             if {@code log2m} or {@code runs} is out of range, or the counters do not fit in an array
+     */
+    public static NeighborhoodFunction estimate(CompactGraph g, IntPredicate counted, IntUnaryOperator degrees,
+            int log2m, int runs, long seed) {
+        if (log2m < 4 || log2m > 16)
+            throw new IllegalArgumentException("log2m must be from 4 to 16: " + log2m);
+        if (runs <= 0)
+            throw new IllegalArgumentException("number of runs must be positive: " + runs);
+        int n = g.numVertices();
+        if ((long) n << log2m > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException(n + " counters of " + (1 << log2m) + " registers do not fit in memory");
+
+        long numCounted = IntStream.range(0, n).filter(counted).count();
+        double[][] pairs = new double[runs][];
+        int rounds = 0;
+        for (int r = 0; r < runs; r++) {
+            double[] cumulative = run(g, counted, log2m, seed + r);
+            rounds = Math.max(rounds, cumulative.length - 1);
+
+            // Pairs of distinct vertices found by each round, grouped by degrees of separation. A sum can come out
+            // below the previous one or above the number of pairs, but the true function never does.
+            int maxDegrees = Math.max(0, degrees.applyAsInt(cumulative.length - 1));
+            double[] q = new double[maxDegrees + 1];
+            double previous = cumulative[0];
+            double limit = cumulative[0] + (double) numCounted * (numCounted - 1);
+            for (int t = 1; t < cumulative.length; t++) {
+                double current = Math.min(limit, Math.max(previous, cumulative[t]));
+                q[degrees.applyAsInt(t)] += current - previous;
+                previous = current;
+            }
+            pairs[r] = q;
+        }
+
+        return new NeighborhoodFunction(1 << log2m, rounds, numCounted, pairs);
+    }
+
+    /**
+     * Runs the rounds of one estimate until no counter changes.
+     *
+     * @return the estimated number of ordered pairs within {@code t} edges, for {@code t} from 0 to the last round
+     *         that changed a counter
+     */
+    private static double[] run(CompactGraph g, IntPredicate counted, int log2m, long seed) {
+        int n = g.numVertices();
+        int m = 1 << log2m;
+        byte[] current = new byte[n * m];
+        byte[] next = new byte[n * m];
+        boolean[] changed = new boolean[n];
+        boolean[] changedNext = new boolean[n];
+
+        // Round 0: every counted vertex knows itself
+        for (int v = 0; v < n; v++) {
+            if (counted.test(v)) {
+                long h = mix(v + seed * 0x9E3779B97F4A7C15L);
+                int register = (int) (h >>> (64 - log2m));
+                int rank = Long.numberOfLeadingZeros(h << log2m | 1L << (log2m - 1)) + 1;
+                current[v * m + register] = (byte) rank;
+                changed[v] = true;
+            }
+        }
+
+        double[] cumulative = new double[16];
+        int t = 0;
+        cumulative[t] = sum(current, counted, n, m);
+        while (true) {
+            // A counter can only change if a neighbor's counter changed in the previous round
+            byte[] from = current;
+            byte[] to = next;
+            boolean[] was = changed;
+            boolean[] is = changedNext;
+            int modified = IntStream.range(0, n).parallel().map(v -> {
+                int base = v * m;
+                boolean dirty = false;
+                for (int e = g.edgeBegin(v); e < g.edgeEnd(v) && !dirty; e++) {
+                    dirty = was[g.target(e)];
+                }
+                System.arraycopy(from, base, to, base, m);
+                is[v] = false;
+                if (!dirty)
+                    return 0;
+                for (int e = g.edgeBegin(v); e < g.edgeEnd(v); e++) {
+                    int wBase = g.target(e) * m;
+                    for (int j = 0; j < m; j++) {
+                        if (from[wBase + j] > to[base + j]) {
+                            to[base + j] = from[wBase + j];
+                            is[v] = true;
+                        }
+                    }
+                }
+                return is[v] ? 1 : 0;
+            }).sum();
+            if (modified == 0)
+                break;
+
+            current = to;
+            next = from;
+            changed = is;
+            changedNext = was;
+            if (++t == cumulative.length)
+                cumulative = Arrays.copyOf(cumulative, 2 * t);
+            cumulative[t] = sum(current, counted, n, m);
+        }
+
+        return Arrays.copyOf(cumulative, t + 1);
+    }
+
+    /**
+     * Returns the sum of the estimated sizes of the counters of the counted vertices.
+     */
+    private static double sum(byte[] registers, IntPredicate counted, int n, int m) {
+        return IntStream.range(0, n).parallel().filter(counted).mapToDouble(v -> size(registers, v * m, m)).sum();
+    }
+
+    /**
+     * Returns the HyperLogLog estimate of the counter in {@code registers[base .. base + m - 1]}, with the linear
+     * counting correction for small sets.
+     */
+    private static double size(byte[] registers, int base, int m) {
+        double harmonic = 0;
+        int zeros = 0;
+        for (int j = 0; j < m; j++) {
+            int rank = registers[base + j];
+            harmonic += INVERSE_POWERS[rank];
+            if (rank == 0)
+                zeros++;
+        }
+        double alpha = m == 16 ? 0.673 : m == 32 ? 0.697 : m == 64 ? 0.709 : 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / harmonic;
+        if (estimate <= 2.5 * m && zeros > 0)
+            estimate = m * Math.log((double) m / zeros);
+        return estimate;
+    }
+
+    /**
+     * Scrambles the bits of {@code z} (the finalizer of SplitMix64).
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the number of registers of each counter.
+     *
+     * @return {@code m}
+     */
+    public int registers() {
+        return myRegisters;
+    }
+
+    /**
+     * Returns the relative standard error of the number of pairs within a given distance, from the size of the
+     * counters and the number of runs.
+     *
+     * @return about {@code 1.04 / sqrt(m * runs)}
+     */
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt((double) myRegisters * myRuns);
+    }
+
+    /**
+     * Returns the number of independent estimates that were averaged.
+     *
+     * @return number of runs
+     */
+    public int runs() {
+        return myRuns;
+    }
+
+    /**
+     * Returns the number of rounds that changed a counter, which estimates the diameter in edges from below.
+     *
+     * @return most rounds taken by a run
+     */
+    public int rounds() {
+        return myRounds;
+    }
+
+    /**
+     * Returns the number of counted vertices, which is also the number of pairs of a vertex with itself.
+     *
+     * @return number of counted vertices
+     */
+    public long numCounted() {
+        return myNumCounted;
+    }
+
+    /**
+     * Returns the largest degrees of separation at which some run found pairs.
+     *
+     * @return the largest degrees of separation, {@code -1} if no two distinct vertices are connected
+     */
+    public int maxDegrees() {
+        int max = -1;
+        for (double[] q : myPairs) {
+            for (int d = q.length - 1; d > max; d--) {
+                if (q[d] > 0) {
+                    max = d;
+                    break;
+                }
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the estimated number of ordered pairs of distinct counted vertices {@code degrees} apart.
+     *
+     * @param degrees
+     *            degrees of separation
+     *
+     * @return mean over the runs
+     */
+    public double pairs(int degrees) {
+        return mean(r -> degrees >= 0 && degrees < myPairs[r].length ? myPairs[r][degrees] : 0);
+    }
+
+    /**
+     * Returns the standard error of {@link #pairs(int)}.
+     *
+     * @param degrees
+     *            degrees of separation
+     *
+     * @return standard error over the runs, {@link Double#NaN} with a single run
+     */
+    public double pairsError(int degrees) {
+        return standardError(r -> degrees >= 0 && degrees < myPairs[r].length ? myPairs[r][degrees] : 0);
+    }
+
+    /**
+     * Returns the estimated number of ordered pairs of distinct counted vertices that are connected.
+     *
+     * @return mean over the runs
+     */
+    public double reachablePairs() {
+        return mean(r -> Arrays.stream(myPairs[r]).sum());
+    }
+
+    /**
+     * Returns the standard error of {@link #reachablePairs()}.
+     *
+     * @return standard error over the runs, {@link Double#NaN} with a single run
+     */
+    public double reachablePairsError() {
+        return standardError(r -> Arrays.stream(myPairs[r]).sum());
+    }
+
+    /**
+     * Returns the estimated average degrees of separation between two distinct connected vertices.
+     *
+     * @return mean over the runs, {@link Double#NaN} if no two distinct vertices are connected
+     */
+    public double averageDegrees() {
+        return mean(r -> myAverage[r]);
+    }
+
+    /**
+     * Returns the standard error of {@link #averageDegrees()}.
+     *
+     * @return standard error over the runs, {@link Double#NaN} with a single run
+     */
+    public double averageDegreesError() {
+        return standardError(r -> myAverage[r]);
+    }
+
+    /**
+     * Returns the estimated effective diameter: the degrees of separation within which 90% of the connected pairs
+     * of distinct vertices are, interpolated between whole degrees.
+     *
+     * @return mean over the runs, {@link Double#NaN} if no two distinct vertices are connected
+     */
+    public double effectiveDiameter() {
+        return mean(r -> myEffectiveDiameter[r]);
+    }
+
+    /**
+     * Returns the standard error of {@link #effectiveDiameter()}.
+     *
+     * @return standard error over the runs, {@link Double#NaN} with a single run
+     */
+    public double effectiveDiameterError() {
+        return standardError(r -> myEffectiveDiameter[r]);
+    }
+
+    private double mean(IntToDoubleFunction value) {
+        double total = 0;
+        for (int r = 0; r < myRuns; r++) {
+            total += value.applyAsDouble(r);
+        }
+
+        return total / myRuns;
+    }
+
+    private double standardError(IntToDoubleFunction value) {
+        if (myRuns < 2)
+            return Double.NaN;
+        double mean = mean(value);
+        double squares = 0;
+        for (int r = 0; r < myRuns; r++) {
+            double delta = value.applyAsDouble(r) - mean;
+            squares += delta * delta;
+        }
+
+        return Math.sqrt(squares / (myRuns - 1) / myRuns);
+    }
+}
@@ -0,0 +1,198 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+
+/**
+ * Level-synchronous parallel breadth-first search over a {@link CompactGraph}.
+ * <p>
+ * Each frontier is cut into chunks of {@code GRAIN} vertices that are expanded as {@link RecursiveAction}s on a
+ * {@link ForkJoinPool}. A vertex is claimed by compare-and-set on its distance, so exactly one task appends it to
+ * its own local next-frontier buffer; the buffers are concatenated into the calling thread's queue once the level is
+ * done. The queue, the chunk buffers and the per-chunk counts are all kept in the {@link Scratch} of the calling
+ * thread, so only the tasks themselves are allocated for each level. The predecessor is lowered with compare-and-set to the smallest frontier neighbor, so the result is identical from run to run and
+ * to the one of {@link TraversalStrategy#TOP_DOWN}.
+ *
+ * @see TraversalStrategy#PARALLEL
+ */
+final class ParallelSearch {
+
+    private static final int GRAIN = 512;
+    private static final int COUNTERS = 3; // vertices found, edges examined and vertices counted by each chunk
+    private static final int UNSET = Integer.MAX_VALUE; // predecessor of a vertex nobody has reached yet
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private ParallelSearch() {
+    }
+
+    /**
+     * Traverse {@code g} from {@code source} using the common {@link ForkJoinPool}.
+     *
+     * @see TraversalStrategy#search(CompactGraph, int, int[], int[], IntPredicate, DistanceProfile)
+     */
+    static long traverse(CompactGraph g, int source, int[] distance, int[] predecessor, IntPredicate counted,
+            DistanceProfile profile) {
+        return traverse(g, source, distance, predecessor, counted, profile, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Traverse {@code g} from {@code source} using the tasks of {@code pool}.
+     *
+     * @see TraversalStrategy#search(CompactGraph, int, int[], int[], IntPredicate, DistanceProfile)
+     */
+    static long traverse(CompactGraph g, int source, int[] distance, int[] predecessor, IntPredicate counted,
+            DistanceProfile profile, ForkJoinPool pool) {
+        int n = g.numVertices();
+        Arrays.fill(distance, 0, n, Vertex.INFINITY);
+        Arrays.fill(predecessor, 0, n, UNSET);
+        distance[source] = 0;
+
+        // Levels are stored back to back in the queue: the current frontier is queue[levelBegin .. tail)
+        Scratch scratch = Scratch.get();
+        int[] queue = scratch.queue(n);
+        int maxChunks = (n + GRAIN - 1) / GRAIN;
+        Level work = new Level(g, distance, predecessor, queue, scratch.chunks(maxChunks, GRAIN),
+                scratch.counters(COUNTERS * maxChunks), profile == null ? null : counted);
+        int levelBegin = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        long examined = 0;
+        if (profile != null && counted.test(source))
+            profile.add(0, 1);
+        for (int level = 0; levelBegin < tail; level++) {
+            int chunks = (tail - levelBegin + GRAIN - 1) / GRAIN;
+            work.begin = levelBegin;
+            work.end = tail;
+            work.next = level + 1;
+            pool.invoke(new Expand(work, 0, chunks));
+
+            // Concatenate the local buffers into the next frontier
+            levelBegin = tail;
+            long found = 0;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int count = (int) work.counters[COUNTERS * chunk];
+                System.arraycopy(work.buffers[chunk], 0, queue, tail, count);
+                tail += count;
+                examined += work.counters[COUNTERS * chunk + 1];
+                found += work.counters[COUNTERS * chunk + 2];
+            }
+            if (found > 0)
+                profile.add(level + 1, found);
+        }
+
+        for (int v = 0; v < n; v++) {
+            if (predecessor[v] == UNSET)
+                predecessor[v] = -1;
+        }
+
+        return examined;
+    }
+
+    /**
+     * The state shared by the tasks of a traversal: the frontier of the current level and one output slot per chunk,
+     * reused from level to level. The level is set before its tasks are invoked, which publishes it to them.
+     */
+    private static final class Level {
+        final CompactGraph g;
+        final int[] distance;
+        final int[] predecessor;
+        final int[] frontier;
+        final int[][] buffers; // next-frontier vertices of each chunk, replaced by a larger one when full
+        final long[] counters; // COUNTERS per chunk
+        final IntPredicate counted; // null if nothing is counted
+        int begin;
+        int end;
+        int next;
+
+        Level(CompactGraph g, int[] distance, int[] predecessor, int[] frontier, int[][] buffers, long[] counters,
+                IntPredicate counted) {
+            this.g = g;
+            this.distance = distance;
+            this.predecessor = predecessor;
+            this.frontier = frontier;
+            this.buffers = buffers;
+            this.counters = counters;
+            this.counted = counted;
+        }
+    }
+
+    /**
+     * Expands the chunks {@code [lo, hi)} of a frontier, splitting in halves until a single chunk is left.
+     */
+    @SuppressWarnings("serial") // tasks are never serialized
+    private static final class Expand extends RecursiveAction {
+        private final Level work;
+        private final int lo;
+        private final int hi;
+
+        Expand(Level work, int lo, int hi) {
+            this.work = work;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Expand(work, lo, mid), new Expand(work, mid, hi));
+                return;
+            }
+
+            CompactGraph g = work.g;
+            int[] distance = work.distance;
+            int[] predecessor = work.predecessor;
+            int next = work.next;
+            IntPredicate counted = work.counted;
+            int[] buffer = work.buffers[lo];
+            int count = 0;
+            int found = 0;
+            long examined = 0;
+            for (int i = work.begin + lo * GRAIN, end = Math.min(work.end, i + GRAIN); i < end; i++) {
+                int current = work.frontier[i];
+                int last = g.edgeEnd(current);
+                examined += last - g.edgeBegin(current);
+                for (int e = g.edgeBegin(current); e < last; e++) {
+                    int neighbor = g.target(e);
+                    int d = (int) INTS.getAcquire(distance, neighbor);
+                    if (d == Vertex.INFINITY) {
+                        // Whoever swaps in the distance owns the vertex and adds it to the next frontier
+                        d = (int) INTS.compareAndExchange(distance, neighbor, Vertex.INFINITY, next);
+                        if (d == Vertex.INFINITY) {
+                            if (count == buffer.length)
+                                buffer = Arrays.copyOf(buffer, 2 * count);
+                            buffer[count++] = neighbor;
+                            d = next;
+                            if (counted != null && counted.test(neighbor))
+                                found++;
+                        }
+                    }
+                    if (d == next) {
+                        lowerPredecessor(predecessor, neighbor, current);
+                    }
+                }
+            }
+
+            work.buffers[lo] = buffer;
+            work.counters[COUNTERS * lo] = count;
+            work.counters[COUNTERS * lo + 1] = examined;
+            work.counters[COUNTERS * lo + 2] = found;
+        }
+
+        /**
+         * Atomically sets {@code predecessor[v]} to {@code candidate} if that is lower than its current value.
+         */
+        private static void lowerPredecessor(int[] predecessor, int v, int candidate) {
+            int current = (int) INTS.getAcquire(predecessor, v);
+            while (candidate < current && !INTS.weakCompareAndSet(predecessor, v, current, candidate)) {
+                current = (int) INTS.getAcquire(predecessor, v);
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+
+/**
+ * Breadth-first search over a projection of a bipartite {@link CompactGraph}, such as the Actor-Actor graph seen
+ * through the Actor-Movie graph, without building the projection.
+ * <p>
+ * The vertices of the projection are the ones accepted by {@code side}; two of them are adjacent when they share a
+ * neighbor that is not in the projection. Every level of the search takes two hops: first from the frontier to the
+ * middle vertices it touches, then from those middle vertices to the next frontier. Each middle vertex is expanded
+ * only once, so the search does about the same work as a breadth-first search of the bipartite graph, however many
+ * edges the projection would have.
+ * <p>
+ * The {@link TraversalResult} holds the distance in the projection and the lowest id predecessor of every vertex of
+ * the projection, as if the projection had been traversed by a {@link TraversalStrategy}, and
+ * {@link TraversalResult#via(int)} gives the lowest id middle vertex connecting each one to its predecessor. Vertices
+ * outside the projection are left unreached. Edges between two vertices of the projection are ignored.
+ * <p>
+ * The {@link TraversalResult#profile() profile} counts vertices at their distance in {@code g}, two edges per step
+ * of the projection, the same way {@link MultiSourceSearch} counts them.
+ */
+public final class ProjectedSearch {
+
+    private ProjectedSearch() {
+    }
+
+    /**
+     * Traverse the projection of {@code g} onto {@code side} from {@code source} into a new {@link TraversalResult}.
+     *
+     * @param g
+     *            a bipartite graph
+     * @param side
+     *            accepts the vertices of the projection
+     * @param source
+     *            id of a vertex of the projection from which to begin the traversal
+     *
+     * @return the distances, predecessors and connecting vertices of every vertex of {@code g}
+     */
+    public static TraversalResult traverse(CompactGraph g, IntPredicate side, int source) {
+        return traverse(g, side, source, new TraversalResult(g.numVertices()));
+    }
+
+    /**
+     * Traverse the projection of {@code g} onto {@code side} from {@code source}, overwriting {@code result}.
+     *
+     * @param g
+     *            a bipartite graph
+     * @param side
+     *            accepts the vertices of the projection
+     * @param source
+     *            id of a vertex of the projection from which to begin the traversal
+     * @param result
+     *            a {@link TraversalResult} with as many vertices as {@code g}
+     *
+     * @return {@code result}, holding the distances, predecessors and connecting vertices of every vertex of
+     *         {@code g}
+     *
+     * @throws IllegalArgumentException
+     *             if {@code result} does not have as many vertices as {@code g} or {@code source} is not accepted by
+     *             {@code side}
+     */
+    public static TraversalResult traverse(CompactGraph g, IntPredicate side, int source, TraversalResult result) {
+        return traverse(g, side, source, result, null);
+    }
+
+    /**
+     * Traverse the projection of {@code g} onto {@code side} from {@code source}, overwriting {@code result}, and
+     * count the vertices of the projection accepted by {@code counted} at each distance in the same pass.
+     *
+     * @param g
+     *            a bipartite graph
+     * @param side
+     *            accepts the vertices of the projection
+     * @param source
+     *            id of a vertex of the projection from which to begin the traversal
+     * @param result
+     *            a {@link TraversalResult} with as many vertices as {@code g}
+     * @param counted
+     *            accepts the vertices to count in the {@link TraversalResult#profile() profile} of {@code result}, or
+     *            {@code null} to count nothing
+     *
+     * @return {@code result}, holding the distances, predecessors and connecting vertices of every vertex of
+     *         {@code g}
+     *
+     * @throws IllegalArgumentException
+     *             if {@code result} does not have as many vertices as {@code g} or {@code source} is not accepted by
+     *             {@code side}
+     */
+    public static TraversalResult traverse(CompactGraph g, IntPredicate side, int source, TraversalResult result,
+            IntPredicate counted) {
+        if (result.numVertices() != g.numVertices())
+            throw new IllegalArgumentException("result holds " + result.numVertices() + " vertices, graph has "
+                    + g.numVertices());
+        if (!side.test(source))
+            throw new IllegalArgumentException("vertex " + source + " is not in the projection");
+
+        int n = g.numVertices();
+        int[] distance = result.distances();
+        int[] predecessor = result.predecessors();
+        int[] via = result.vias();
+        Arrays.fill(distance, 0, n, Vertex.INFINITY);
+        Arrays.fill(predecessor, 0, n, -1);
+        Arrays.fill(via, 0, n, -1);
+
+        // Vertices of the projection are queued from the front of the buffer and middle vertices from the back.
+        // While the search runs, a middle vertex holds the level it leads to and the lowest id that reached it.
+        int[] buf = Scratch.get().queue(n);
+        int head = 0;
+        int tail = 0;
+        int middles = n;
+        long examined = 0;
+        distance[source] = 0;
+        buf[tail++] = source;
+        DistanceProfile profile = counted == null ? null : new DistanceProfile(source);
+        if (profile != null && counted.test(source))
+            profile.add(0, 1);
+
+        while (head < tail) {
+            int levelEnd = tail;
+            int levelMiddles = middles;
+            int next = distance[buf[head]] + 1;
+            long found = 0;
+
+            // First hop: the middle vertices this level touches for the first time
+            for (; head < levelEnd; head++) {
+                int current = buf[head];
+                int end = g.edgeEnd(current);
+                examined += end - g.edgeBegin(current);
+                for (int e = g.edgeBegin(current); e < end; e++) {
+                    int middle = g.target(e);
+                    if (side.test(middle))
+                        continue;
+                    if (distance[middle] == Vertex.INFINITY) {
+                        distance[middle] = next;
+                        predecessor[middle] = current;
+                        buf[--middles] = middle;
+                    } else if (distance[middle] == next && current < predecessor[middle]) {
+                        predecessor[middle] = current;
+                    }
+                }
+            }
+
+            // Second hop: the vertices of the projection behind them
+            for (int i = levelMiddles - 1; i >= middles; i--) {
+                int middle = buf[i];
+                int from = predecessor[middle];
+                int end = g.edgeEnd(middle);
+                examined += end - g.edgeBegin(middle);
+                for (int e = g.edgeBegin(middle); e < end; e++) {
+                    int neighbor = g.target(e);
+                    if (!side.test(neighbor))
+                        continue;
+                    if (distance[neighbor] == Vertex.INFINITY) {
+                        distance[neighbor] = next;
+                        predecessor[neighbor] = from;
+                        via[neighbor] = middle;
+                        buf[tail++] = neighbor;
+                        if (profile != null && counted.test(neighbor))
+                            found++;
+                    } else if (distance[neighbor] == next && (from < predecessor[neighbor]
+                            || from == predecessor[neighbor] && middle < via[neighbor])) {
+                        // Same level reached again: keep the lowest predecessor, then the lowest middle vertex
+                        predecessor[neighbor] = from;
+                        via[neighbor] = middle;
+                    }
+                }
+            }
+            if (found > 0)
+                profile.add(2 * next, found);
+        }
+
+        // Middle vertices are not part of the projection
+        for (int i = middles; i < n; i++) {
+            distance[buf[i]] = Vertex.INFINITY;
+            predecessor[buf[i]] = -1;
+        }
+
+        result.finish(source, examined, true, profile);
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread work buffers shared by the traversals of this package, so repeated traversals on one thread do not
+ * allocate. A buffer is only valid until the next traversal on the same thread asks for it.
+ */
+final class Scratch {
+
+    private static final ThreadLocal<Scratch> LOCAL = ThreadLocal.withInitial(Scratch::new);
+
+    private int[] myQueue = new int[0];
+    private long[] myBits = new long[0];
+    private int[][] myChunks = new int[0][];
+    private long[] myCounters = new long[0];
+
+    private Scratch() {
+    }
+
+    /**
+     * Returns the buffers of the calling thread.
+     *
+     * @return this thread's {@link Scratch}
+     */
+    static Scratch get() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Returns an int buffer with room for at least {@code n} entries. Its contents are undefined.
+     *
+     * @param n
+     *            required length
+     *
+     * @return the queue buffer
+     */
+    int[] queue(int n) {
+        if (myQueue.length < n)
+            myQueue = new int[n];
+        return myQueue;
+    }
+
+    /**
+     * Returns a bit set with room for at least {@code n} bits. Its contents are undefined.
+     *
+     * @param n
+     *            required number of bits
+     *
+     * @return the bit set buffer
+     */
+    long[] bits(int n) {
+        int words = (n + 63) >>> 6;
+        if (myBits.length < words)
+            myBits = new long[words];
+        return myBits;
+    }
+
+    /**
+     * Returns at least {@code count} int buffers with room for at least {@code size} entries each. A buffer that is
+     * replaced in the returned array by a larger one keeps that one for the next call. Their contents are undefined.
+     *
+     * @param count
+     *            required number of buffers
+     * @param size
+     *            required length of each buffer
+     *
+     * @return the buffers
+     */
+    int[][] chunks(int count, int size) {
+        if (myChunks.length < count)
+            myChunks = Arrays.copyOf(myChunks, Math.max(count, 2 * myChunks.length));
+        for (int i = 0; i < count; i++) {
+            if (myChunks[i] == null || myChunks[i].length < size)
+                myChunks[i] = new int[size];
+        }
+        return myChunks;
+    }
+
+    /**
+     * Returns a long buffer with room for at least {@code n} entries. Its contents are undefined.
+     *
+     * @param n
+     *            required length
+     *
+     * @return the counter buffer
+     */
+    long[] counters(int n) {
+        if (myCounters.length < n)
+            myCounters = new long[n];
+        return myCounters;
+    }
+}
@@ -0,0 +1,72 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+
+/**
+ * Queue based breadth-first search over a {@link CompactGraph}.
+ *
+ * @see TraversalStrategy#TOP_DOWN
+ */
+final class TopDownSearch {
+
+    private TopDownSearch() {
+    }
+
+    /**
+     * Traverse {@code g} from {@code source}.
+     *
+     * @see TraversalStrategy#search(CompactGraph, int, int[], int[], IntPredicate, DistanceProfile)
+     */
+    static long traverse(CompactGraph g, int source, int[] distance, int[] predecessor, IntPredicate counted,
+            DistanceProfile profile) {
+        int n = g.numVertices();
+        Arrays.fill(distance, 0, n, Vertex.INFINITY);
+        Arrays.fill(predecessor, 0, n, -1);
+
+        // The queue never holds a vertex twice, so a buffer of n ids is enough
+        int[] queue = Scratch.get().queue(n);
+        int head = 0;
+        int tail = 0;
+        long examined = 0;
+        distance[source] = 0;
+        queue[tail++] = source;
+
+        // Counted vertices found at distance level, added to the profile once the search moves past that level
+        int level = 0;
+        long found = profile != null && counted.test(source) ? 1 : 0;
+
+        while (head < tail) {
+            int current = queue[head++];
+            int next = distance[current] + 1;
+            if (profile != null && next > level) {
+                if (found > 0)
+                    profile.add(level, found);
+                level = next;
+                found = 0;
+            }
+
+            int end = g.edgeEnd(current);
+            examined += end - g.edgeBegin(current);
+            for (int e = g.edgeBegin(current); e < end; e++) {
+                int neighbor = g.target(e);
+                if (distance[neighbor] == Vertex.INFINITY) {
+                    distance[neighbor] = next;
+                    predecessor[neighbor] = current;
+                    queue[tail++] = neighbor;
+                    if (profile != null && counted.test(neighbor))
+                        found++;
+                } else if (distance[neighbor] == next && current < predecessor[neighbor]) {
+                    // Same level reached again: keep the lowest id as predecessor
+                    predecessor[neighbor] = current;
+                }
+            }
+        }
+        if (found > 0)
+            profile.add(level, found);
+
+        return examined;
+    }
+}
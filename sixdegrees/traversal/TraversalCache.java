@@ -0,0 +1,191 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+
+/**
+ * Completed {@link TraversalResult traversals} of one {@link CompactGraph}, kept by source vertex within a memory
+ * budget.
+ * <p>
+ * When a new result does not fit, the least recently used ones are evicted until it does; a result larger than the
+ * whole budget is not kept. Results are shared with every caller that finds them here, so they must not be passed
+ * back to a traversal to be overwritten. Asking for another graph than the one cached drops every result, since they
+ * no longer describe the graph. The hit, miss and eviction counts tell whether the budget is large enough.
+ */
+public final class TraversalCache {
+
+    // Class attributes
+    private final long myBudget;
+    private final LinkedHashMap<Integer, TraversalResult> myResults; // least recently used first
+    private CompactGraph myGraph;
+    private long myBytes;
+    private long myHits;
+    private long myMisses;
+    private long myEvictions;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param budget
+     *            most bytes of results to keep
+     *
+     * @throws IllegalArgumentException
+     *             if {@code budget} is negative
+     */
+    public TraversalCache(long budget) {
+        if (budget < 0)
+            throw new IllegalArgumentException("memory budget must not be negative: " + budget);
+        myBudget = budget;
+        myResults = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the result of the traversal of {@code g} from {@code source} and counts a hit, or counts a miss.
+     *
+     * @param g
+     *            the graph that was traversed
+     * @param source
+     *            id of the source
+     *
+     * @return the cached result, {@code null} if there is none
+     */
+    public synchronized TraversalResult get(CompactGraph g, int source) {
+        TraversalResult result = peek(g, source);
+        if (result != null) {
+            myHits++;
+        } else {
+            myMisses++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the result of the traversal of {@code g} from {@code source} if there is one, counting a hit only if
+     * there is. For callers that have a cheaper way to answer than to traverse.
+     *
+     * @param g
+     *            the graph that was traversed
+     * @param source
+     *            id of the source
+     *
+     * @return the cached result, {@code null} if there is none
+     */
+    public synchronized TraversalResult find(CompactGraph g, int source) {
+        TraversalResult result = peek(g, source);
+        if (result != null)
+            myHits++;
+        return result;
+    }
+
+    /**
+     * Keeps {@code result} as the traversal of {@code g} from its source, evicting the least recently used results
+     * that no longer fit.
+     *
+     * @param g
+     *            the graph that was traversed
+     * @param result
+     *            a completed traversal, which must not be overwritten from now on
+     */
+    public synchronized void put(CompactGraph g, TraversalResult result) {
+        long size = result.sizeInBytes();
+        if (size > myBudget)
+            return;
+        forget(g);
+        TraversalResult previous = myResults.put(result.getSource(), result);
+        if (previous != null)
+            myBytes -= previous.sizeInBytes();
+        myBytes += size;
+
+        Iterator<Map.Entry<Integer, TraversalResult>> eldest = myResults.entrySet().iterator();
+        while (myBytes > myBudget) {
+            TraversalResult evicted = eldest.next().getValue();
+            eldest.remove();
+            myBytes -= evicted.sizeInBytes();
+            myEvictions++;
+        }
+    }
+
+    /**
+     * Drops every result. The counts are kept.
+     */
+    public synchronized void clear() {
+        myResults.clear();
+        myBytes = 0;
+    }
+
+    /**
+     * Returns the memory budget.
+     *
+     * @return most bytes of results kept
+     */
+    public long budget() {
+        return myBudget;
+    }
+
+    /**
+     * Returns the memory taken by the cached results.
+     *
+     * @return size in bytes
+     */
+    public synchronized long bytes() {
+        return myBytes;
+    }
+
+    /**
+     * Returns the number of cached results.
+     *
+     * @return number of sources
+     */
+    public synchronized int size() {
+        return myResults.size();
+    }
+
+    /**
+     * Returns how many lookups found a result.
+     *
+     * @return number of hits
+     */
+    public synchronized long hits() {
+        return myHits;
+    }
+
+    /**
+     * Returns how many lookups by {@link #get(CompactGraph, int)} found nothing.
+     *
+     * @return number of misses
+     */
+    public synchronized long misses() {
+        return myMisses;
+    }
+
+    /**
+     * Returns how many results were evicted to make room for others.
+     *
+     * @return number of evictions
+     */
+    public synchronized long evictions() {
+        return myEvictions;
+    }
+
+    // -----------------------------------------------------------
+    // Helper methods
+    // -----------------------------------------------------------
+
+    private TraversalResult peek(CompactGraph g, int source) {
+        forget(g);
+        return myResults.get(source);
+    }
+
+    /**
+     * Drops every result if they were not computed on {@code g}.
+     */
+    private void forget(CompactGraph g) {
+        if (myGraph != g) {
+            clear();
+            myGraph = g;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.Arrays;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+
+/**
+ * The outcome of a breadth-first search from a single source over a {@link CompactGraph}: the distance and the
+ * predecessor of every vertex, indexed by {@link Vertex#id}.
+ * <p>
+ * Traversals write into a {@link TraversalResult} instead of into the {@link Vertex} objects of the graph, so any
+ * number of threads can traverse one shared graph from different sources at the same time. A result can be passed
+ * back to {@link TraversalStrategy#traverse(CompactGraph, int, TraversalResult)} to be overwritten by the next
+ * traversal without allocating new arrays.
+ * <p>
+ * A result filled in by {@link ProjectedSearch} also records, for every vertex of the projection, the vertex outside
+ * of it that connects it to its predecessor.
+ */
+public final class TraversalResult {
+
+    // Class attributes
+    private final int[] myDistance;
+    private final int[] myPredecessor;
+    private int[] myVia; // only allocated once a projection is traversed
+    private boolean myProjected;
+    private int mySource;
+    private long myEdgesExamined;
+    private DistanceProfile myProfile;
+
+    /**
+     * Creates an empty result for a graph with {@code numVertices} vertices, in which no vertex has been reached.
+     *
+     * @param numVertices
+     *            number of vertices of the graph that will be traversed
+     */
+    public TraversalResult(int numVertices) {
+        myDistance = new int[numVertices];
+        myPredecessor = new int[numVertices];
+        Arrays.fill(myDistance, Vertex.INFINITY);
+        Arrays.fill(myPredecessor, -1);
+        mySource = -1;
+    }
+
+    /**
+     * Returns the number of vertices this result holds.
+     *
+     * @return number of vertices
+     */
+    public int numVertices() {
+        return myDistance.length;
+    }
+
+    /**
+     * Returns the vertex the traversal started from.
+     *
+     * @return id of the source, {@code -1} if no traversal has been recorded
+     */
+    public int getSource() {
+        return mySource;
+    }
+
+    /**
+     * Returns the length of the shortest path from the source to {@code v}.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return the distance of {@code v}, {@link Vertex#INFINITY} if it cannot be reached
+     */
+    public int distance(int v) {
+        return myDistance[v];
+    }
+
+    /**
+     * Returns the vertex one step closer to the source on the shortest path to {@code v}. If there are several, it is
+     * the one with the lowest id.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return the id of the predecessor, {@code -1} for the source and for vertices that cannot be reached
+     */
+    public int predecessor(int v) {
+        return myPredecessor[v];
+    }
+
+    /**
+     * Returns the vertex that connects {@code v} to its predecessor in a projection traversed by
+     * {@link ProjectedSearch}, such as the movie two actors appeared in. If there are several, it is the one with the
+     * lowest id.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return the id of the connecting vertex, {@code -1} for the source, for vertices that cannot be reached and if
+     *         the traversal was not a projection
+     */
+    public int via(int v) {
+        return myProjected ? myVia[v] : -1;
+    }
+
+    /**
+     * Returns the number of edges the traversal examined.
+     *
+     * @return number of edge checks
+     */
+    public long edgesExamined() {
+        return myEdgesExamined;
+    }
+
+    /**
+     * Returns the number of vertices found at each distance, if the traversal was asked to count them. For a
+     * {@link ProjectedSearch}, distances are those in the traversed graph: two edges per step of the projection.
+     *
+     * @return the {@link DistanceProfile} of the counted vertices, {@code null} if the traversal counted nothing
+     */
+    public DistanceProfile profile() {
+        return myProfile;
+    }
+
+    /**
+     * Returns the memory taken by the arrays of this result.
+     *
+     * @return size in bytes
+     */
+    public long sizeInBytes() {
+        return 4L * (myDistance.length + myPredecessor.length + (myVia == null ? 0 : myVia.length));
+    }
+
+    /**
+     * Returns the shortest path from {@code v} back to the source.
+     *
+     * @param v
+     *            a vertex id
+     *
+     * @return the ids on the path starting at {@code v} and ending at the source, or {@code null} if {@code v} cannot
+     *         be reached
+     */
+    public int[] path(int v) {
+        if (myDistance[v] == Vertex.INFINITY)
+            return null;
+        int[] path = new int[myDistance[v] + 1];
+        for (int i = 0; v >= 0; v = myPredecessor[v]) {
+            path[i++] = v;
+        }
+
+        return path;
+    }
+
+    /**
+     * Returns the distance array, for traversals to fill in.
+     */
+    int[] distances() {
+        return myDistance;
+    }
+
+    /**
+     * Returns the predecessor array, for traversals to fill in.
+     */
+    int[] predecessors() {
+        return myPredecessor;
+    }
+
+    /**
+     * Returns the connecting vertex array, for projections to fill in.
+     */
+    int[] vias() {
+        if (myVia == null)
+            myVia = new int[myDistance.length];
+        return myVia;
+    }
+
+    /**
+     * Records which traversal produced the current contents, whether it filled in the connecting vertices and what it
+     * counted.
+     */
+    void finish(int source, long edgesExamined, boolean projected, DistanceProfile profile) {
+        mySource = source;
+        myEdgesExamined = edgesExamined;
+        myProjected = projected;
+        myProfile = profile;
+    }
+}
@@ -0,0 +1,127 @@
+package wpialgs.sixdegrees.traversal;
+
+import java.util.function.IntPredicate;
+import wpialgs.sixdegrees.graphs.CompactGraph;
+import wpialgs.sixdegrees.graphs.Vertex;
+
+/**
+ * The breadth-first search algorithms that can be used to traverse a {@link CompactGraph}.
+ * <p>
+ * Every strategy produces the same {@link TraversalResult}: the distance of {@code v} is the length of the shortest
+ * path from the source to {@code v} ({@link Vertex#INFINITY} if there is none) and its predecessor is the lowest id
+ * among the neighbors of {@code v} that are one step closer to the source ({@code -1} for the source and unreachable
+ * vertices). They only differ in how much work they do to get there.
+ * <p>
+ * Given a predicate of the vertices to count, a traversal also counts them at each distance as it finds them, into
+ * the {@link TraversalResult#profile() profile} of its result, so the Hollywood number and the frequency chart of the
+ * source need no further pass over the graph.
+ */
+public enum TraversalStrategy {
+
+    /**
+     * Classic queue based search that expands every edge of every reached vertex.
+     */
+    TOP_DOWN {
+        @Override
+        long search(CompactGraph g, int source, int[] distance, int[] predecessor, IntPredicate counted,
+                DistanceProfile profile) {
+            return TopDownSearch.traverse(g, source, distance, predecessor, counted, profile);
+        }
+    },
+
+    /**
+     * Switches between top-down and bottom-up levels based on the number of edges leaving the frontier, which
+     * skips most edge checks in the middle levels of dense graphs.
+     */
+    DIRECTION_OPTIMIZING {
+        @Override
+        long search(CompactGraph g, int source, int[] distance, int[] predecessor, IntPredicate counted,
+                DistanceProfile profile) {
+            return DirectionOptimizingSearch.traverse(g, source, distance, predecessor, counted, profile);
+        }
+    },
+
+    /**
+     * Expands each level of the search in parallel on the common {@link java.util.concurrent.ForkJoinPool}.
+     */
+    PARALLEL {
+        @Override
+        long search(CompactGraph g, int source, int[] distance, int[] predecessor, IntPredicate counted,
+                DistanceProfile profile) {
+            return ParallelSearch.traverse(g, source, distance, predecessor, counted, profile);
+        }
+    };
+
+    /**
+     * Traverse {@code g} from {@code source} into a new {@link TraversalResult}.
+     *
+     * @param g
+     *            the graph to traverse
+     * @param source
+     *            id of the vertex from which to begin the traversal
+     *
+     * @return the distances and predecessors of every vertex of {@code g}
+     */
+    public TraversalResult traverse(CompactGraph g, int source) {
+        return traverse(g, source, new TraversalResult(g.numVertices()));
+    }
+
+    /**
+     * Traverse {@code g} from {@code source}, overwriting {@code result}. Apart from the buffers kept for the calling
+     * thread, nothing is shared, so several threads may traverse the same graph at once.
+     *
+     * @param g
+     *            the graph to traverse
+     * @param source
+     *            id of the vertex from which to begin the traversal
+     * @param result
+     *            a {@link TraversalResult} with as many vertices as {@code g}
+     *
+     * @return {@code result}, holding the distances and predecessors of every vertex of {@code g}
+     *
+     * @throws IllegalArgumentException
+     *             if {@code result} does not have as many vertices as {@code g}
+     */
+    public TraversalResult traverse(CompactGraph g, int source, TraversalResult result) {
+        return traverse(g, source, result, null);
+    }
+
+    /**
+     * Traverse {@code g} from {@code source}, overwriting {@code result}, and count the vertices accepted by
+     * {@code counted} at each distance in the same pass.
+     *
+     * @param g
+     *            the graph to traverse
+     * @param source
+     *            id of the vertex from which to begin the traversal
+     * @param result
+     *            a {@link TraversalResult} with as many vertices as {@code g}
+     * @param counted
+     *            accepts the vertices to count in the {@link TraversalResult#profile() profile} of {@code result}, or
+     *            {@code null} to count nothing
+     *
+     * @return {@code result}, holding the distances and predecessors of every vertex of {@code g}
+     *
+     * @throws IllegalArgumentException
+     *             if {@code result} does not have as many vertices as {@code g}
+     */
+    public TraversalResult traverse(CompactGraph g, int source, TraversalResult result, IntPredicate counted) {
+        if (result.numVertices() != g.numVertices())
+            throw new IllegalArgumentException("result holds " + result.numVertices() + " vertices, graph has "
+                    + g.numVertices());
+        DistanceProfile profile = counted == null ? null : new DistanceProfile(source);
+        long examined = search(g, source, result.distances(), result.predecessors(), counted, profile);
+        result.finish(source, examined, false, profile);
+
+        return result;
+    }
+
+    /**
+     * Fills in {@code distance} and {@code predecessor} for a traversal of {@code g} from {@code source}, and adds the
+     * vertices accepted by {@code counted} to {@code profile} unless it is {@code null}.
+     *
+     * @return the number of edges examined by the traversal
+     */
+    abstract long search(CompactGraph g, int source, int[] distance, int[] predecessor, IntPredicate counted,
+            DistanceProfile profile);
+}
@@ -0,0 +1,234 @@
+package wpialgs.sixdegrees.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Writes synthetic data files of any size in the format read by
+ * {@link wpialgs.sixdegrees.separation.DegreesOfSeparation#readFile(File, String)}: one movie per line, a title
+ * followed by its cast, separated by tabs.
+ * <p>
+ * Like the real ones, both distributions are heavy-tailed: most movies have a small cast and a few a very large one,
+ * and most actors appear in a movie or two while a few appear in thousands. The size of each cast is drawn from a
+ * discrete power law {@code P(size >= x) = x^-(castExponent - 1)}, capped at {@value #MAX_CAST} or half the actors.
+ * Every actor is given a weight from the same kind of law with {@code filmographyExponent}, and each cast member is
+ * drawn with probability proportional to that weight, so filmographies follow it too. Weights are capped at the
+ * number of movies, so even exponents close to 1 keep them finite. A cast never lists an actor twice: a member is
+ * drawn again at most {@value #MAX_ATTEMPTS} times when it is already in the cast, and after that the next actor that
+ * is not is taken instead, so writing a line stays bounded however the weights are skewed.
+ * <p>
+ * The same parameters and seed always write the same file. Lines are written as they are drawn, and only an alias
+ * table over the actors is kept in memory, so files of tens of millions of credits are written in a single pass.
+ */
+public final class DatasetGenerator {
+
+    /**
+     * Largest number of actors in a movie.
+     */
+    public static final int MAX_CAST = 1000;
+
+    /**
+     * Default exponent of the cast sizes, which averages between four and five actors per movie.
+     */
+    public static final double DEFAULT_CAST_EXPONENT = 2.2;
+
+    /**
+     * Default exponent of the filmography sizes, which leaves about two actors in five with a single movie.
+     */
+    public static final double DEFAULT_FILMOGRAPHY_EXPONENT = 3.0;
+
+    /**
+     * Default seed.
+     */
+    public static final long DEFAULT_SEED = 2223;
+
+    private static final int FIRST_YEAR = 1900;
+    private static final int YEARS = 125;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_ATTEMPTS = 32;
+
+    // Class attributes
+    private final int myNumMovies;
+    private final int myNumActors;
+    private final double myCastExponent;
+    private final double myFilmographyExponent;
+    private final long mySeed;
+
+    /**
+     * Prepares a generator.
+     *
+     * @param numMovies
+     *            number of movies, one per line
+     * @param numActors
+     *            number of actors that can be cast; the ones that are never drawn do not appear in the file
+     * @param castExponent
+     *            exponent of the power law of the cast sizes, greater than 1; the lower, the heavier the tail
+     * @param filmographyExponent
+     *            exponent of the power law of the actor weights, greater than 1; the lower, the heavier the tail
+     * @param seed
+     *            seed of the random numbers
+     *
+     * @throws IllegalArgumentException
+     *             if a count is not positive or an exponent is not greater than 1
+     */
+    public DatasetGenerator(int numMovies, int numActors, double castExponent, double filmographyExponent,
+            long seed) {
+        if (numMovies <= 0 || numActors <= 0)
+            throw new IllegalArgumentException("movies and actors must be positive: " + numMovies + ", " + numActors);
+        if (!(castExponent > 1) || !(filmographyExponent > 1))
+            throw new IllegalArgumentException("exponents must be greater than 1: " + castExponent + ", "
+                    + filmographyExponent);
+        myNumMovies = numMovies;
+        myNumActors = numActors;
+        myCastExponent = castExponent;
+        myFilmographyExponent = filmographyExponent;
+        mySeed = seed;
+    }
+
+    /**
+     * Writes the data file.
+     *
+     * @param f
+     *            the {@link File} to write, replaced if it exists
+     *
+     * @return the number of credits written, one per actor per movie
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public long write(File f) throws IOException {
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(f.toPath()), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return write(out);
+        }
+    }
+
+    /**
+     * Writes the data to {@code out}.
+     *
+     * @param out
+     *            where to write the lines
+     *
+     * @return the number of credits written, one per actor per movie
+     *
+     * @throws IOException
+     *             if {@code out} cannot be written
+     */
+    public long write(Writer out) throws IOException {
+        SplittableRandom random = new SplittableRandom(mySeed);
+
+        // Alias table over the actor weights (Vose), so each cast member is drawn in constant time
+        int n = myNumActors;
+        double[] weight = new double[n];
+        double total = 0;
+        for (int a = 0; a < n; a++) {
+            weight[a] = powerLaw(random, myFilmographyExponent, myNumMovies);
+            total += weight[a];
+        }
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int numSmall = 0;
+        int numLarge = 0;
+        for (int a = 0; a < n; a++) {
+            weight[a] *= n / total;
+            if (weight[a] < 1)
+                small[numSmall++] = a;
+            else
+                large[numLarge++] = a;
+        }
+        while (numSmall > 0 && numLarge > 0) {
+            int s = small[--numSmall];
+            int l = large[--numLarge];
+            probability[s] = weight[s];
+            alias[s] = l;
+            weight[l] -= 1 - weight[s];
+            if (weight[l] < 1)
+                small[numSmall++] = l;
+            else
+                large[numLarge++] = l;
+        }
+        while (numLarge > 0) {
+            probability[large[--numLarge]] = 1;
+        }
+        while (numSmall > 0) {
+            probability[small[--numSmall]] = 1; // only left over by rounding
+        }
+
+        // One line per movie; lastCast[a] is the last movie that cast a, to keep casts free of duplicates
+        int[] lastCast = new int[n];
+        Arrays.fill(lastCast, -1);
+        int maxCast = Math.max(1, Math.min(MAX_CAST, n / 2));
+        StringBuilder line = new StringBuilder();
+        long credits = 0;
+        for (int m = 0; m < myNumMovies; m++) {
+            line.setLength(0);
+            line.append("Movie ").append(m).append(" (").append(FIRST_YEAR + (int) ((long) m * YEARS / myNumMovies))
+                    .append(')');
+            int size = (int) powerLaw(random, myCastExponent, maxCast);
+            for (int k = 0; k < size; k++) {
+                int a;
+                int attempts = 0;
+                do {
+                    int column = random.nextInt(n);
+                    a = random.nextDouble() < probability[column] ? column : alias[column];
+                } while (lastCast[a] == m && ++attempts < MAX_ATTEMPTS);
+                while (lastCast[a] == m) {
+                    a = a + 1 == n ? 0 : a + 1; // size < n unless n is 1, so a free actor is always found
+                }
+                lastCast[a] = m;
+                line.append('\t').append("Actor").append(a).append(", A");
+            }
+            credits += size;
+            out.append(line).append('\n');
+        }
+
+        return credits;
+    }
+
+    /**
+     * Draws from the discrete power law {@code P(X >= x) = x^-(exponent - 1)} for {@code x >= 1}, capped at
+     * {@code max}.
+     */
+    private static double powerLaw(SplittableRandom random, double exponent, double max) {
+        return Math.min(max, Math.floor(Math.pow(1 - random.nextDouble(), -1 / (exponent - 1))));
+    }
+
+    /**
+     * Writes a data file.
+     *
+     * @param args
+     *            the file to write, the number of movies and of actors, optionally followed by the cast and the
+     *            filmography exponents, and then the seed
+     */
+    public static void main(String[] args) {
+        if (args.length != 3 && args.length != 5 && args.length != 6) {
+            System.err.println("USAGE: java DatasetGenerator <filename> <movies> <actors> "
+                    + "[<cast exponent> <filmography exponent> [<seed>]]");
+            return;
+        }
+
+        try {
+            DatasetGenerator generator = new DatasetGenerator(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                    args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_CAST_EXPONENT,
+                    args.length > 3 ? Double.parseDouble(args[4]) : DEFAULT_FILMOGRAPHY_EXPONENT,
+                    args.length > 5 ? Long.parseLong(args[5]) : DEFAULT_SEED);
+            long start = System.nanoTime();
+            long credits = generator.write(new File(args[0]));
+            System.out.printf("%s movies, %d credits written. Time elapsed: %.5f seconds\n", args[1], credits,
+                    (System.nanoTime() - start) / 1e9);
+        } catch (IOException e) {
+            System.err.println("Could not write " + args[0] + ": " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+}
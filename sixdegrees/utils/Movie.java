@@ -41,6 +41,18 @@ public class Movie implements Comparable<Movie> {
         myActors.add(person);
     }
 
+    /**
+     * Returns whether {@code person} is one of the cast members of this {@link Movie}
+     *
+     * @param person
+     *            an Actor
+     *
+     * @return {@code true} if {@code person} appeared in this Movie
+     */
+    public boolean hasActor(Actor person) {
+        return myActors.contains(person);
+    }
+
     /**
      * The name of the {@link Movie} is assumed to be unique, so it is used to compare with another one.
      *
@@ -0,0 +1,309 @@
+package wpialgs.sixdegrees.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel parser for data files made of one movie per line: a title followed by the cast, separated by a single
+ * character delimiter.
+ * <p>
+ * The file is cut into chunks that start right after a {@code '\n'} and each chunk is read with positional
+ * {@link FileChannel} reads and tokenized by a separate task, splitting the raw UTF-8 bytes on the delimiter
+ * without regular expressions. Each task also builds a local table of the actor names it met, in order of first
+ * appearance, so that merging the chunks in file order only needs one global lookup per distinct name and chunk.
+ * <p>
+ * Lines are split exactly like {@link String#split(String)} with a one character delimiter would split them, and
+ * lines end at the same terminators as {@link java.util.Scanner#nextLine()}: {@code \n}, {@code \r\n}, {@code \r},
+ * U+0085, U+2028 and U+2029.
+ */
+public final class MovieFileParser {
+
+    private static final int MIN_CHUNK = 1 << 20;
+    private static final int MAX_CHUNK = 1 << 26;
+    private static final int WINDOW = 1 << 16;
+    private static final String REGEX_METACHARACTERS = ".$|()[]{}^?*+\\";
+
+    private MovieFileParser() {
+    }
+
+    /**
+     * Returns whether {@code delimiter} is a single character that this parser can split on. Other delimiters have
+     * to be handled as regular expressions.
+     *
+     * @param delimiter
+     *            the delimiter given to {@link String#split(String)}
+     *
+     * @return {@code true} if {@link #parse(File, char)} splits like {@code delimiter} does
+     */
+    public static boolean canParse(String delimiter) {
+        if (delimiter.length() != 1)
+            return false;
+        char c = delimiter.charAt(0);
+        return c < 0x80 && c != '\n' && c != '\r' && REGEX_METACHARACTERS.indexOf(c) < 0;
+    }
+
+    /**
+     * Parses {@code f} in parallel.
+     *
+     * @param f
+     *            the data file
+     * @param delimiter
+     *            an ASCII delimiter accepted by {@link #canParse(String)}
+     *
+     * @return the chunks of the file, in file order
+     *
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public static Chunk[] parse(File f, char delimiter) throws IOException {
+        try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            try {
+                return IntStream.range(0, bounds.length - 1).parallel()
+                        .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1], (byte) delimiter))
+                        .toArray(Chunk[]::new);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Splits the file into ranges that each start at the beginning of a line.
+     */
+    private static long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int parts = (int) Math.max(1, Math.min(4L * Runtime.getRuntime().availableProcessors(), size / MIN_CHUNK));
+        long step = Math.max((size + parts - 1) / parts, 1);
+        while (step > MAX_CHUNK) {
+            parts *= 2;
+            step = (size + parts - 1) / parts;
+        }
+
+        long[] bounds = new long[parts + 1];
+        int count = 1;
+        ByteBuffer window = ByteBuffer.allocate(WINDOW);
+        for (long at = step; at < size && count <= parts; at += step) {
+            // Move the boundary just past the next '\n'
+            long start = Math.max(at, bounds[count - 1]);
+            long cut = -1;
+            while (cut < 0 && start < size) {
+                window.clear();
+                int read = channel.read(window, start);
+                for (int i = 0; i < read; i++) {
+                    if (window.get(i) == '\n') {
+                        cut = start + i + 1;
+                        break;
+                    }
+                }
+                start += Math.max(read, 0);
+            }
+            if (cut < 0 || cut >= size)
+                break;
+            bounds[count++] = cut;
+        }
+        bounds[count++] = size;
+
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Reads and tokenizes the bytes from {@code begin} (inclusive) to {@code end} (exclusive).
+     */
+    private static Chunk parseChunk(FileChannel channel, long begin, long end, byte delimiter) {
+        byte[] bytes = new byte[(int) (end - begin)];
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        try {
+            while (buf.hasRemaining()) {
+                int read = channel.read(buf, begin + buf.position());
+                if (read < 0)
+                    throw new IOException("file shrank while being read");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Chunk chunk = new Chunk();
+        int lineStart = 0;
+        int i = 0;
+        while (i < bytes.length) {
+            int terminator = terminatorLength(bytes, i);
+            if (terminator == 0) {
+                i++;
+            } else {
+                chunk.addLine(bytes, lineStart, i, delimiter);
+                i += terminator;
+                lineStart = i;
+            }
+        }
+        if (lineStart < bytes.length)
+            chunk.addLine(bytes, lineStart, bytes.length, delimiter);
+
+        return chunk;
+    }
+
+    /**
+     * Returns the length of the line terminator that starts at {@code bytes[i]}, {@code 0} if there is none.
+     */
+    private static int terminatorLength(byte[] bytes, int i) {
+        switch (bytes[i]) {
+        case '\n':
+            return 1;
+        case '\r':
+            return i + 1 < bytes.length && bytes[i + 1] == '\n' ? 2 : 1;
+        case (byte) 0xC2: // U+0085
+            return i + 1 < bytes.length && bytes[i + 1] == (byte) 0x85 ? 2 : 0;
+        case (byte) 0xE2: // U+2028 and U+2029
+            return i + 2 < bytes.length && bytes[i + 1] == (byte) 0x80
+                    && (bytes[i + 2] == (byte) 0xA8 || bytes[i + 2] == (byte) 0xA9) ? 3 : 0;
+        default:
+            return 0;
+        }
+    }
+
+    /**
+     * The movies of one part of a data file. Each line holds a movie title and the chunk-local ids of its cast; the
+     * names behind the ids are listed in order of first appearance in the chunk.
+     */
+    public static final class Chunk {
+
+        private final List<String> myTitles = new ArrayList<>();
+        private final List<String> myActors = new ArrayList<>();
+        private final HashMap<String, Integer> myActorIds = new HashMap<>();
+        private int[] myCastOffsets = new int[16];
+        private int[] myCast = new int[64];
+        private int myCastSize;
+
+        private Chunk() {
+        }
+
+        /**
+         * Returns the number of movie lines in this chunk.
+         *
+         * @return number of lines
+         */
+        public int numLines() {
+            return myTitles.size();
+        }
+
+        /**
+         * Returns the movie title of line {@code i}.
+         *
+         * @param i
+         *            a line of this chunk
+         *
+         * @return the first field of the line
+         */
+        public String title(int i) {
+            return myTitles.get(i);
+        }
+
+        /**
+         * Returns where the cast of line {@code i} starts.
+         *
+         * @param i
+         *            a line of this chunk
+         *
+         * @return index of the first cast member, to be used with {@link #castMember(int)}
+         */
+        public int castBegin(int i) {
+            return myCastOffsets[i];
+        }
+
+        /**
+         * Returns where the cast of line {@code i} ends.
+         *
+         * @param i
+         *            a line of this chunk
+         *
+         * @return index one past the last cast member, to be used with {@link #castMember(int)}
+         */
+        public int castEnd(int i) {
+            return myCastOffsets[i + 1];
+        }
+
+        /**
+         * Returns the chunk-local id of a cast member.
+         *
+         * @param j
+         *            an index between {@link #castBegin(int)} and {@link #castEnd(int)} of some line
+         *
+         * @return the id of the actor, to be used with {@link #actorName(int)}
+         */
+        public int castMember(int j) {
+            return myCast[j];
+        }
+
+        /**
+         * Returns the number of distinct actor names in this chunk.
+         *
+         * @return number of chunk-local actor ids
+         */
+        public int numActors() {
+            return myActors.size();
+        }
+
+        /**
+         * Returns the name behind a chunk-local actor id. Ids are given in order of first appearance.
+         *
+         * @param k
+         *            a chunk-local actor id
+         *
+         * @return the actor name
+         */
+        public String actorName(int k) {
+            return myActors.get(k);
+        }
+
+        /**
+         * Splits the line {@code bytes[begin .. end)} the way {@link String#split(String)} would and records it.
+         */
+        private void addLine(byte[] bytes, int begin, int end, byte delimiter) {
+            int first = begin;
+            while (first < end && bytes[first] != delimiter) {
+                first++;
+            }
+            if (first < end) {
+                // split drops trailing empty fields, and the whole line if nothing else is left
+                while (end > begin && bytes[end - 1] == delimiter) {
+                    end--;
+                }
+                if (end == begin)
+                    return;
+            }
+
+            int line = myTitles.size();
+            myTitles.add(new String(bytes, begin, Math.min(first, end) - begin, StandardCharsets.UTF_8));
+            if (line + 1 == myCastOffsets.length)
+                myCastOffsets = Arrays.copyOf(myCastOffsets, 2 * myCastOffsets.length);
+            for (int from = first + 1; from <= end; from++) {
+                int to = from;
+                while (to < end && bytes[to] != delimiter) {
+                    to++;
+                }
+                String name = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+                Integer id = myActorIds.get(name);
+                if (id == null) {
+                    id = myActors.size();
+                    myActorIds.put(name, id);
+                    myActors.add(name);
+                }
+                if (myCastSize == myCast.length)
+                    myCast = Arrays.copyOf(myCast, 2 * myCastSize);
+                myCast[myCastSize++] = id;
+                from = to;
+            }
+            myCastOffsets[line + 1] = myCastSize;
+        }
+    }
+}